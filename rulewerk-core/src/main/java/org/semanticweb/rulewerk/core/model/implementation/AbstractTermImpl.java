@@ -34,7 +34,7 @@ public abstract class AbstractTermImpl implements Term {
 
 	public AbstractTermImpl(final String name) {
 		Validate.notBlank(name, "Terms cannot be named by blank strings");
-		this.name = new String(name);
+		this.name = name;
 	}
 
 	@Override
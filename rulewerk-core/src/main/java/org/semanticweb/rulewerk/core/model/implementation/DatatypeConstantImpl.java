@@ -80,11 +80,9 @@ public class DatatypeConstantImpl implements DatatypeConstant {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
+		if (!(obj instanceof DatatypeConstant))
 			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		DatatypeConstantImpl other = (DatatypeConstantImpl) obj;
+		DatatypeConstant other = (DatatypeConstant) obj;
 
 		return this.lexicalValue.equals(other.getLexicalValue()) && this.datatype.equals(other.getDatatype());
 	}
@@ -48,12 +48,59 @@ import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 
 public final class Expressions {
 
+	/**
+	 * Pool of canonical constants, used if interning is enabled.
+	 */
+	private static final InterningPool<Term> constantPool = new InterningPool<>();
+
+	/**
+	 * Pool of canonical predicates, used if interning is enabled.
+	 */
+	private static final InterningPool<Predicate> predicatePool = new InterningPool<>();
+
+	private static volatile boolean interning = false;
+
 	/**
 	 * Private constructor prevents this utilities class to be instantiated.
 	 */
 	private Expressions() {
 	}
 
+	/**
+	 * Enables or disables interning of constants and predicates. If enabled, the
+	 * factory methods of this class return one canonical object for all equal
+	 * constants and predicates, so that large knowledge bases do not hold many
+	 * copies of the same term, and equality checks can often be decided by
+	 * identity. Canonical objects are weakly referenced, and are garbage collected
+	 * once no longer in use. Interning is disabled by default.
+	 *
+	 * @param enabled if {@code true}, constants and predicates are interned from
+	 *                now on; if {@code false}, the pools are cleared and new
+	 *                objects are created for each call
+	 */
+	public static void setInterning(final boolean enabled) {
+		interning = enabled;
+		if (!enabled) {
+			constantPool.clear();
+			predicatePool.clear();
+		}
+	}
+
+	/**
+	 * Returns whether constants and predicates created by this class are interned.
+	 * See {@link #setInterning(boolean)}.
+	 *
+	 * @return {@code true} if interning is enabled
+	 */
+	public static boolean isInterning() {
+		return interning;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Term> T internConstant(final T constant) {
+		return interning ? (T) constantPool.intern(constant) : constant;
+	}
+
 	/**
 	 * Creates a {@link UniversalVariable}.
 	 *
@@ -81,7 +128,7 @@ public final class Expressions {
 	 * @return an {@link AbstractConstant} corresponding to the input.
 	 */
 	public static AbstractConstant makeAbstractConstant(String name) {
-		return new AbstractConstantImpl(name);
+		return internConstant(new AbstractConstantImpl(name));
 	}
 
 	/**
@@ -92,7 +139,7 @@ public final class Expressions {
 	 * @return a {@link DatatypeConstant} corresponding to the input.
 	 */
 	public static DatatypeConstant makeDatatypeConstant(String lexicalValue, String datatypeIri) {
-		return new DatatypeConstantImpl(lexicalValue, datatypeIri);
+		return internConstant(new DatatypeConstantImpl(lexicalValue, datatypeIri));
 	}
 
 	/**
@@ -104,7 +151,7 @@ public final class Expressions {
 	 * @return a {@link LanguageStringConstant} corresponding to the input.
 	 */
 	public static LanguageStringConstant makeLanguageStringConstant(String string, String languageTag) {
-		return new LanguageStringConstantImpl(string, languageTag);
+		return internConstant(new LanguageStringConstantImpl(string, languageTag));
 	}
 
 	/**
@@ -115,7 +162,8 @@ public final class Expressions {
 	 * @return a {@link Predicate} corresponding to the input.
 	 */
 	public static Predicate makePredicate(String name, int arity) {
-		return new PredicateImpl(name, arity);
+		final Predicate predicate = new PredicateImpl(name, arity);
+		return interning ? predicatePool.intern(predicate) : predicate;
 	}
 
 	/**
@@ -0,0 +1,133 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A thread-safe pool of canonical instances, similar to
+ * {@link String#intern()}. Canonical instances are only weakly referenced by
+ * the pool, so that objects that are no longer used anywhere else can still be
+ * garbage collected.
+ *
+ * @param <T> the type of the pooled objects, which must implement
+ *            {@link Object#equals(Object)} and {@link Object#hashCode()}
+ *            consistently
+ */
+final class InterningPool<T> {
+
+	/**
+	 * Weak reference to a pooled object that uses the equality of its referent.
+	 * References whose referent has been collected are only equal to themselves.
+	 */
+	private static final class WeakEntry<T> extends WeakReference<T> {
+
+		private final int hashCode;
+
+		WeakEntry(final T referent, final ReferenceQueue<? super T> queue) {
+			super(referent, queue);
+			this.hashCode = referent.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof WeakEntry)) {
+				return false;
+			}
+			final WeakEntry<?> other = (WeakEntry<?>) obj;
+			if (this.hashCode != other.hashCode) {
+				return false;
+			}
+			final T referent = this.get();
+			return referent != null && referent.equals(other.get());
+		}
+	}
+
+	private final ConcurrentHashMap<WeakEntry<T>, WeakEntry<T>> entries = new ConcurrentHashMap<>();
+
+	private final ReferenceQueue<T> staleEntries = new ReferenceQueue<>();
+
+	/**
+	 * Returns the canonical instance that is equal to the given object. If the
+	 * pool does not contain such an instance yet, the given object becomes the
+	 * canonical instance.
+	 *
+	 * @param object non-null object
+	 * @return canonical instance equal to {@code object}
+	 */
+	T intern(final T object) {
+		Validate.notNull(object, "Only non-null objects can be interned.");
+		this.expungeStaleEntries();
+
+		final WeakEntry<T> entry = new WeakEntry<>(object, this.staleEntries);
+		while (true) {
+			final WeakEntry<T> existingEntry = this.entries.putIfAbsent(entry, entry);
+			if (existingEntry == null) {
+				return object;
+			}
+			final T canonical = existingEntry.get();
+			if (canonical != null) {
+				return canonical;
+			}
+			// canonical instance was collected concurrently; drop it and retry
+			this.entries.remove(existingEntry, existingEntry);
+		}
+	}
+
+	/**
+	 * Returns the number of entries in the pool. Entries whose canonical instance
+	 * has been garbage collected recently might still be counted.
+	 *
+	 * @return number of pooled objects
+	 */
+	int size() {
+		this.expungeStaleEntries();
+		return this.entries.size();
+	}
+
+	/**
+	 * Removes all entries from the pool.
+	 */
+	void clear() {
+		this.entries.clear();
+		this.expungeStaleEntries();
+	}
+
+	private void expungeStaleEntries() {
+		Object staleEntry;
+		while ((staleEntry = this.staleEntries.poll()) != null) {
+			this.entries.remove(staleEntry);
+		}
+	}
+
+}
@@ -74,11 +74,9 @@ public class LanguageStringConstantImpl implements LanguageStringConstant {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
+		if (!(obj instanceof LanguageStringConstant))
 			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		LanguageStringConstantImpl other = (LanguageStringConstantImpl) obj;
+		LanguageStringConstant other = (LanguageStringConstant) obj;
 		return this.string.equals(other.getString()) && this.lang.equals(other.getLanguageTag());
 	}
 
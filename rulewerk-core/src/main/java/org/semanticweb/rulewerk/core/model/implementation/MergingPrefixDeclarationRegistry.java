@@ -20,11 +20,6 @@ package org.semanticweb.rulewerk.core.model.implementation;
  * #L%
  */
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang3.Validate;
@@ -50,6 +45,11 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	private static final String GENERATED_PREFIX_TEMPLATE = "rulewerk_generated_%d"
 			+ PrefixDeclarationRegistry.PREFIX_NAME_SEPARATOR;
 
+	/**
+	 * Index of all prefix IRIs, used for abbreviating IRIs.
+	 */
+	private final PrefixTrie prefixTrie = new PrefixTrie();
+
 	public MergingPrefixDeclarationRegistry() {
 		super();
 	}
@@ -79,9 +79,9 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 			// we need to keep the empty base, so that we don't
 			// accidentally relativise absolute Iris to
 			// baseIri. Hence, introduce baseIri as a fresh prefix.
-			prefixes.put(getFreshPrefix(), baseIri);
+			putPrefix(getFreshPrefix(), baseIri);
 		} else {
-			prefixes.put(getFreshPrefix(), this.baseIri);
+			putPrefix(getFreshPrefix(), this.baseIri);
 			this.baseIri = baseIri;
 		}
 	}
@@ -96,7 +96,12 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	@Override
 	public void setPrefixIri(String prefixName, String prefixIri) {
 		String name = prefixes.containsKey(prefixName) ? getFreshPrefix() : prefixName;
-		prefixes.put(name, prefixIri);
+		putPrefix(name, prefixIri);
+	}
+
+	private void putPrefix(String prefixName, String prefixIri) {
+		prefixes.put(prefixName, prefixIri);
+		prefixTrie.add(prefixName, prefixIri);
 	}
 
 	/**
@@ -109,26 +114,21 @@ final public class MergingPrefixDeclarationRegistry extends AbstractPrefixDeclar
 	 *         or {@code iri}.
 	 */
 	public String unresolveAbsoluteIri(String iri) {
-		Map<String, Integer> matches = new HashMap<>();
 		String baseIri = getBaseIri();
+		int baseLength = -1;
 
 		if (baseIri != PrefixDeclarationRegistry.EMPTY_BASE && iri.startsWith(baseIri) && !iri.equals(baseIri)) {
-			matches.put(iri.replaceFirst(baseIri, PrefixDeclarationRegistry.EMPTY_BASE), baseIri.length());
+			baseLength = baseIri.length();
 		}
 
-		prefixes.forEach((prefixName, prefixIri) -> {
-			// only select proper prefixes here, since `eg:` is not a valid prefixed name.
-			if (iri.startsWith(prefixIri) && !iri.equals(prefixIri)) {
-				matches.put(iri.replaceFirst(prefixIri, prefixName), prefixIri.length());
-			}
-		});
-
-		List<String> matchesByLength = new ArrayList<>(matches.keySet());
-		// reverse order, so we get the longest match first
-		matchesByLength.sort(Comparator.comparing(matches::get).reversed());
+		// only select proper prefixes here, since `eg:` is not a valid prefixed
+		// name; the base wins over prefixes that are not longer
+		String prefixedName = prefixTrie.abbreviate(iri, baseLength);
 
-		if (matchesByLength.size() > 0) {
-			return matchesByLength.get(0);
+		if (prefixedName != null) {
+			return prefixedName;
+		} else if (baseLength >= 0) {
+			return iri.substring(baseLength);
 		} else {
 			// no matching prefix
 			return iri;
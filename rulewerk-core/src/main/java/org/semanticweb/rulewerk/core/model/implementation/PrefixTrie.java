@@ -0,0 +1,115 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * A trie over prefix IRIs for finding the longest declared prefix of an IRI.
+ * Lookups take time linear in the length of the IRI and do not allocate
+ * objects unless a prefix is found.
+ */
+final class PrefixTrie {
+
+	private static final class Node {
+		/**
+		 * Characters of outgoing edges, sorted, and the corresponding children.
+		 */
+		char[] labels = new char[0];
+		Node[] children = new Node[0];
+
+		/**
+		 * The name of the prefix whose IRI ends at this node, or {@code null}.
+		 */
+		String prefixName;
+
+		Node getChild(final char label) {
+			final int position = Arrays.binarySearch(this.labels, label);
+			return position < 0 ? null : this.children[position];
+		}
+
+		Node getOrCreateChild(final char label) {
+			int position = Arrays.binarySearch(this.labels, label);
+			if (position >= 0) {
+				return this.children[position];
+			}
+			position = -position - 1;
+			final int length = this.labels.length;
+			final char[] labels = new char[length + 1];
+			final Node[] children = new Node[length + 1];
+			System.arraycopy(this.labels, 0, labels, 0, position);
+			System.arraycopy(this.children, 0, children, 0, position);
+			System.arraycopy(this.labels, position, labels, position + 1, length - position);
+			System.arraycopy(this.children, position, children, position + 1, length - position);
+			labels[position] = label;
+			children[position] = new Node();
+			this.labels = labels;
+			this.children = children;
+			return children[position];
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Adds a prefix declaration. If the prefix IRI has already been added with
+	 * another name, the first name is kept.
+	 *
+	 * @param prefixName the name of the prefix
+	 * @param prefixIri  the IRI of the prefix
+	 */
+	void add(final String prefixName, final String prefixIri) {
+		Node node = this.root;
+		for (int i = 0; i < prefixIri.length(); i++) {
+			node = node.getOrCreateChild(prefixIri.charAt(i));
+		}
+		if (node.prefixName == null) {
+			node.prefixName = prefixName;
+		}
+	}
+
+	/**
+	 * Abbreviates an IRI using the longest prefix IRI that is a proper prefix of
+	 * the IRI, i.e., a prefix that is shorter than the IRI.
+	 *
+	 * @param iri           an IRI
+	 * @param minimumLength only prefix IRIs that are longer than this are used
+	 * @return the prefixed name for {@code iri}, or {@code null} if there is no
+	 *         matching prefix
+	 */
+	String abbreviate(final String iri, final int minimumLength) {
+		Node node = this.root;
+		String prefixName = null;
+		int prefixLength = minimumLength;
+		for (int i = 0; i < iri.length(); i++) {
+			if (node.prefixName != null && i > prefixLength) {
+				prefixName = node.prefixName;
+				prefixLength = i;
+			}
+			node = node.getChild(iri.charAt(i));
+			if (node == null) {
+				break;
+			}
+		}
+		return prefixName == null ? null : prefixName + iri.substring(prefixLength);
+	}
+
+}
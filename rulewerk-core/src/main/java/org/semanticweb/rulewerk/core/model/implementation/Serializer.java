@@ -20,6 +20,9 @@ package org.semanticweb.rulewerk.core.model.implementation;
  * #L%
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.function.Function;
@@ -39,6 +42,8 @@ import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.BinaryFactFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvDirectoryDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.FileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
@@ -46,7 +51,9 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDa
 
 /**
  * A utility class with static methods to obtain the correct parsable string
- * representation of the different data models.
+ * representation of the different data models. Facts and terms can also be
+ * written directly to an {@link Appendable}, such as a {@link java.io.Writer},
+ * without creating intermediate strings.
  *
  * @author Ali Elhalawati
  *
@@ -69,8 +76,10 @@ public final class Serializer {
 	public static final String BASE = "@base ";
 	public static final String PREFIX = "@prefix ";
 	public static final String CSV_FILE_DATA_SOURCE = "load-csv";
+	public static final String CSV_DIRECTORY_DATA_SOURCE = "load-csv-dir";
 	public static final String RDF_FILE_DATA_SOURCE = "load-rdf";
 	public static final String SPARQL_QUERY_RESULT_DATA_SOURCE = "sparql";
+	public static final String BINARY_FACT_FILE_DATA_SOURCE = "load-binary";
 	public static final String DATA_SOURCE_SEPARATOR = ": ";
 	public static final String COLON = ":";
 	public static final String DOUBLE_CARET = "^^";
@@ -383,6 +392,18 @@ public final class Serializer {
 		return CSV_FILE_DATA_SOURCE + OPENING_PARENTHESIS + getFileString(csvFileDataSource) + CLOSING_PARENTHESIS;
 	}
 
+	/**
+	 * Creates a String representation of a given {@link CsvDirectoryDataSource}.
+	 *
+	 * @param csvDirectoryDataSource
+	 * @return String representation corresponding to a given
+	 *         {@link CsvDirectoryDataSource}.
+	 */
+	public static String getString(final CsvDirectoryDataSource csvDirectoryDataSource) {
+		return CSV_DIRECTORY_DATA_SOURCE + OPENING_PARENTHESIS + getString(csvDirectoryDataSource.getPath())
+				+ CLOSING_PARENTHESIS;
+	}
+
 	/**
 	 * Creates a String representation of a given {@link RdfFileDataSource}.
 	 *
@@ -399,6 +420,19 @@ public final class Serializer {
 		return RDF_FILE_DATA_SOURCE + OPENING_PARENTHESIS + getFileString(rdfFileDataSource) + CLOSING_PARENTHESIS;
 	}
 
+	/**
+	 * Creates a String representation of a given
+	 * {@link BinaryFactFileDataSource}.
+	 *
+	 * @param dataSource
+	 * @return String representation corresponding to a given
+	 *         {@link BinaryFactFileDataSource}.
+	 */
+	public static String getString(final BinaryFactFileDataSource dataSource) {
+		return BINARY_FACT_FILE_DATA_SOURCE + OPENING_PARENTHESIS + getString(dataSource.getPath())
+				+ CLOSING_PARENTHESIS;
+	}
+
 	/**
 	 * Creates a String representation of a given
 	 * {@link SparqlQueryResultDataSource}.
@@ -434,14 +468,69 @@ public final class Serializer {
 			return transformed;
 		}
 
-		if (string.contains(COLON) || string.matches(REGEX_INTEGER) || string.matches(REGEX_DOUBLE)
-				|| string.matches(REGEX_DECIMAL) || string.equals(REGEX_TRUE) || string.equals(REGEX_FALSE)) {
+		if (needsAngleBrackets(string)) {
 			return addAngleBrackets(string);
 		}
 
 		return string;
 	}
 
+	/**
+	 * Checks if the given IRI must be enclosed in angle brackets, since it
+	 * contains a colon, or could otherwise be mistaken for a number
+	 * ({@link #REGEX_INTEGER}, {@link #REGEX_DOUBLE}, {@link #REGEX_DECIMAL}) or a
+	 * boolean.
+	 *
+	 * @param iri an IRI
+	 * @return true if {@code iri} needs angle brackets
+	 */
+	private static boolean needsAngleBrackets(final String iri) {
+		return iri.indexOf(':') >= 0 || isNumber(iri) || iri.equals(REGEX_TRUE) || iri.equals(REGEX_FALSE);
+	}
+
+	/**
+	 * Checks if the given string matches {@link #REGEX_INTEGER},
+	 * {@link #REGEX_DOUBLE}, or {@link #REGEX_DECIMAL}, without using regular
+	 * expressions.
+	 */
+	private static boolean isNumber(final String string) {
+		final int length = string.length();
+		int i = 0;
+		final boolean signed = length > 0 && (string.charAt(0) == '-' || string.charAt(0) == '+');
+		if (signed) {
+			i++;
+		}
+		final int integerStart = i;
+		i = skipDigits(string, i);
+		if (i == integerStart) {
+			// only decimals may start with a dot, and they have no sign
+			return !signed && i < length && string.charAt(i) == '.' && i + 1 < length
+					&& skipDigits(string, i + 1) == length;
+		}
+		if (i < length && string.charAt(i) == '.') {
+			i = skipDigits(string, i + 1);
+		}
+		if (i < length && (string.charAt(i) == 'e' || string.charAt(i) == 'E')) {
+			i++;
+			if (i < length && (string.charAt(i) == '-' || string.charAt(i) == '+')) {
+				i++;
+			}
+			final int exponentStart = i;
+			i = skipDigits(string, i);
+			if (i == exponentStart) {
+				return false;
+			}
+		}
+		return i == length;
+	}
+
+	private static int skipDigits(final String string, int position) {
+		while (position < string.length() && string.charAt(position) >= '0' && string.charAt(position) <= '9') {
+			position++;
+		}
+		return position;
+	}
+
 	/**
 	 * Constructs the parseable, serialized representation of given {@code string}.
 	 * Escapes (with {@code \}) special character occurrences in given
@@ -483,9 +572,65 @@ public final class Serializer {
 	 * @return an escaped string
 	 */
 	private static String escape(final String string) {
-		return string.replace("\\", "\\\\").replace("\"", "\\\"").replace("\t", "\\t").replace("\b", "\\b")
-				.replace(NEW_LINE, "\\n").replace("\r", "\\r").replace("\f", "\\f");
-		// don't touch single quotes here since we only construct double-quoted strings
+		if (indexOfSpecialCharacter(string) < 0) {
+			return string;
+		}
+		final StringBuilder stringBuilder = new StringBuilder(string.length() + 8);
+		try {
+			appendEscaped(stringBuilder, string);
+		} catch (final IOException e) {
+			// cannot happen when appending to a StringBuilder
+			throw new UncheckedIOException(e);
+		}
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Appends the given string with escaped special characters (see
+	 * {@link #escape(String)}) in a single pass.
+	 */
+	private static void appendEscaped(final Appendable appendable, final String string) throws IOException {
+		int start = 0;
+		for (int i = 0; i < string.length(); i++) {
+			final String escapeSequence = getEscapeSequence(string.charAt(i));
+			if (escapeSequence != null) {
+				appendable.append(string, start, i).append(escapeSequence);
+				start = i + 1;
+			}
+		}
+		appendable.append(string, start, string.length());
+	}
+
+	private static int indexOfSpecialCharacter(final String string) {
+		for (int i = 0; i < string.length(); i++) {
+			if (getEscapeSequence(string.charAt(i)) != null) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String getEscapeSequence(final char c) {
+		switch (c) {
+		case '\\':
+			return "\\\\";
+		case '"':
+			return "\\\"";
+		case '\t':
+			return "\\t";
+		case '\b':
+			return "\\b";
+		case '\n':
+			return "\\n";
+		case '\r':
+			return "\\r";
+		case '\f':
+			return "\\f";
+		default:
+			// don't touch single quotes here since we only construct double-quoted
+			// strings
+			return null;
+		}
 	}
 
 	private static String addQuotes(final String string) {
@@ -548,4 +693,144 @@ public final class Serializer {
 
 		return sb.toString();
 	}
+
+	/**
+	 * Writes the base and prefix declarations of the given knowledge base, as
+	 * returned by {@link #getBaseAndPrefixDeclarations(KnowledgeBase)}.
+	 *
+	 * @param appendable    the target to write to
+	 * @param knowledgeBase a {@link KnowledgeBase}
+	 * @throws IOException if writing fails
+	 */
+	public static void writeBaseAndPrefixDeclarations(final Appendable appendable, final KnowledgeBase knowledgeBase)
+			throws IOException {
+		final String baseIri = knowledgeBase.getBaseIri();
+		if (!baseIri.equals(PrefixDeclarationRegistry.EMPTY_BASE)) {
+			appendable.append(BASE).append(LESS_THAN).append(baseIri).append(MORE_THAN).append(STATEMENT_SEPARATOR)
+					.append(NEW_LINE);
+		}
+		final Iterator<Entry<String, String>> prefixes = knowledgeBase.getPrefixes();
+		while (prefixes.hasNext()) {
+			final Entry<String, String> prefix = prefixes.next();
+			appendable.append(PREFIX).append(prefix.getKey()).append(' ').append(LESS_THAN).append(prefix.getValue())
+					.append(MORE_THAN).append(STATEMENT_SEPARATOR).append(NEW_LINE);
+		}
+	}
+
+	/**
+	 * Writes the representation of a given {@link Fact}, as returned by
+	 * {@link #getFactString(Fact)}.
+	 *
+	 * @param appendable the target to write to
+	 * @param fact       a {@link Fact}
+	 * @throws IOException if writing fails
+	 */
+	public static void writeFact(final Appendable appendable, final Fact fact) throws IOException {
+		writeLiteral(appendable, fact.getPredicate(), fact.getArguments(), Function.identity());
+		appendable.append(STATEMENT_SEPARATOR);
+	}
+
+	/**
+	 * Writes the representation of a fact with the given predicate and terms,
+	 * followed by a line break, as returned by
+	 * {@link #getFactString(Predicate, List, Function)}.
+	 *
+	 * @param appendable     the target to write to
+	 * @param predicate      the predicate of the fact
+	 * @param terms          the terms of the fact
+	 * @param iriTransformer a function to transform IRIs with
+	 * @throws IOException if writing fails
+	 */
+	public static void writeFact(final Appendable appendable, final Predicate predicate, final List<Term> terms,
+			final Function<String, String> iriTransformer) throws IOException {
+		writeLiteral(appendable, predicate, terms, iriTransformer);
+		appendable.append(STATEMENT_SEPARATOR).append(NEW_LINE);
+	}
+
+	private static void writeLiteral(final Appendable appendable, final Predicate predicate, final List<Term> terms,
+			final Function<String, String> iriTransformer) throws IOException {
+		writeIri(appendable, predicate.getName(), iriTransformer);
+		appendable.append(OPENING_PARENTHESIS);
+		boolean first = true;
+		for (final Term term : terms) {
+			if (first) {
+				first = false;
+			} else {
+				appendable.append(COMMA);
+			}
+			writeTerm(appendable, term, iriTransformer);
+		}
+		appendable.append(CLOSING_PARENTHESIS);
+	}
+
+	/**
+	 * Writes the representation of a given {@link Term}, as returned by
+	 * {@link Term#getSyntacticRepresentation(Function)}.
+	 *
+	 * @param appendable     the target to write to
+	 * @param term           a {@link Term}
+	 * @param iriTransformer a function to transform IRIs with
+	 * @throws IOException if writing fails
+	 */
+	public static void writeTerm(final Appendable appendable, final Term term,
+			final Function<String, String> iriTransformer) throws IOException {
+		switch (term.getType()) {
+		case ABSTRACT_CONSTANT:
+			writeIri(appendable, term.getName(), iriTransformer);
+			break;
+		case DATATYPE_CONSTANT:
+			writeDatatypeConstant(appendable, (DatatypeConstant) term, iriTransformer);
+			break;
+		case LANGSTRING_CONSTANT:
+			final LanguageStringConstant languageStringConstant = (LanguageStringConstant) term;
+			writeString(appendable, languageStringConstant.getString());
+			appendable.append(AT).append(languageStringConstant.getLanguageTag());
+			break;
+		case NAMED_NULL:
+			appendable.append(NAMEDNULL_IDENTIFIER).append(term.getName());
+			break;
+		case UNIVERSAL_VARIABLE:
+			appendable.append(UNIVERSAL_IDENTIFIER).append(term.getName());
+			break;
+		case EXISTENTIAL_VARIABLE:
+			appendable.append(EXISTENTIAL_IDENTIFIER).append(term.getName());
+			break;
+		default:
+			appendable.append(term.getSyntacticRepresentation(iriTransformer));
+		}
+	}
+
+	private static void writeDatatypeConstant(final Appendable appendable, final DatatypeConstant datatypeConstant,
+			final Function<String, String> iriTransformer) throws IOException {
+		final String datatype = datatypeConstant.getDatatype();
+		if (datatype.equals(PrefixDeclarationRegistry.XSD_STRING)) {
+			writeString(appendable, datatypeConstant.getLexicalValue());
+		} else if (datatype.equals(PrefixDeclarationRegistry.XSD_DECIMAL)
+				|| datatype.equals(PrefixDeclarationRegistry.XSD_INTEGER)
+				|| datatype.equals(PrefixDeclarationRegistry.XSD_DOUBLE)) {
+			appendable.append(datatypeConstant.getLexicalValue());
+		} else {
+			writeString(appendable, datatypeConstant.getLexicalValue());
+			appendable.append(DOUBLE_CARET);
+			writeIri(appendable, datatype, iriTransformer);
+		}
+	}
+
+	private static void writeIri(final Appendable appendable, final String iri,
+			final Function<String, String> iriTransformer) throws IOException {
+		final String transformed = iriTransformer.apply(iri);
+		if (!transformed.equals(iri)) {
+			appendable.append(transformed);
+		} else if (needsAngleBrackets(iri)) {
+			appendable.append(LESS_THAN).append(iri).append(MORE_THAN);
+		} else {
+			appendable.append(iri);
+		}
+	}
+
+	private static void writeString(final Appendable appendable, final String string) throws IOException {
+		appendable.append(QUOTE);
+		appendEscaped(appendable, string);
+		appendable.append(QUOTE);
+	}
 }
@@ -0,0 +1,144 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+
+/**
+ * A dictionary that assigns dense numeric ids to ground terms, i.e., to
+ * constants and named nulls. Ids are assigned consecutively, starting from 0,
+ * in the order in which terms are first encoded. This allows tuples of ground
+ * terms to be represented as {@code long[]} arrays, which are much more compact
+ * than lists of {@link Term} objects, and can be compared and hashed without
+ * looking at term names.
+ *
+ * This class is not thread-safe.
+ */
+public class TermDictionary {
+
+	/**
+	 * Value returned by {@link #findId(Term)} for terms that are not in the
+	 * dictionary.
+	 */
+	public static final long NO_ID = -1;
+
+	private final Map<Term, Long> ids = new HashMap<>();
+
+	private Term[] terms = new Term[16];
+
+	private int size = 0;
+
+	/**
+	 * Returns the id of the given term, adding the term to the dictionary if
+	 * necessary.
+	 *
+	 * @param term a constant or named null
+	 * @return the id of {@code term}
+	 * @throws IllegalArgumentException if {@code term} is a variable
+	 */
+	public long getId(final Term term) {
+		final Long id = this.ids.get(term);
+		if (id != null) {
+			return id;
+		}
+		Validate.isTrue(term.isConstant() || term.getType() == TermType.NAMED_NULL,
+				"Only constants and named nulls can be encoded, but found %s.", term);
+		if (this.size == this.terms.length) {
+			this.terms = Arrays.copyOf(this.terms, this.size * 2);
+		}
+		this.terms[this.size] = term;
+		this.ids.put(term, (long) this.size);
+		return this.size++;
+	}
+
+	/**
+	 * Returns the id of the given term, without adding it to the dictionary.
+	 *
+	 * @param term a term
+	 * @return the id of {@code term}, or {@link #NO_ID} if the term is not in the
+	 *         dictionary
+	 */
+	public long findId(final Term term) {
+		final Long id = this.ids.get(term);
+		return id == null ? NO_ID : id;
+	}
+
+	/**
+	 * Returns the term with the given id.
+	 *
+	 * @param id an id that has been assigned by this dictionary
+	 * @return the term with id {@code id}
+	 * @throws IllegalArgumentException if no term has the given id
+	 */
+	public Term getTerm(final long id) {
+		Validate.isTrue(id >= 0 && id < this.size, "Unknown term id %d.", id);
+		return this.terms[(int) id];
+	}
+
+	/**
+	 * Encodes a list of terms as a tuple of ids, adding new terms to the
+	 * dictionary as necessary.
+	 *
+	 * @param terms list of constants and named nulls
+	 * @return array of ids of {@code terms}, in the same order
+	 */
+	public long[] getIds(final List<Term> terms) {
+		final long[] tuple = new long[terms.size()];
+		int i = 0;
+		for (final Term term : terms) {
+			tuple[i++] = this.getId(term);
+		}
+		return tuple;
+	}
+
+	/**
+	 * Decodes a tuple of ids into the list of corresponding terms.
+	 *
+	 * @param ids array of ids that have been assigned by this dictionary
+	 * @return list of terms with the given ids, in the same order
+	 */
+	public List<Term> getTerms(final long[] ids) {
+		final List<Term> result = new ArrayList<>(ids.length);
+		for (final long id : ids) {
+			result.add(this.getTerm(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of terms in the dictionary. This is also the id that will
+	 * be assigned to the next new term.
+	 *
+	 * @return number of terms
+	 */
+	public int size() {
+		return this.size;
+	}
+
+}
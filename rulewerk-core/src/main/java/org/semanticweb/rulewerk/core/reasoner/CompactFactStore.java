@@ -0,0 +1,589 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.TermDictionary;
+
+/**
+ * Compact storage for the facts of a {@link KnowledgeBase}. The terms of facts
+ * are encoded as integer ids by a {@link TermDictionary}, and the facts of each
+ * predicate are stored as consecutive tuples of ids in one array. Duplicates
+ * are detected with an open-addressing hash index over the tuples. {@link Fact}
+ * objects are only created when facts are retrieved.
+ *
+ * Facts of one predicate are kept in the order in which they were added.
+ * Removed facts are only marked as removed, and the tuples of a predicate are
+ * compacted once more than half of them have been removed, so that removing
+ * facts takes amortised constant time.
+ *
+ * Facts are read through snapshots of the tuples, which are not affected by
+ * later changes of the store. Taking a snapshot does not copy the tuples: a
+ * table only copies its tuples when it is compacted while a snapshot may still
+ * refer to them.
+ *
+ * Term ids must fit into an {@code int}, so that a store holds facts with at
+ * most {@link Integer#MAX_VALUE} distinct terms.
+ */
+final class CompactFactStore {
+
+	/**
+	 * The facts of one predicate.
+	 */
+	static final class FactTable {
+
+		private static final int EMPTY = -1;
+		/**
+		 * Marks a slot of the index whose tuple has been removed. Such slots are
+		 * skipped when searching for tuples.
+		 */
+		private static final int REMOVED = -2;
+
+		final Predicate predicate;
+		final int arity;
+
+		/**
+		 * Term ids of all tuples, one tuple after the other, including removed tuples
+		 * that have not been compacted yet.
+		 */
+		private int[] tuples;
+		/**
+		 * Number of tuples in {@link #tuples}, including removed tuples.
+		 */
+		private int used = 0;
+		/**
+		 * Number of tuples that have not been removed.
+		 */
+		private int size = 0;
+		private final BitSet removed = new BitSet();
+		/**
+		 * True if {@link #tuples} may be referenced by a snapshot, so that existing
+		 * tuples must not be overwritten.
+		 */
+		private boolean shared = false;
+
+		/**
+		 * Open-addressing hash index with linear probing, containing tuple numbers,
+		 * {@link #EMPTY} or {@link #REMOVED}. The length is a power of two, and at
+		 * most half of the slots are not empty.
+		 */
+		private int[] index;
+
+		FactTable(final Predicate predicate) {
+			this.predicate = predicate;
+			this.arity = predicate.getArity();
+			this.tuples = new int[4 * this.arity];
+			this.index = newIndex(8);
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		/**
+		 * Adds the given tuple if it is not contained yet.
+		 *
+		 * @return true if the tuple has been added
+		 */
+		boolean add(final int[] tuple) {
+			final int slot = findSlot(tuple);
+			if (this.index[slot] != EMPTY) {
+				return false;
+			}
+			if (this.used * this.arity == this.tuples.length) {
+				this.tuples = Arrays.copyOf(this.tuples, this.tuples.length * 2);
+				this.shared = false;
+			}
+			System.arraycopy(tuple, 0, this.tuples, this.used * this.arity, this.arity);
+			this.index[slot] = this.used;
+			this.used++;
+			this.size++;
+			if (2 * this.used > this.index.length) {
+				if (2 * this.size <= this.used) {
+					compact();
+				} else {
+					rebuildIndex(this.index.length * 2);
+				}
+			}
+			return true;
+		}
+
+		boolean contains(final int[] tuple) {
+			return this.index[findSlot(tuple)] != EMPTY;
+		}
+
+		/**
+		 * Removes the given tuple, if present. The tuple is marked as removed, and
+		 * the tuples are compacted, keeping their order, once more than half of them
+		 * are removed.
+		 *
+		 * @return true if the tuple has been removed
+		 */
+		boolean remove(final int[] tuple) {
+			final int slot = findSlot(tuple);
+			final int tupleNumber = this.index[slot];
+			if (tupleNumber == EMPTY) {
+				return false;
+			}
+			this.index[slot] = REMOVED;
+			this.removed.set(tupleNumber);
+			this.size--;
+			if (2 * this.size < this.used) {
+				compact();
+			}
+			return true;
+		}
+
+		/**
+		 * Returns a snapshot of the current tuples. Tuples that are added later are
+		 * stored behind the tuples of the snapshot, and compaction moves the
+		 * tuples to a new array.
+		 */
+		TableSnapshot snapshot() {
+			this.shared = true;
+			return new TableSnapshot(this.predicate, this.tuples, this.used, this.size, (BitSet) this.removed.clone());
+		}
+
+		private int nextTupleNumber(final int tupleNumber) {
+			return this.removed.nextClearBit(tupleNumber);
+		}
+
+		/**
+		 * Removes the tuples that are marked as removed, so that the remaining tuples
+		 * are numbered consecutively.
+		 */
+		private void compact() {
+			final int[] target = this.shared ? new int[this.tuples.length] : this.tuples;
+			int targetNumber = 0;
+			for (int tupleNumber = nextTupleNumber(0); tupleNumber < this.used; tupleNumber = nextTupleNumber(
+					tupleNumber + 1)) {
+				System.arraycopy(this.tuples, tupleNumber * this.arity, target, targetNumber * this.arity, this.arity);
+				targetNumber++;
+			}
+			this.tuples = target;
+			this.shared = false;
+			this.used = this.size;
+			this.removed.clear();
+			int length = 8;
+			while (2 * this.size > length) {
+				length *= 2;
+			}
+			rebuildIndex(length);
+		}
+
+		private int findSlot(final int[] tuple) {
+			final int mask = this.index.length - 1;
+			int slot = hash(tuple, 0, this.arity) & mask;
+			while (this.index[slot] != EMPTY
+					&& (this.index[slot] == REMOVED || !equalsTuple(this.index[slot], tuple))) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private boolean equalsTuple(final int tupleNumber, final int[] tuple) {
+			final int offset = tupleNumber * this.arity;
+			for (int i = 0; i < this.arity; i++) {
+				if (this.tuples[offset + i] != tuple[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void rebuildIndex(final int length) {
+			this.index = newIndex(length);
+			final int mask = length - 1;
+			for (int tupleNumber = nextTupleNumber(0); tupleNumber < this.used; tupleNumber = nextTupleNumber(
+					tupleNumber + 1)) {
+				int slot = hash(this.tuples, tupleNumber * this.arity, this.arity) & mask;
+				while (this.index[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				this.index[slot] = tupleNumber;
+			}
+		}
+
+		private static int[] newIndex(final int length) {
+			final int[] index = new int[length];
+			Arrays.fill(index, EMPTY);
+			return index;
+		}
+
+		private static int hash(final int[] array, final int offset, final int length) {
+			int hash = 1;
+			for (int i = offset; i < offset + length; i++) {
+				hash = 31 * hash + array[i];
+			}
+			// spread bits, since only the lower bits are used
+			return hash ^ (hash >>> 16);
+		}
+	}
+
+	/**
+	 * The tuples of a {@link FactTable} at one point in time.
+	 */
+	static final class TableSnapshot {
+
+		final Predicate predicate;
+		final int arity;
+		final int size;
+
+		private final int[] tuples;
+		private final int used;
+		private final BitSet removed;
+		/**
+		 * Numbers of the tuples that have not been removed, created on the first
+		 * access by position if some tuples are removed.
+		 */
+		private int[] tupleNumbers;
+
+		private TableSnapshot(final Predicate predicate, final int[] tuples, final int used, final int size,
+				final BitSet removed) {
+			this.predicate = predicate;
+			this.arity = predicate.getArity();
+			this.tuples = tuples;
+			this.used = used;
+			this.size = size;
+			this.removed = removed;
+		}
+
+		/**
+		 * Returns the number of the first tuple that has not been removed, starting
+		 * from the given tuple number.
+		 *
+		 * @return tuple number, or -1 if there is none
+		 */
+		int nextTupleNumber(final int tupleNumber) {
+			final int next = this.removed.nextClearBit(tupleNumber);
+			return next < this.used ? next : -1;
+		}
+
+		/**
+		 * Returns the number of the tuple at the given position among the tuples
+		 * that have not been removed.
+		 */
+		int getTupleNumber(final int position) {
+			if (this.removed.isEmpty()) {
+				return position;
+			}
+			if (this.tupleNumbers == null) {
+				final int[] numbers = new int[this.size];
+				int i = 0;
+				for (int tupleNumber = nextTupleNumber(0); tupleNumber >= 0; tupleNumber = nextTupleNumber(
+						tupleNumber + 1)) {
+					numbers[i++] = tupleNumber;
+				}
+				this.tupleNumbers = numbers;
+			}
+			return this.tupleNumbers[position];
+		}
+
+		int getTermId(final int tupleNumber, final int position) {
+			return this.tuples[tupleNumber * this.arity + position];
+		}
+	}
+
+	private final TermDictionary termDictionary = new TermDictionary();
+
+	private final Map<Predicate, FactTable> tables = new LinkedHashMap<>();
+
+	private int size = 0;
+
+	/**
+	 * Adds a fact, if it is not contained yet.
+	 *
+	 * @param fact the fact to add
+	 * @return true if the fact has been added
+	 */
+	boolean add(final Fact fact) {
+		final int[] tuple = new int[fact.getPredicate().getArity()];
+		int i = 0;
+		for (final Term term : fact.getArguments()) {
+			tuple[i++] = Math.toIntExact(this.termDictionary.getId(term));
+		}
+		final FactTable table = this.tables.computeIfAbsent(fact.getPredicate(), FactTable::new);
+		if (table.add(tuple)) {
+			this.size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes a fact, if it is contained.
+	 *
+	 * @param fact the fact to remove
+	 * @return true if the fact has been removed
+	 */
+	boolean remove(final Fact fact) {
+		final FactTable table = this.tables.get(fact.getPredicate());
+		final int[] tuple = findTuple(fact);
+		if (table == null || tuple == null || !table.remove(tuple)) {
+			return false;
+		}
+		this.size--;
+		if (table.size() == 0) {
+			this.tables.remove(fact.getPredicate());
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the given object is a fact in this store.
+	 *
+	 * @param object an object
+	 * @return true if {@code object} is a contained fact
+	 */
+	boolean contains(final Object object) {
+		if (!(object instanceof Fact)) {
+			return false;
+		}
+		final Fact fact = (Fact) object;
+		final FactTable table = this.tables.get(fact.getPredicate());
+		final int[] tuple = findTuple(fact);
+		return table != null && tuple != null && table.contains(tuple);
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the predicates of facts in this store.
+	 *
+	 * @return read-only view of the predicates
+	 */
+	Set<Predicate> getPredicates() {
+		return Collections.unmodifiableSet(this.tables.keySet());
+	}
+
+	/**
+	 * Returns a snapshot of all facts in this store, grouped by predicate. The
+	 * list is not affected by later changes of the store. Fact objects are created
+	 * when elements of the list are accessed.
+	 *
+	 * @return read-only list of facts
+	 */
+	List<Fact> getFacts() {
+		final List<TableSnapshot> snapshots = new ArrayList<>(this.tables.size());
+		final int[] offsets = new int[this.tables.size() + 1];
+		for (final FactTable table : this.tables.values()) {
+			final TableSnapshot snapshot = table.snapshot();
+			offsets[snapshots.size() + 1] = offsets[snapshots.size()] + snapshot.size;
+			snapshots.add(snapshot);
+		}
+		return new AbstractList<Fact>() {
+			@Override
+			public Fact get(final int index) {
+				if (index < 0 || index >= size()) {
+					throw new IndexOutOfBoundsException("Index: " + index);
+				}
+				int tableIndex = Arrays.binarySearch(offsets, index);
+				if (tableIndex < 0) {
+					tableIndex = -tableIndex - 2;
+				} else {
+					// skip tables without facts that start at the same offset
+					while (offsets[tableIndex + 1] == index) {
+						tableIndex++;
+					}
+				}
+				final TableSnapshot snapshot = snapshots.get(tableIndex);
+				return toFact(snapshot, snapshot.getTupleNumber(index - offsets[tableIndex]));
+			}
+
+			@Override
+			public int size() {
+				return offsets[offsets.length - 1];
+			}
+
+			@Override
+			public Iterator<Fact> iterator() {
+				final Iterator<TableSnapshot> snapshotIterator = snapshots.iterator();
+				return new Iterator<Fact>() {
+					Iterator<PositiveLiteral> factIterator = Collections.emptyIterator();
+
+					@Override
+					public boolean hasNext() {
+						while (!this.factIterator.hasNext() && snapshotIterator.hasNext()) {
+							this.factIterator = iterateFacts(snapshotIterator.next());
+						}
+						return this.factIterator.hasNext();
+					}
+
+					@Override
+					public Fact next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return (Fact) this.factIterator.next();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns a read-only view of the facts of one predicate. Fact objects are
+	 * created when iterating over the set. Iterators run over a snapshot of the
+	 * facts, which is not affected by later changes of the store.
+	 *
+	 * @param predicate a predicate
+	 * @return set of facts
+	 */
+	Set<PositiveLiteral> getFacts(final Predicate predicate) {
+		return new AbstractSet<PositiveLiteral>() {
+			@Override
+			public Iterator<PositiveLiteral> iterator() {
+				final FactTable table = CompactFactStore.this.tables.get(predicate);
+				if (table == null) {
+					return Collections.emptyIterator();
+				}
+				return iterateFacts(table.snapshot());
+			}
+
+			@Override
+			public boolean contains(final Object object) {
+				return object instanceof Fact && predicate.equals(((Fact) object).getPredicate())
+						&& CompactFactStore.this.contains(object);
+			}
+
+			@Override
+			public int size() {
+				final FactTable table = CompactFactStore.this.tables.get(predicate);
+				return table == null ? 0 : table.size();
+			}
+		};
+	}
+
+	/**
+	 * Returns a read-only view of the facts in this store, grouped by predicate.
+	 *
+	 * @return map from predicates to the sets returned by
+	 *         {@link #getFacts(Predicate)}
+	 */
+	Map<Predicate, Set<PositiveLiteral>> getFactsByPredicate() {
+		return new AbstractMap<Predicate, Set<PositiveLiteral>>() {
+			@Override
+			public Set<Entry<Predicate, Set<PositiveLiteral>>> entrySet() {
+				return new AbstractSet<Entry<Predicate, Set<PositiveLiteral>>>() {
+					@Override
+					public Iterator<Entry<Predicate, Set<PositiveLiteral>>> iterator() {
+						final Iterator<Predicate> predicates = getPredicates().iterator();
+						return new Iterator<Entry<Predicate, Set<PositiveLiteral>>>() {
+							@Override
+							public boolean hasNext() {
+								return predicates.hasNext();
+							}
+
+							@Override
+							public Entry<Predicate, Set<PositiveLiteral>> next() {
+								final Predicate predicate = predicates.next();
+								return new SimpleImmutableEntry<>(predicate, getFacts(predicate));
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return CompactFactStore.this.tables.size();
+					}
+				};
+			}
+
+			@Override
+			public boolean containsKey(final Object key) {
+				return CompactFactStore.this.tables.containsKey(key);
+			}
+
+			@Override
+			public Set<PositiveLiteral> get(final Object key) {
+				return containsKey(key) ? getFacts((Predicate) key) : null;
+			}
+		};
+	}
+
+	/**
+	 * Encodes the terms of the given fact, without adding terms to the dictionary.
+	 *
+	 * @return the tuple of term ids, or null if some term is not known
+	 */
+	private int[] findTuple(final Fact fact) {
+		final int[] tuple = new int[fact.getPredicate().getArity()];
+		int i = 0;
+		for (final Term term : fact.getArguments()) {
+			final long id = this.termDictionary.findId(term);
+			if (id == TermDictionary.NO_ID || id > Integer.MAX_VALUE) {
+				return null;
+			}
+			tuple[i++] = (int) id;
+		}
+		return tuple;
+	}
+
+	private Iterator<PositiveLiteral> iterateFacts(final TableSnapshot snapshot) {
+		return new Iterator<PositiveLiteral>() {
+			int next = snapshot.nextTupleNumber(0);
+
+			@Override
+			public boolean hasNext() {
+				return this.next >= 0;
+			}
+
+			@Override
+			public PositiveLiteral next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final PositiveLiteral fact = toFact(snapshot, this.next);
+				this.next = snapshot.nextTupleNumber(this.next + 1);
+				return fact;
+			}
+		};
+	}
+
+	private Fact toFact(final TableSnapshot snapshot, final int tupleNumber) {
+		final List<Term> terms = new ArrayList<>(snapshot.arity);
+		for (int i = 0; i < snapshot.arity; i++) {
+			terms.add(this.termDictionary.getTerm(snapshot.getTermId(tupleNumber, i)));
+		}
+		return Expressions.makeFact(snapshot.predicate, terms);
+	}
+
+}
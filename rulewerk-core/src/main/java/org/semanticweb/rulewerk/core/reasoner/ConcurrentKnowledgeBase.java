@@ -0,0 +1,396 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+
+/**
+ * A {@link KnowledgeBase} that can be modified and read by several threads at
+ * the same time, e.g., to ingest statements produced by several parsers in
+ * parallel.
+ *
+ * Facts are stored in one set per predicate, each with its own lock, so that
+ * threads adding facts of different predicates do not wait for each other.
+ * Rules, data source declarations, and prefixes are guarded by a single lock.
+ * Threads that add statements should use {@link #addStatements(Collection)}
+ * with reasonably large batches of statements: each batch takes every lock it
+ * needs once, and listeners are notified once about all statements of the
+ * batch that have actually been added. Statements are deduplicated as in
+ * {@link KnowledgeBase}. Rules files are parsed without holding any lock.
+ *
+ * Like for {@link KnowledgeBase#withCompactFactStorage()},
+ * {@link #getStatements()} returns all rules and data source declarations
+ * first, followed by all facts, grouped by predicate; the facts of each
+ * predicate are kept in the order in which they were added. Methods that return
+ * collections of statements return copies rather than views of the knowledge
+ * base.
+ *
+ * Listeners are notified by the thread that changed the knowledge base, after
+ * it has released all locks. Notifications of different threads may therefore
+ * arrive in a different order than the changes. Since {@link Reasoner}s are not
+ * thread-safe, reasoning should only start after all threads have finished
+ * adding statements.
+ */
+public class ConcurrentKnowledgeBase extends KnowledgeBase {
+
+	/**
+	 * Guards the rules, data source declarations, and prefixes, which are stored
+	 * by the super class.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * Facts by predicate. Each set is guarded by its own monitor. Sets are not
+	 * removed when they become empty, so that threads never add facts to a set
+	 * that is no longer in use.
+	 */
+	private final ConcurrentMap<Predicate, Set<Fact>> factsByPredicate = new ConcurrentHashMap<>();
+
+	private final Set<KnowledgeBaseListener> listeners = new CopyOnWriteArraySet<>();
+
+	@Override
+	public void addListener(final KnowledgeBaseListener listener) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void deleteListener(final KnowledgeBaseListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	@Override
+	public void addStatement(final Statement statement) {
+		if (!this.addBatch(Collections.singletonList(statement)).isEmpty()) {
+			this.listeners.forEach(listener -> listener.onStatementAdded(statement));
+		}
+	}
+
+	@Override
+	public void addStatements(final Collection<? extends Statement> statements) {
+		final List<Statement> addedStatements = this.addBatch(statements);
+		if (!addedStatements.isEmpty()) {
+			this.listeners.forEach(listener -> listener.onStatementsAdded(addedStatements));
+		}
+	}
+
+	@Override
+	public void addStatements(final Statement... statements) {
+		this.addStatements(Arrays.asList(statements));
+	}
+
+	@Override
+	public void removeStatement(final Statement statement) {
+		if (!this.removeBatch(Collections.singletonList(statement)).isEmpty()) {
+			this.listeners.forEach(listener -> listener.onStatementRemoved(statement));
+		}
+	}
+
+	@Override
+	public void removeStatements(final Collection<? extends Statement> statements) {
+		final List<Statement> removedStatements = this.removeBatch(statements);
+		if (!removedStatements.isEmpty()) {
+			this.listeners.forEach(listener -> listener.onStatementsRemoved(removedStatements));
+		}
+	}
+
+	@Override
+	public void removeStatements(final Statement... statements) {
+		this.removeStatements(Arrays.asList(statements));
+	}
+
+	/**
+	 * Adds the given statements, taking the lock of each predicate and the lock
+	 * for all other statements at most once.
+	 *
+	 * @return the statements that have been added, with facts grouped by
+	 *         predicate
+	 */
+	private List<Statement> addBatch(final Collection<? extends Statement> statements) {
+		final List<Statement> otherStatements = new ArrayList<>();
+		final Map<Predicate, List<Fact>> facts = groupFacts(statements, otherStatements);
+		final List<Statement> addedStatements = new ArrayList<>();
+		if (!otherStatements.isEmpty()) {
+			synchronized (this.lock) {
+				for (final Statement statement : otherStatements) {
+					if (this.doAddStatement(statement)) {
+						addedStatements.add(statement);
+					}
+				}
+			}
+		}
+		for (final Entry<Predicate, List<Fact>> entry : facts.entrySet()) {
+			final Set<Fact> predicateFacts = this.factsByPredicate.computeIfAbsent(entry.getKey(),
+					predicate -> new LinkedHashSet<>());
+			synchronized (predicateFacts) {
+				for (final Fact fact : entry.getValue()) {
+					if (predicateFacts.add(fact)) {
+						addedStatements.add(fact);
+					}
+				}
+			}
+		}
+		return addedStatements;
+	}
+
+	/**
+	 * Removes the given statements, taking the lock of each predicate and the
+	 * lock for all other statements at most once.
+	 *
+	 * @return the statements that have been removed, with facts grouped by
+	 *         predicate
+	 */
+	private List<Statement> removeBatch(final Collection<? extends Statement> statements) {
+		final List<Statement> otherStatements = new ArrayList<>();
+		final Map<Predicate, List<Fact>> facts = groupFacts(statements, otherStatements);
+		final List<Statement> removedStatements = new ArrayList<>();
+		if (!otherStatements.isEmpty()) {
+			synchronized (this.lock) {
+				for (final Statement statement : otherStatements) {
+					if (this.doRemoveStatement(statement)) {
+						removedStatements.add(statement);
+					}
+				}
+			}
+		}
+		for (final Entry<Predicate, List<Fact>> entry : facts.entrySet()) {
+			final Set<Fact> predicateFacts = this.factsByPredicate.get(entry.getKey());
+			if (predicateFacts != null) {
+				synchronized (predicateFacts) {
+					for (final Fact fact : entry.getValue()) {
+						if (predicateFacts.remove(fact)) {
+							removedStatements.add(fact);
+						}
+					}
+				}
+			}
+		}
+		return removedStatements;
+	}
+
+	private static Map<Predicate, List<Fact>> groupFacts(final Collection<? extends Statement> statements,
+			final List<Statement> otherStatements) {
+		final Map<Predicate, List<Fact>> facts = new LinkedHashMap<>();
+		for (final Statement statement : statements) {
+			Validate.notNull(statement, "Statement cannot be Null!");
+			if (statement instanceof Fact) {
+				final Fact fact = (Fact) statement;
+				facts.computeIfAbsent(fact.getPredicate(), predicate -> new ArrayList<>()).add(fact);
+			} else {
+				otherStatements.add(statement);
+			}
+		}
+		return facts;
+	}
+
+	@Override
+	public List<Rule> getRules() {
+		synchronized (this.lock) {
+			return Collections.unmodifiableList(new ArrayList<>(super.getRules()));
+		}
+	}
+
+	@Override
+	public List<Fact> getFacts() {
+		final List<Fact> facts = new ArrayList<>();
+		for (final Set<Fact> predicateFacts : this.factsByPredicate.values()) {
+			synchronized (predicateFacts) {
+				facts.addAll(predicateFacts);
+			}
+		}
+		return Collections.unmodifiableList(facts);
+	}
+
+	@Override
+	public List<DataSourceDeclaration> getDataSourceDeclarations() {
+		synchronized (this.lock) {
+			return Collections.unmodifiableList(new ArrayList<>(super.getDataSourceDeclarations()));
+		}
+	}
+
+	@Override
+	public Set<Rule> getRulesWithHeadPredicate(final Predicate predicate) {
+		synchronized (this.lock) {
+			return copy(super.getRulesWithHeadPredicate(predicate));
+		}
+	}
+
+	@Override
+	public Set<Rule> getRulesWithBodyPredicate(final Predicate predicate) {
+		synchronized (this.lock) {
+			return copy(super.getRulesWithBodyPredicate(predicate));
+		}
+	}
+
+	@Override
+	public Set<PositiveLiteral> getFacts(final Predicate predicate) {
+		final Set<Fact> predicateFacts = this.factsByPredicate.get(predicate);
+		if (predicateFacts == null) {
+			return Collections.emptySet();
+		}
+		synchronized (predicateFacts) {
+			return copy(predicateFacts);
+		}
+	}
+
+	@Override
+	public Set<DataSourceDeclaration> getDataSourceDeclarations(final Predicate predicate) {
+		synchronized (this.lock) {
+			return copy(super.getDataSourceDeclarations(predicate));
+		}
+	}
+
+	@Override
+	public Set<Predicate> getRuleHeadPredicates() {
+		synchronized (this.lock) {
+			return copy(super.getRuleHeadPredicates());
+		}
+	}
+
+	@Override
+	public Set<Predicate> getFactPredicates() {
+		final Set<Predicate> predicates = new LinkedHashSet<>();
+		this.factsByPredicate.forEach((predicate, predicateFacts) -> {
+			synchronized (predicateFacts) {
+				if (!predicateFacts.isEmpty()) {
+					predicates.add(predicate);
+				}
+			}
+		});
+		return Collections.unmodifiableSet(predicates);
+	}
+
+	@Override
+	public Set<Predicate> getDataSourceDeclarationPredicates() {
+		synchronized (this.lock) {
+			return copy(super.getDataSourceDeclarationPredicates());
+		}
+	}
+
+	@Override
+	public Collection<Statement> getStatements() {
+		final List<Statement> statements;
+		synchronized (this.lock) {
+			statements = new ArrayList<>(super.getStatements());
+		}
+		statements.addAll(this.getFacts());
+		return Collections.unmodifiableList(statements);
+	}
+
+	@Override
+	public Iterator<Statement> iterator() {
+		return this.getStatements().iterator();
+	}
+
+	@Override
+	Map<Predicate, Set<PositiveLiteral>> getFactsByPredicate() {
+		final Map<Predicate, Set<PositiveLiteral>> facts = new LinkedHashMap<>();
+		for (final Predicate predicate : this.getFactPredicates()) {
+			facts.put(predicate, this.getFacts(predicate));
+		}
+		return Collections.unmodifiableMap(facts);
+	}
+
+	/**
+	 * Only the check for files that have already been imported is done while
+	 * holding the lock. The file itself is parsed without holding any lock, and
+	 * the parser adds statements like any other thread.
+	 */
+	@Override
+	void addImportedFile(final File file) throws IOException {
+		synchronized (this.lock) {
+			super.addImportedFile(file);
+		}
+	}
+
+	@Override
+	public void mergePrefixDeclarations(final PrefixDeclarationRegistry prefixDeclarationRegistry) {
+		synchronized (this.lock) {
+			super.mergePrefixDeclarations(prefixDeclarationRegistry);
+		}
+	}
+
+	@Override
+	public String getBaseIri() {
+		synchronized (this.lock) {
+			return super.getBaseIri();
+		}
+	}
+
+	@Override
+	public Iterator<Entry<String, String>> getPrefixes() {
+		synchronized (this.lock) {
+			final List<Entry<String, String>> prefixes = new ArrayList<>();
+			super.getPrefixes().forEachRemaining(prefixes::add);
+			return Collections.unmodifiableList(prefixes).iterator();
+		}
+	}
+
+	@Override
+	public String getPrefixIri(final String prefixName) throws PrefixDeclarationException {
+		synchronized (this.lock) {
+			return super.getPrefixIri(prefixName);
+		}
+	}
+
+	@Override
+	public String resolvePrefixedName(final String prefixedName) throws PrefixDeclarationException {
+		synchronized (this.lock) {
+			return super.resolvePrefixedName(prefixedName);
+		}
+	}
+
+	@Override
+	public String unresolveAbsoluteIri(final String iri) {
+		synchronized (this.lock) {
+			return super.unresolveAbsoluteIri(iri);
+		}
+	}
+
+	private static <T> Set<T> copy(final Set<? extends T> set) {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(set));
+	}
+
+}
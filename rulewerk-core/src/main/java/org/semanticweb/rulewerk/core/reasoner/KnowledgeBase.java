@@ -22,10 +22,12 @@ package org.semanticweb.rulewerk.core.reasoner;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Writer;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -87,12 +89,13 @@ public class KnowledgeBase implements Iterable<Statement> {
 
 		@Override
 		public Boolean visit(final Rule statement) {
+			KnowledgeBase.this.addRule(statement);
 			return true;
 		}
 
 		@Override
 		public Boolean visit(final DataSourceDeclaration statement) {
-			KnowledgeBase.this.dataSourceDeclarations.add(statement);
+			KnowledgeBase.this.addDataSourceDeclaration(statement);
 			return true;
 		}
 	}
@@ -116,59 +119,19 @@ public class KnowledgeBase implements Iterable<Statement> {
 
 		@Override
 		public Boolean visit(final Rule statement) {
+			KnowledgeBase.this.removeRule(statement);
 			return true;
 		}
 
 		@Override
 		public Boolean visit(final DataSourceDeclaration statement) {
-			KnowledgeBase.this.dataSourceDeclarations.remove(statement);
+			KnowledgeBase.this.removeDataSourceDeclaration(statement);
 			return true;
 		}
 	}
 
 	private final RemoveStatementVisitor removeStatementVisitor = new RemoveStatementVisitor();
 
-	private class ExtractStatementsVisitor<T> implements StatementVisitor<Void> {
-
-		final ArrayList<T> extracted = new ArrayList<>();
-		final Class<T> ownType;
-
-		ExtractStatementsVisitor(final Class<T> type) {
-			this.ownType = type;
-		}
-
-		ArrayList<T> getExtractedStatements() {
-			return this.extracted;
-		}
-
-		@SuppressWarnings("unchecked")
-		@Override
-		public Void visit(final Fact statement) {
-			if (this.ownType.equals(Fact.class)) {
-				this.extracted.add((T) statement);
-			}
-			return null;
-		}
-
-		@SuppressWarnings("unchecked")
-		@Override
-		public Void visit(final Rule statement) {
-			if (this.ownType.equals(Rule.class)) {
-				this.extracted.add((T) statement);
-			}
-			return null;
-		}
-
-		@SuppressWarnings("unchecked")
-		@Override
-		public Void visit(final DataSourceDeclaration statement) {
-			if (this.ownType.equals(DataSourceDeclaration.class)) {
-				this.extracted.add((T) statement);
-			}
-			return null;
-		}
-	}
-
 	/**
 	 * The primary storage for the contents of the knowledge base.
 	 */
@@ -181,16 +144,68 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	private MergingPrefixDeclarationRegistry prefixDeclarationRegistry = new MergingPrefixDeclarationRegistry();
 
+	/**
+	 * Index structures that hold all statements of one type, in the order in
+	 * which they were added. They are returned as read-only lists.
+	 */
+	private final StatementList<Rule> rules = new StatementList<>();
+	private final StatementList<Fact> facts = new StatementList<>();
+	private final StatementList<DataSourceDeclaration> dataSourceDeclarations = new StatementList<>();
+
 	/**
 	 * Index structure that organises all facts by their predicate.
 	 */
 	private final Map<Predicate, Set<PositiveLiteral>> factsByPredicate = new HashMap<>();
 
 	/**
-	 * Index structure that holds all data source declarations of this knowledge
-	 * base.
+	 * Index structures that organise all rules by the predicates in their head
+	 * and body, respectively.
+	 */
+	private final Map<Predicate, Set<Rule>> rulesByHeadPredicate = new HashMap<>();
+	private final Map<Predicate, Set<Rule>> rulesByBodyPredicate = new HashMap<>();
+
+	/**
+	 * Index structure that organises all data source declarations by their
+	 * predicate.
+	 */
+	private final Map<Predicate, Set<DataSourceDeclaration>> dataSourceDeclarationsByPredicate = new HashMap<>();
+
+	/**
+	 * Compact storage for all facts, or {@code null} if facts are stored as
+	 * objects in {@link #statements}, {@link #facts}, and
+	 * {@link #factsByPredicate}.
+	 */
+	private final CompactFactStore compactFactStore;
+
+	/**
+	 * Creates an empty knowledge base.
+	 */
+	public KnowledgeBase() {
+		this(false);
+	}
+
+	private KnowledgeBase(final boolean compactFactStorage) {
+		this.compactFactStore = compactFactStorage ? new CompactFactStore() : null;
+	}
+
+	/**
+	 * Creates an empty knowledge base that keeps its facts in a compact encoding.
+	 * The terms of facts are replaced by integer ids, and the facts of each
+	 * predicate are stored as tuples of ids in a single array, which needs much
+	 * less memory than individual {@link Fact} objects. Fact objects are created
+	 * again whenever facts are retrieved from the knowledge base.
+	 *
+	 * Statements are returned in a different order than in default knowledge
+	 * bases: {@link #getStatements()} returns all rules and data source
+	 * declarations first, in the order in which they were added, followed by all
+	 * facts, grouped by predicate. Moreover, {@link #getFacts()} returns a
+	 * snapshot of the facts rather than a view that reflects later changes.
+	 *
+	 * @return a new knowledge base with compact storage for facts
 	 */
-	private final Set<DataSourceDeclaration> dataSourceDeclarations = new HashSet<>();
+	public static KnowledgeBase withCompactFactStorage() {
+		return new KnowledgeBase(true);
+	}
 
 	/**
 	 * Registers a listener for changes on the knowledge base
@@ -229,6 +244,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	boolean doAddStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
+		if (this.isCompactlyStored(statement)) {
+			return this.compactFactStore.add((Fact) statement);
+		}
 		if (!this.statements.contains(statement) && statement.accept(this.addStatementVisitor)) {
 			this.statements.add(statement);
 			return true;
@@ -290,6 +308,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 	boolean doRemoveStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
 
+		if (this.isCompactlyStored(statement)) {
+			return this.compactFactStore.remove((Fact) statement);
+		}
 		if (this.statements.contains(statement) && statement.accept(this.removeStatementVisitor)) {
 			this.statements.remove(statement);
 			return true;
@@ -331,6 +352,10 @@ public class KnowledgeBase implements Iterable<Statement> {
 		this.notifyListenersOnStatementsRemoved(removedStatements);
 	}
 
+	private boolean isCompactlyStored(final Statement statement) {
+		return this.compactFactStore != null && statement instanceof Fact;
+	}
+
 	private void notifyListenersOnStatementAdded(final Statement addedStatement) {
 		for (final KnowledgeBaseListener listener : this.listeners) {
 			listener.onStatementAdded(addedStatement);
@@ -361,41 +386,163 @@ public class KnowledgeBase implements Iterable<Statement> {
 
 	/**
 	 * Get the list of all rules that have been added to the knowledge base. The
-	 * list is read-only and cannot be modified to add or delete rules.
+	 * list is read-only and reflects later changes of the knowledge base.
 	 *
 	 * @return list of {@link Rule}s
 	 */
 	public List<Rule> getRules() {
-		return this.getStatementsByType(Rule.class);
+		return this.rules;
 	}
 
 	/**
 	 * Get the list of all facts that have been added to the knowledge base. The
-	 * list is read-only and cannot be modified to add or delete facts.
+	 * list is read-only and reflects later changes of the knowledge base (see
+	 * {@link #withCompactFactStorage()} for an exception).
 	 *
 	 * @return list of {@link Fact}s
 	 */
 	public List<Fact> getFacts() {
-		return this.getStatementsByType(Fact.class);
+		if (this.compactFactStore != null) {
+			return this.compactFactStore.getFacts();
+		}
+		return this.facts;
 	}
 
 	/**
 	 * Get the list of all data source declarations that have been added to the
-	 * knowledge base. The list is read-only and cannot be modified to add or delete
-	 * facts.
+	 * knowledge base. The list is read-only and reflects later changes of the
+	 * knowledge base.
 	 *
 	 * @return list of {@link DataSourceDeclaration}s
 	 */
 	public List<DataSourceDeclaration> getDataSourceDeclarations() {
-		return this.getStatementsByType(DataSourceDeclaration.class);
+		return this.dataSourceDeclarations;
 	}
 
-	<T> List<T> getStatementsByType(final Class<T> type) {
-		final ExtractStatementsVisitor<T> visitor = new ExtractStatementsVisitor<>(type);
-		for (final Statement statement : this.statements) {
-			statement.accept(visitor);
+	/**
+	 * Get the rules of the knowledge base that use the given predicate in their
+	 * head. The set is read-only and reflects later changes of the knowledge base.
+	 *
+	 * @param predicate a predicate
+	 * @return set of {@link Rule}s
+	 */
+	public Set<Rule> getRulesWithHeadPredicate(final Predicate predicate) {
+		return getIndexedStatements(this.rulesByHeadPredicate, predicate);
+	}
+
+	/**
+	 * Get the rules of the knowledge base that use the given predicate in their
+	 * body. The set is read-only and reflects later changes of the knowledge base.
+	 *
+	 * @param predicate a predicate
+	 * @return set of {@link Rule}s
+	 */
+	public Set<Rule> getRulesWithBodyPredicate(final Predicate predicate) {
+		return getIndexedStatements(this.rulesByBodyPredicate, predicate);
+	}
+
+	/**
+	 * Get the facts of the knowledge base that use the given predicate. The set is
+	 * read-only and reflects later changes of the knowledge base.
+	 *
+	 * @param predicate a predicate
+	 * @return set of facts
+	 */
+	public Set<PositiveLiteral> getFacts(final Predicate predicate) {
+		if (this.compactFactStore != null) {
+			return this.compactFactStore.getFacts(predicate);
+		}
+		return getIndexedStatements(this.factsByPredicate, predicate);
+	}
+
+	/**
+	 * Get the data source declarations of the knowledge base for the given
+	 * predicate. The set is read-only and reflects later changes of the knowledge
+	 * base.
+	 *
+	 * @param predicate a predicate
+	 * @return set of {@link DataSourceDeclaration}s
+	 */
+	public Set<DataSourceDeclaration> getDataSourceDeclarations(final Predicate predicate) {
+		return getIndexedStatements(this.dataSourceDeclarationsByPredicate, predicate);
+	}
+
+	/**
+	 * Get the predicates that occur in the head of some rule of the knowledge
+	 * base. The set is read-only and reflects later changes of the knowledge base.
+	 *
+	 * @return set of predicates
+	 */
+	public Set<Predicate> getRuleHeadPredicates() {
+		return Collections.unmodifiableSet(this.rulesByHeadPredicate.keySet());
+	}
+
+	/**
+	 * Get the predicates of all facts of the knowledge base. The set is read-only
+	 * and reflects later changes of the knowledge base.
+	 *
+	 * @return set of predicates
+	 */
+	public Set<Predicate> getFactPredicates() {
+		if (this.compactFactStore != null) {
+			return this.compactFactStore.getPredicates();
+		}
+		return Collections.unmodifiableSet(this.factsByPredicate.keySet());
+	}
+
+	/**
+	 * Get the predicates of all data source declarations of the knowledge base.
+	 * The set is read-only and reflects later changes of the knowledge base.
+	 *
+	 * @return set of predicates
+	 */
+	public Set<Predicate> getDataSourceDeclarationPredicates() {
+		return Collections.unmodifiableSet(this.dataSourceDeclarationsByPredicate.keySet());
+	}
+
+	/**
+	 * Returns a read-only view of the statements of the given predicate in the
+	 * given index, which looks up the predicate whenever it is read, and
+	 * therefore also reflects statements of predicates that are added to or
+	 * removed from the index later.
+	 */
+	private static <T> Set<T> getIndexedStatements(final Map<Predicate, Set<T>> index, final Predicate predicate) {
+		return new AbstractSet<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				final Set<T> statements = index.get(predicate);
+				return statements == null ? Collections.emptyIterator()
+						: Collections.unmodifiableSet(statements).iterator();
+			}
+
+			@Override
+			public boolean contains(final Object object) {
+				final Set<T> statements = index.get(predicate);
+				return statements != null && statements.contains(object);
+			}
+
+			@Override
+			public int size() {
+				final Set<T> statements = index.get(predicate);
+				return statements == null ? 0 : statements.size();
+			}
+		};
+	}
+
+	private static <T> void addToIndex(final Map<Predicate, Set<T>> index, final Predicate predicate,
+			final T statement) {
+		index.computeIfAbsent(predicate, k -> new LinkedHashSet<>()).add(statement);
+	}
+
+	private static <T> void removeFromIndex(final Map<Predicate, Set<T>> index, final Predicate predicate,
+			final T statement) {
+		final Set<T> statements = index.get(predicate);
+		if (statements != null) {
+			statements.remove(statement);
+			if (statements.isEmpty()) {
+				index.remove(predicate);
+			}
 		}
-		return Collections.unmodifiableList(visitor.getExtractedStatements());
 	}
 
 	/**
@@ -405,9 +552,8 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * @param fact the fact to add
 	 */
 	void addFact(final Fact fact) {
-		final Predicate predicate = fact.getPredicate();
-		this.factsByPredicate.putIfAbsent(predicate, new HashSet<>());
-		this.factsByPredicate.get(predicate).add(fact);
+		this.facts.append(fact);
+		addToIndex(this.factsByPredicate, fact.getPredicate(), fact);
 	}
 
 	/**
@@ -417,33 +563,94 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * @param fact the fact to remove
 	 */
 	void removeFact(final Fact fact) {
-		final Predicate predicate = fact.getPredicate();
-		final Set<PositiveLiteral> facts = this.factsByPredicate.get(predicate);
-		facts.remove(fact);
-		if (facts.isEmpty()) {
-			this.factsByPredicate.remove(predicate);
-		}
+		this.facts.delete(fact);
+		removeFromIndex(this.factsByPredicate, fact.getPredicate(), fact);
+	}
+
+	void addRule(final Rule rule) {
+		this.rules.append(rule);
+		rule.getHead().getLiterals()
+				.forEach(literal -> addToIndex(this.rulesByHeadPredicate, literal.getPredicate(), rule));
+		rule.getBody().getLiterals()
+				.forEach(literal -> addToIndex(this.rulesByBodyPredicate, literal.getPredicate(), rule));
+	}
+
+	void removeRule(final Rule rule) {
+		this.rules.delete(rule);
+		rule.getHead().getLiterals()
+				.forEach(literal -> removeFromIndex(this.rulesByHeadPredicate, literal.getPredicate(), rule));
+		rule.getBody().getLiterals()
+				.forEach(literal -> removeFromIndex(this.rulesByBodyPredicate, literal.getPredicate(), rule));
+	}
+
+	void addDataSourceDeclaration(final DataSourceDeclaration dataSourceDeclaration) {
+		this.dataSourceDeclarations.append(dataSourceDeclaration);
+		addToIndex(this.dataSourceDeclarationsByPredicate, dataSourceDeclaration.getPredicate(),
+				dataSourceDeclaration);
+	}
+
+	void removeDataSourceDeclaration(final DataSourceDeclaration dataSourceDeclaration) {
+		this.dataSourceDeclarations.delete(dataSourceDeclaration);
+		removeFromIndex(this.dataSourceDeclarationsByPredicate, dataSourceDeclaration.getPredicate(),
+				dataSourceDeclaration);
 	}
 
 	/**
 	 * Returns all {@link Statement}s of this knowledge base.
 	 *
 	 * The result can be iterated over and will return statements in the original
-	 * order. The collection is read-only and cannot be modified to add or delete
-	 * statements.
+	 * order (see {@link #withCompactFactStorage()} for an exception). The
+	 * collection is read-only and cannot be modified to add or delete statements.
 	 *
 	 * @return a collection of statements
 	 */
 	public Collection<Statement> getStatements() {
-		return Collections.unmodifiableCollection(this.statements);
+		if (this.compactFactStore == null) {
+			return Collections.unmodifiableCollection(this.statements);
+		}
+		return new AbstractCollection<Statement>() {
+			@Override
+			public Iterator<Statement> iterator() {
+				return KnowledgeBase.this.iterator();
+			}
+
+			@Override
+			public boolean contains(final Object object) {
+				return object instanceof Fact ? KnowledgeBase.this.compactFactStore.contains(object)
+						: KnowledgeBase.this.statements.contains(object);
+			}
+
+			@Override
+			public int size() {
+				return KnowledgeBase.this.statements.size() + KnowledgeBase.this.compactFactStore.size();
+			}
+		};
 	}
 
 	@Override
 	public Iterator<Statement> iterator() {
-		return Collections.unmodifiableCollection(this.statements).iterator();
+		final Iterator<Statement> statementsIterator = Collections.unmodifiableCollection(this.statements).iterator();
+		if (this.compactFactStore == null) {
+			return statementsIterator;
+		}
+		final Iterator<Fact> factsIterator = this.compactFactStore.getFacts().iterator();
+		return new Iterator<Statement>() {
+			@Override
+			public boolean hasNext() {
+				return statementsIterator.hasNext() || factsIterator.hasNext();
+			}
+
+			@Override
+			public Statement next() {
+				return statementsIterator.hasNext() ? statementsIterator.next() : factsIterator.next();
+			}
+		};
 	}
 
 	Map<Predicate, Set<PositiveLiteral>> getFactsByPredicate() {
+		if (this.compactFactStore != null) {
+			return this.compactFactStore.getFactsByPredicate();
+		}
 		return this.factsByPredicate;
 	}
 
@@ -478,14 +685,26 @@ public class KnowledgeBase implements Iterable<Statement> {
 			throws RulewerkException, IOException, IllegalArgumentException {
 		Validate.notNull(file, "file must not be null");
 
-		boolean isNewFile = importedFilePaths.add(file.getCanonicalPath());
-		Validate.isTrue(isNewFile, "file \"" + file.getName() + "\" was already imported.");
+		addImportedFile(file);
 
 		try (InputStream stream = new FileInputStream(file)) {
 			parseFunction.parseInto(stream, this);
 		}
 	}
 
+	/**
+	 * Records that the given file is imported.
+	 *
+	 * @param file the file to import
+	 * @throws IOException              when the canonical path of {@code file}
+	 *                                  cannot be determined
+	 * @throws IllegalArgumentException when {@code file} has already been imported
+	 */
+	void addImportedFile(final File file) throws IOException {
+		final boolean isNewFile = this.importedFilePaths.add(file.getCanonicalPath());
+		Validate.isTrue(isNewFile, "file \"" + file.getName() + "\" was already imported.");
+	}
+
 	/**
 	 * Merge {@link PrefixDeclarationRegistry} into this knowledge base.
 	 *
@@ -560,40 +779,43 @@ public class KnowledgeBase implements Iterable<Statement> {
 	}
 
 	/**
-	 * Serialise the KnowledgeBase to the {@link OutputStream}.
+	 * Serialise the KnowledgeBase to the {@link OutputStream}, in UTF-8.
 	 *
 	 * @param stream the {@link OutputStream} to serialise to.
 	 *
 	 * @throws IOException
 	 */
 	public void writeKnowledgeBase(OutputStream stream) throws IOException {
-		stream.write(Serializer.getBaseAndPrefixDeclarations(this).getBytes());
+		final Writer writer = OutputFiles.newWriter(stream, OutputFiles.DEFAULT_BUFFER_SIZE);
+		Serializer.writeBaseAndPrefixDeclarations(writer, this);
 
 		for (DataSourceDeclaration dataSource : getDataSourceDeclarations()) {
-			stream.write(Serializer.getString(dataSource).getBytes());
-			stream.write('\n');
+			writer.write(Serializer.getString(dataSource));
+			writer.write('\n');
 		}
 
 		for (Rule rule : getRules()) {
-			stream.write(Serializer.getString(rule).getBytes());
-			stream.write('\n');
+			writer.write(Serializer.getString(rule));
+			writer.write('\n');
 		}
 
 		for (Fact fact : getFacts()) {
-			stream.write(Serializer.getFactString(fact).getBytes());
-			stream.write('\n');
+			Serializer.writeFact(writer, fact);
+			writer.write('\n');
 		}
+		writer.flush();
 	}
 
 	/**
-	 * Serialise the KnowledgeBase to the given {@link File}.
+	 * Serialise the KnowledgeBase to the given {@link File}. If the file name ends
+	 * with {@code .gz}, the file is compressed with gzip.
 	 *
 	 * @param filePath path to the file to serialise into.
 	 *
 	 * @throws IOException
 	 */
 	public void writeKnowledgeBase(String filePath) throws IOException {
-		try (OutputStream stream = new FileOutputStream(filePath)) {
+		try (OutputStream stream = OutputFiles.open(filePath, OutputFiles.DEFAULT_BUFFER_SIZE)) {
 			writeKnowledgeBase(stream);
 		}
 	}
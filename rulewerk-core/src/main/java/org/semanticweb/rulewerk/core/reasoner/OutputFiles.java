@@ -0,0 +1,97 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utility methods for writing facts and statements to files and streams. Text
+ * is always written in UTF-8.
+ */
+public final class OutputFiles {
+
+	/**
+	 * Default size of output buffers, in bytes (or characters).
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * File name extension of files that are compressed with gzip.
+	 */
+	public static final String GZIP_EXTENSION = ".gz";
+
+	/**
+	 * File name extension of files in Rulewerk syntax.
+	 */
+	public static final String RULES_EXTENSION = ".rls";
+
+	/**
+	 * Name of the manifest file written by
+	 * {@link Reasoner#writeInferencesToDirectory(String, int, boolean)}.
+	 */
+	public static final String MANIFEST_FILE_NAME = "manifest.tsv";
+
+	private OutputFiles() {
+	}
+
+	/**
+	 * Opens a buffered stream for writing to the given file. If the file name ends
+	 * with {@link #GZIP_EXTENSION}, the written data is compressed with gzip.
+	 *
+	 * @param filePath   path of the file to write to
+	 * @param bufferSize size of the buffer in bytes
+	 * @return a new output stream, which must be closed by the caller
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static OutputStream open(final String filePath, final int bufferSize) throws IOException {
+		final OutputStream fileStream = new FileOutputStream(filePath);
+		try {
+			if (filePath.endsWith(GZIP_EXTENSION)) {
+				return new GZIPOutputStream(fileStream, bufferSize);
+			}
+			return new BufferedOutputStream(fileStream, bufferSize);
+		} catch (final IOException e) {
+			fileStream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a buffered UTF-8 writer for the given stream. The writer must be
+	 * flushed, but the stream remains owned by the caller.
+	 *
+	 * @param stream     stream to write to
+	 * @param bufferSize size of the buffer in characters
+	 * @return a new writer
+	 */
+	public static Writer newWriter(final OutputStream stream, final int bufferSize) {
+		return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), bufferSize);
+	}
+
+}
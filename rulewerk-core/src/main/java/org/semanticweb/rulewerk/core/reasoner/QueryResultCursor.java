@@ -0,0 +1,103 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+
+/**
+ * Cursor over the answers to a query. Unlike a {@link QueryResultIterator},
+ * which returns a new {@link QueryResult} for every answer, a cursor is moved
+ * to the next answer with {@link #advance()}, and the terms of the current
+ * answer are read by position. Callers that only stream the names of answer
+ * terms (e.g., to write them to a file) thus do not need to create
+ * {@link Term} objects for every answer.
+ *
+ * The terms of an answer are only accessible until the next call of
+ * {@link #advance()}.
+ */
+public interface QueryResultCursor extends AutoCloseable {
+
+	/**
+	 * Moves the cursor to the next answer. Initially, the cursor is positioned
+	 * before the first answer.
+	 *
+	 * @return {@code true} if the cursor is positioned at an answer,
+	 *         {@code false} if there are no more answers
+	 */
+	boolean advance();
+
+	/**
+	 * Returns the number of terms of the current answer.
+	 *
+	 * @return number of terms
+	 * @throws IllegalStateException if the cursor is not positioned at an answer
+	 */
+	int getArity();
+
+	/**
+	 * Returns the type of the term at the given position of the current answer.
+	 *
+	 * @param i position of the term, starting from 0
+	 * @return one of {@link TermType#ABSTRACT_CONSTANT},
+	 *         {@link TermType#DATATYPE_CONSTANT},
+	 *         {@link TermType#LANGSTRING_CONSTANT} and
+	 *         {@link TermType#NAMED_NULL}
+	 * @throws IllegalStateException if the cursor is not positioned at an answer
+	 */
+	TermType getTermType(int i);
+
+	/**
+	 * Returns the name of the term at the given position of the current answer.
+	 * For abstract constants and named nulls, this is the name returned by
+	 * {@link Term#getName()}. For datatype and language string constants, this
+	 * is the string representation {@code "lexical value"^^<datatype>} or
+	 * {@code "lexical value"@language}.
+	 *
+	 * @param i position of the term, starting from 0
+	 * @return name of the term
+	 * @throws IllegalStateException if the cursor is not positioned at an answer
+	 */
+	String getTermName(int i);
+
+	/**
+	 * Returns the term at the given position of the current answer. Unlike the
+	 * other accessors, this may create a new {@link Term} object.
+	 *
+	 * @param i position of the term, starting from 0
+	 * @return the term
+	 * @throws IllegalStateException if the cursor is not positioned at an answer
+	 */
+	Term getTerm(int i);
+
+	/**
+	 * Returns the correctness of the query answers, as in
+	 * {@link QueryResultIterator#getCorrectness()}.
+	 *
+	 * @return query answer correctness
+	 */
+	Correctness getCorrectness();
+
+	@Override
+	void close();
+
+}
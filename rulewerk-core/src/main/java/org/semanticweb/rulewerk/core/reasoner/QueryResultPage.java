@@ -0,0 +1,66 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+
+/**
+ * A page of the answers to a query, as returned by
+ * {@link Reasoner#answerQueryPage(PositiveLiteral, boolean, int, String)}.
+ * Besides the answers, a page holds a token for requesting the next page.
+ */
+public interface QueryResultPage {
+
+	/**
+	 * Returns the answers on this page, in the order in which the reasoner
+	 * returns them.
+	 *
+	 * @return list of distinct query answers
+	 */
+	List<QueryResult> getResults();
+
+	/**
+	 * Returns the position of the first answer of this page among all answers to
+	 * the query.
+	 *
+	 * @return number of answers on the previous pages
+	 */
+	long getOffset();
+
+	/**
+	 * Returns the token for requesting the page that follows this page.
+	 *
+	 * @return page token, or {@code null} if this is the last page
+	 */
+	String getNextPageToken();
+
+	/**
+	 * Returns the correctness of the query answers, as in
+	 * {@link QueryResultIterator#getCorrectness()}.
+	 *
+	 * @return query answer correctness
+	 */
+	Correctness getCorrectness();
+
+}
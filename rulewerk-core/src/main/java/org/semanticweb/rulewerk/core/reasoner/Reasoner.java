@@ -21,9 +21,13 @@ package org.semanticweb.rulewerk.core.reasoner;
  */
 
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
@@ -35,6 +39,8 @@ import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.reasoner.implementation.BinarySnapshot;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvDirectoryDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.VLogReasoner;
 
 /**
@@ -92,7 +98,9 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 
 	/**
 	 * Exports all the (explicit and implicit) facts inferred during reasoning of
-	 * the knowledge base to an OutputStream.
+	 * the knowledge base to an OutputStream. Facts are written in UTF-8, through a
+	 * buffer of size {@link #getOutputBufferSize()}. The stream is flushed, but
+	 * not closed.
 	 *
 	 * @param stream an OutputStream for the facts to be written to.
 	 * @return the correctness of the query answers, depending on the state of the
@@ -103,7 +111,8 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 
 	/**
 	 * Exports all the (explicit and implicit) facts inferred during reasoning of
-	 * the knowledge base to a desired file.
+	 * the knowledge base to a desired file. If the file name ends with
+	 * {@code .gz}, the file is compressed with gzip.
 	 *
 	 * @param filePath a String of the file path for the facts to be written to.
 	 * @return the correctness of the query answers, depending on the state of the
@@ -112,11 +121,87 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 * @throws FileNotFoundException
 	 */
 	default Correctness writeInferences(String filePath) throws FileNotFoundException, IOException {
-		try (OutputStream stream = new FileOutputStream(filePath)) {
+		try (OutputStream stream = OutputFiles.open(filePath, getOutputBufferSize())) {
 			return writeInferences(stream);
 		}
 	}
 
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning of
+	 * the knowledge base to files in the given directory, using several threads.
+	 * The facts of each predicate are written to a separate file, which starts
+	 * with the base and prefix declarations of the knowledge base, so that it can
+	 * be parsed on its own. Files are written in UTF-8, and compressed with gzip
+	 * if requested.<br>
+	 * Finally, a manifest file {@value OutputFiles#MANIFEST_FILE_NAME} is written
+	 * to the directory, with one line per predicate, in the order of predicate
+	 * names. Each line contains the file name, predicate name, arity, and number of
+	 * facts, separated by tabs. The manifest is only present once all files have
+	 * been written completely: an existing manifest is deleted first, and if the
+	 * export fails, no manifest is left in the directory.
+	 *
+	 * @param directoryPath path of the directory to write to, which is created if
+	 *                      needed
+	 * @param threads       number of threads that write files in parallel
+	 * @param compress      if true, files are compressed with gzip
+	 * @return the correctness of the query answers, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException if writing files fails
+	 */
+	Correctness writeInferencesToDirectory(String directoryPath, int threads, boolean compress) throws IOException;
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning of
+	 * the knowledge base to an OutputStream, in the binary format of
+	 * {@link BinarySnapshot}, together with the base and prefix declarations of
+	 * the knowledge base. Snapshots can be loaded much faster than the output of
+	 * {@link #writeInferences(OutputStream)}, using
+	 * {@link BinarySnapshot#read(InputStream, KnowledgeBase, KnowledgeBase.AdditionalInputParser)}.
+	 * The stream is flushed, but not closed.
+	 *
+	 * @param stream an OutputStream for the snapshot to be written to, which
+	 *               should be buffered.
+	 * @return the correctness of the query answers, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException
+	 */
+	Correctness writeInferencesSnapshot(OutputStream stream) throws IOException;
+
+	/**
+	 * Exports all the (explicit and implicit) facts inferred during reasoning of
+	 * the knowledge base to a snapshot file, as in
+	 * {@link #writeInferencesSnapshot(OutputStream)}. If the file name ends with
+	 * {@code .gz}, the file is compressed with gzip.
+	 *
+	 * @param filePath a String of the file path for the snapshot to be written to.
+	 * @return the correctness of the query answers, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException
+	 */
+	default Correctness writeInferencesSnapshot(String filePath) throws IOException {
+		try (OutputStream stream = OutputFiles.open(filePath, getOutputBufferSize())) {
+			return writeInferencesSnapshot(stream);
+		}
+	}
+
+	/**
+	 * Sets the size of the buffers used for exporting facts with
+	 * {@link #writeInferences(OutputStream)} and
+	 * {@link #writeInferences(String)}. Larger buffers reduce the number of write
+	 * operations on the underlying stream or file.
+	 *
+	 * @param bufferSize buffer size in bytes, which must be strictly positive
+	 */
+	void setOutputBufferSize(int bufferSize);
+
+	/**
+	 * Returns the size of the buffers used for exporting facts. The default value
+	 * is 64 KiB.
+	 *
+	 * @return buffer size in bytes
+	 */
+	int getOutputBufferSize();
+
 	/**
 	 * Sets the algorithm that will be used for reasoning over the knowledge base.
 	 * If no algorithm is set, the default algorithm is
@@ -159,6 +244,115 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	Integer getReasoningTimeout();
 
+	/**
+	 * Sets the number of threads that are used to convert the facts of the
+	 * knowledge base to the data structures of the reasoner backend when loading
+	 * the knowledge base. Facts of different predicates are converted in
+	 * parallel.
+	 *
+	 * @param threads number of conversion threads. If {@code null}, facts are
+	 *                converted by the thread that loads the knowledge base.
+	 */
+	void setLoadingParallelism(Integer threads);
+
+	/**
+	 * Returns the number of threads that are used to convert facts when loading
+	 * the knowledge base. The default value is {@code null}, in which case facts
+	 * are converted by the thread that loads the knowledge base.
+	 *
+	 * @return if not {@code null}, number of conversion threads
+	 */
+	Integer getLoadingParallelism();
+
+	/**
+	 * Sets the number of threads that are used to parse CSV files in Java, rather
+	 * than letting the reasoner backend read them, when loading the knowledge
+	 * base. Files are decompressed and read in chunks, which are tokenised in
+	 * parallel. Lines are split at commas, and fields are used as constant names
+	 * as they are by the backend. Progress is logged at level INFO.<br>
+	 * The files of a {@link CsvDirectoryDataSource} are always parsed in Java, by
+	 * this number of threads, or by one thread per available processor if it is
+	 * {@code null}.
+	 *
+	 * @param threads number of parsing threads. If {@code null}, CSV files are
+	 *                read by the reasoner backend.
+	 */
+	void setCsvParsingThreads(Integer threads);
+
+	/**
+	 * Returns the number of threads that are used to parse CSV files in Java. The
+	 * default value is {@code null}, in which case CSV files are read by the
+	 * reasoner backend.
+	 *
+	 * @return if not {@code null}, number of parsing threads
+	 */
+	Integer getCsvParsingThreads();
+
+	/**
+	 * Sets whether the sources of a predicate that has several sources, such as
+	 * facts and data sources, are merged into a single relation when loading the
+	 * knowledge base. Otherwise, the data of each source is loaded for an
+	 * auxiliary predicate, and copied to the original predicate by an additional
+	 * rule during reasoning. Merging only applies if all sources of the predicate
+	 * are loaded in Java (facts, in-memory and binary data sources, and CSV files
+	 * that are parsed in Java, see {@link #setCsvParsingThreads(Integer)}).<br>
+	 * Facts that are added to the knowledge base after it has been loaded with
+	 * merged sources cause the whole knowledge base to be loaded again.
+	 *
+	 * @param mergingDataSources if {@code true}, sources are merged
+	 */
+	void setMergingDataSources(boolean mergingDataSources);
+
+	/**
+	 * Returns whether the sources of a predicate are merged into a single relation
+	 * when loading the knowledge base. The default value is {@code false}.
+	 *
+	 * @return {@code true} if sources are merged
+	 */
+	boolean isMergingDataSources();
+
+	/**
+	 * Sets the size of the cache for the results of
+	 * {@link #answerQuery(PositiveLiteral, boolean)} and
+	 * {@link #countQueryAnswers(PositiveLiteral, boolean)}. Queries that only
+	 * differ in the names of their variables share their cached results. The
+	 * cache is cleared whenever the knowledge base changes, and when the reasoner
+	 * is loaded, reasons, or is reset. If the cache is full, the least recently
+	 * used results are evicted. The answers of a query are cached once all of
+	 * them have been read from the iterator returned by
+	 * {@link #answerQuery(PositiveLiteral, boolean)}. Setting the size clears the
+	 * cache and its statistics.
+	 *
+	 * @param size maximal number of cached query answers, where each answer count
+	 *             counts as one answer. If {@code null}, results are not cached.
+	 */
+	void setQueryResultCacheSize(Integer size);
+
+	/**
+	 * Returns the size of the cache for query results. The default value is
+	 * {@code null}, in which case results are not cached.
+	 *
+	 * @return if not {@code null}, maximal number of cached query answers
+	 */
+	Integer getQueryResultCacheSize();
+
+	/**
+	 * Returns the number of queries that have been answered from the query result
+	 * cache since its size has been set.
+	 *
+	 * @return number of cache hits
+	 */
+	long getQueryResultCacheHits();
+
+	/**
+	 * Returns the number of queries that have been answered by the reasoner
+	 * backend, since they were not in the query result cache, since its size has
+	 * been set.
+	 *
+	 * @return number of cache misses
+	 */
+	long getQueryResultCacheMisses();
+
 	/**
 	 * Loaded {@link Rule}s can be re-written internally to an equivalent set of
 	 * rules, according to given {@code ruleRewritingStrategy}. If no strategy is
@@ -346,6 +540,9 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 * knowledge base. Re-materialisation ({@link Reasoner#reason()}) is required,
 	 * in order to obtain correct query answers.
 	 * </ul>
+	 * Modifications of the knowledge base only affect the correctness of queries
+	 * for predicates whose facts depend on the modified statements through the
+	 * rules of the knowledge base.
 	 *
 	 *
 	 * @param query        a {@link PositiveLiteral} representing the query to be
@@ -362,6 +559,157 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates several atomic queries at once, as in
+	 * {@link #answerQuery(PositiveLiteral, boolean)}. Equal queries share an
+	 * iterator. The answers are read from the reasoner while the iterators are
+	 * advanced, so that they are not held in memory. The {@link VLogReasoner}
+	 * validates all queries before any of them is evaluated, and only evaluates
+	 * each query when its iterator is first used. Queries that only differ in the
+	 * names of their variables are evaluated once by the {@link VLogReasoner},
+	 * and their answers are kept in memory for the iterators of all of them.<br>
+	 * The returned iterators should be closed after use.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, answers that contain {@link NamedNull}s
+	 *                     are included
+	 * @return map from the given queries to iterators over their distinct answers,
+	 *         in the order of the queries
+	 */
+	default Map<PositiveLiteral, QueryResultIterator> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		final Map<PositiveLiteral, QueryResultIterator> results = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			if (!results.containsKey(query)) {
+				results.put(query, this.answerQuery(query, includeNulls));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Evaluates several atomic queries at once, as in
+	 * {@link #answerQuery(PositiveLiteral, boolean)}, and passes each answer of
+	 * each query to the given action as soon as it has been read. Answers of
+	 * different queries may be interleaved. Queries that only differ in the names
+	 * of their variables are evaluated once. Queries without constants for the
+	 * same predicate are answered by a single scan of the facts of that
+	 * predicate, whereas queries with constants are evaluated separately, so that
+	 * the reasoner can use its indexes.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, answers that contain {@link NamedNull}s
+	 *                     are included
+	 * @param action       the action that is performed for each query and each
+	 *                     of its distinct answers
+	 * @return map from the given queries to the {@link Correctness} of their
+	 *         answers, in the order of the queries
+	 */
+	default Map<PositiveLiteral, Correctness> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls, final BiConsumer<PositiveLiteral, QueryResult> action) {
+		final Map<PositiveLiteral, Correctness> correctness = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			if (!correctness.containsKey(query)) {
+				try (QueryResultIterator results = this.answerQuery(query, includeNulls)) {
+					results.forEachRemaining(answer -> action.accept(query, answer));
+					correctness.put(query, results.getCorrectness());
+				}
+			}
+		}
+		return correctness;
+	}
+
+	/**
+	 * Evaluates an atomic query as in
+	 * {@link #answerQuery(PositiveLiteral, boolean)}, and returns one page of its
+	 * answers. The first page is requested with {@code pageToken} {@code null},
+	 * and each following page with the {@link QueryResultPage#getNextPageToken()}
+	 * of the previous page. Reading the next page continues the evaluation of the
+	 * query where the previous page ended, so that each answer is returned on
+	 * exactly one page.<br>
+	 * Pages are single-use: the reasoner does not keep the answers of pages it has
+	 * returned, so each page token can be used only once. Requesting the same
+	 * token again fails, even if the page has been lost, e.g., in a failed
+	 * network transfer. Page tokens expire when the answers of the reasoner may
+	 * change, i.e., when the knowledge base is modified, reloaded or reasoned
+	 * with, and when the reasoner is reset. Since the evaluation of a query is
+	 * only kept open for a limited number of queries and for a limited time (see
+	 * {@link #setMaxSuspendedPagedQueries(int)} and
+	 * {@link #setPagedQueryTimeToLive(long)}), page tokens also expire when too
+	 * many other queries have been paged since, or when they have not been used
+	 * for a while. In all these cases, the query must be paged again from the
+	 * first page. The query result cache (see
+	 * {@link #setQueryResultCacheSize(Integer)}) is not used.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers that contain {@link NamedNull}s
+	 *                     are included
+	 * @param pageSize     maximal number of answers on the page, must be positive
+	 * @param pageToken    token of the page to be returned, or {@code null} for
+	 *                     the first page
+	 * @return page of the distinct answers to the query
+	 * @throws IllegalArgumentException if the page token is malformed, belongs to
+	 *                                  a different query, has already been used,
+	 *                                  or has expired
+	 */
+	QueryResultPage answerQueryPage(PositiveLiteral query, boolean includeNulls, int pageSize, String pageToken);
+
+	/**
+	 * Sets the maximal number of paged queries (see
+	 * {@link #answerQueryPage(PositiveLiteral, boolean, int, String)}) whose
+	 * evaluation is kept open for reading their next page. When this number is
+	 * exceeded, the evaluation of the least recently paged query is closed and its
+	 * page token expires. The default value is 16.
+	 *
+	 * @param maxQueries maximal number of open paged queries, must not be
+	 *                   negative. If 0, page tokens cannot be used.
+	 */
+	void setMaxSuspendedPagedQueries(int maxQueries);
+
+	/**
+	 * Returns the maximal number of paged queries whose evaluation is kept open.
+	 *
+	 * @return maximal number of open paged queries
+	 */
+	int getMaxSuspendedPagedQueries();
+
+	/**
+	 * Sets the time for which the evaluation of a paged query (see
+	 * {@link #answerQueryPage(PositiveLiteral, boolean, int, String)}) is kept
+	 * open while its next page is not requested. Afterwards, the page token
+	 * expires. The default value is 60000 (one minute).
+	 *
+	 * @param milliseconds time to live of page tokens in milliseconds, must not be
+	 *                     negative
+	 */
+	void setPagedQueryTimeToLive(long milliseconds);
+
+	/**
+	 * Returns the time for which the evaluation of a paged query is kept open
+	 * while its next page is not requested.
+	 *
+	 * @return time to live of page tokens in milliseconds
+	 */
+	long getPagedQueryTimeToLive();
+
+	/**
+	 * Evaluates an atomic query as in
+	 * {@link #answerQuery(PositiveLiteral, boolean)}, but returns a
+	 * {@link QueryResultCursor} that reads the terms of one answer at a time
+	 * instead of creating a {@link QueryResult} for every answer. This is useful
+	 * for streaming large numbers of answers. The query result cache (see
+	 * {@link #setQueryResultCacheSize(Integer)}) is not used.<br>
+	 * The returned cursor should be closed after use.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers that contain {@link NamedNull}s
+	 *                     are included
+	 * @return cursor over the distinct answers to the query
+	 */
+	QueryResultCursor openQueryCursor(PositiveLiteral query, boolean includeNulls);
+
 	/**
 	 * * Evaluates an atomic ({@code query}), and counts the number of query answer
 	 * implicit facts loaded into the reasoner and the number of query answer
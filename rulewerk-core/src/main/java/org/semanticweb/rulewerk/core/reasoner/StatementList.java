@@ -0,0 +1,147 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Distinct elements in the order in which they were added, which is read as a
+ * read-only {@link List}. Both adding and removing elements take amortised
+ * constant time: a removed element leaves a gap. Gaps are closed only when the
+ * list is next read by position, or when an element is added while more than
+ * half of the positions are gaps. Removing elements therefore does not disturb
+ * running iterations, so that all elements can be removed while iterating over
+ * the list itself.
+ *
+ * @param <T> type of the elements
+ */
+final class StatementList<T> extends AbstractList<T> {
+
+	/**
+	 * The elements, with {@code null} for removed elements.
+	 */
+	private final List<T> elements = new ArrayList<>();
+
+	/**
+	 * Positions of the elements in {@link #elements}.
+	 */
+	private final Map<T, Integer> positions = new HashMap<>();
+
+	/**
+	 * Appends the given element, if not present yet.
+	 *
+	 * @param element the element to add
+	 * @return true if the element has been added
+	 */
+	boolean append(final T element) {
+		if (this.positions.containsKey(element)) {
+			return false;
+		}
+		if (2 * this.positions.size() < this.elements.size()) {
+			this.closeGaps();
+		}
+		this.positions.put(element, this.elements.size());
+		this.elements.add(element);
+		return true;
+	}
+
+	/**
+	 * Removes the given element, if present.
+	 *
+	 * @param element the element to remove
+	 * @return true if the element has been removed
+	 */
+	boolean delete(final Object element) {
+		final Integer position = this.positions.remove(element);
+		if (position == null) {
+			return false;
+		}
+		this.elements.set(position, null);
+		return true;
+	}
+
+	private void closeGaps() {
+		if (this.positions.size() == this.elements.size()) {
+			return;
+		}
+		this.elements.removeIf(Objects::isNull);
+		for (int i = 0; i < this.elements.size(); i++) {
+			this.positions.put(this.elements.get(i), i);
+		}
+	}
+
+	@Override
+	public T get(final int index) {
+		this.closeGaps();
+		return this.elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return this.positions.size();
+	}
+
+	@Override
+	public boolean contains(final Object object) {
+		return this.positions.containsKey(object);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		final Iterator<T> iterator = this.elements.iterator();
+		return new Iterator<T>() {
+			T next = this.advance();
+
+			private T advance() {
+				while (iterator.hasNext()) {
+					final T element = iterator.next();
+					if (element != null) {
+						return element;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return this.next != null;
+			}
+
+			@Override
+			public T next() {
+				if (this.next == null) {
+					throw new NoSuchElementException();
+				}
+				final T element = this.next;
+				this.next = this.advance();
+				return element;
+			}
+		};
+	}
+
+}
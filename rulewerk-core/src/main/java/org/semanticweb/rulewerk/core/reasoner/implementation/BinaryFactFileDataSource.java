@@ -0,0 +1,231 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+
+/**
+ * A {@link DataSource} for facts that are stored in a dictionary-encoded binary
+ * file, as written by {@link BinaryFactFileWriter}. The file is memory-mapped,
+ * and its tuples are passed to the reasoner like those of an
+ * {@link InMemoryDataSource}, without any parsing. Each distinct constant name
+ * is decoded only once per loading, and the decoded tuples share the name
+ * strings.
+ *
+ * A binary fact file consists of a header, the tuples as rows of 32-bit name
+ * ids, and the dictionary, given as the 32-bit end offsets of all names,
+ * followed by the UTF-8 bytes of the names (in the format of the reasoner
+ * backend). All numbers are big-endian.
+ *
+ * Tuples are not kept in memory between loads, so the file must not be
+ * modified while the data source is in use.
+ */
+public class BinaryFactFileDataSource implements JavaTupleSource {
+
+	/**
+	 * The usual extension of binary fact files.
+	 */
+	public static final String EXTENSION = ".rwf";
+
+	static final int MAGIC = 0x52574646; // "RWFF"
+	static final int VERSION = 1;
+	/**
+	 * Size of the header: magic number, version, arity, number of tuples, and
+	 * number of names, as ints.
+	 */
+	static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+	/**
+	 * Maximal number of bytes of tuples that are mapped at once.
+	 */
+	static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+	private final File file;
+	private final String filePath;
+	private final int arity;
+	private final int tupleCount;
+	private final int nameCount;
+
+	/**
+	 * Creates a data source for the given binary fact file. Only the header of the
+	 * file is read at this point.
+	 *
+	 * @param filePath path to a binary fact file
+	 * @throws IOException              if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not a binary fact file
+	 */
+	public BinaryFactFileDataSource(final String filePath) throws IOException {
+		this(filePath, readHeader(filePath));
+	}
+
+	private BinaryFactFileDataSource(final String filePath, final ByteBuffer header) {
+		this.file = new File(filePath);
+		this.filePath = filePath;
+		this.arity = header.getInt(2 * Integer.BYTES);
+		this.tupleCount = header.getInt(3 * Integer.BYTES);
+		this.nameCount = header.getInt(4 * Integer.BYTES);
+	}
+
+	private static ByteBuffer readHeader(final String filePath) throws IOException {
+		Validate.notBlank(filePath, "Data source file path cannot be blank!");
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ)) {
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+			}
+		}
+		Validate.isTrue(!header.hasRemaining() && header.getInt(0) == MAGIC,
+				"File %s is not a binary fact file.", filePath);
+		Validate.isTrue(header.getInt(Integer.BYTES) == VERSION, "Unsupported version of binary fact file %s.",
+				filePath);
+		Validate.isTrue(header.getInt(2 * Integer.BYTES) > 0 && header.getInt(3 * Integer.BYTES) >= 0
+				&& header.getInt(4 * Integer.BYTES) >= 0, "Invalid header in binary fact file %s.", filePath);
+		return header;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	public String getPath() {
+		return this.filePath;
+	}
+
+	@Override
+	public int getArity() {
+		return this.arity;
+	}
+
+	/**
+	 * Returns the number of tuples in the file.
+	 *
+	 * @return number of tuples
+	 */
+	public int getSize() {
+		return this.tupleCount;
+	}
+
+	/**
+	 * Decodes the tuples of the file. The tuples are not cached, so that they can
+	 * be garbage-collected once the reasoner has loaded them.
+	 *
+	 * @throws UncheckedIOException if reading the file fails
+	 */
+	@Override
+	public String[][] getData() {
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			final String[] names = this.readNames(channel);
+			final String[][] tuples = new String[this.tupleCount][];
+			final int tupleSize = this.arity * Integer.BYTES;
+			final int segmentTupleCount = Math.max(1, MAX_SEGMENT_SIZE / tupleSize);
+			for (int start = 0; start < this.tupleCount; start += segmentTupleCount) {
+				final int end = (int) Math.min((long) start + segmentTupleCount, this.tupleCount);
+				final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY,
+						HEADER_SIZE + (long) start * tupleSize, (long) (end - start) * tupleSize);
+				for (int t = start; t < end; t++) {
+					final String[] tuple = new String[this.arity];
+					for (int i = 0; i < this.arity; i++) {
+						tuple[i] = names[this.validateNameId(segment.getInt())];
+					}
+					tuples[t] = tuple;
+				}
+			}
+			return tuples;
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not read binary fact file " + this.filePath + ".", e);
+		}
+	}
+
+	private String[] readNames(final FileChannel channel) throws IOException {
+		final long dictionaryStart = HEADER_SIZE + (long) this.tupleCount * this.arity * Integer.BYTES;
+		final long offsetsSize = (long) this.nameCount * Integer.BYTES;
+		final MappedByteBuffer offsets = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryStart, offsetsSize);
+		final int namesSize = this.nameCount == 0 ? 0 : offsets.getInt((int) offsetsSize - Integer.BYTES);
+		if (namesSize < 0) {
+			throw new IOException("Invalid dictionary in binary fact file " + this.filePath + ".");
+		}
+		final MappedByteBuffer nameBytes = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryStart + offsetsSize,
+				namesSize);
+
+		final String[] names = new String[this.nameCount];
+		byte[] bytes = new byte[64];
+		int start = 0;
+		for (int id = 0; id < this.nameCount; id++) {
+			final int end = offsets.getInt();
+			final int length = end - start;
+			if (length < 0 || end > namesSize) {
+				throw new IOException("Invalid dictionary in binary fact file " + this.filePath + ".");
+			}
+			if (length > bytes.length) {
+				bytes = new byte[Math.max(length, bytes.length * 2)];
+			}
+			nameBytes.get(bytes, 0, length);
+			names[id] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+			start = end;
+		}
+		return names;
+	}
+
+	private int validateNameId(final int nameId) throws IOException {
+		if (nameId < 0 || nameId >= this.nameCount) {
+			throw new IOException("Invalid name id " + nameId + " in binary fact file " + this.filePath + ".");
+		}
+		return nameId;
+	}
+
+	@Override
+	public Optional<Integer> getRequiredArity() {
+		return Optional.of(this.arity);
+	}
+
+	@Override
+	public String getSyntacticRepresentation() {
+		return Serializer.getString(this);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.file.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BinaryFactFileDataSource)) {
+			return false;
+		}
+		return this.file.equals(((BinaryFactFileDataSource) obj).getFile());
+	}
+
+}
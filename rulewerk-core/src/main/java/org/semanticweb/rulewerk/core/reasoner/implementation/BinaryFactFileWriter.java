@@ -0,0 +1,176 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.reasoner.OutputFiles;
+
+/**
+ * Writes binary fact files that can be loaded with a
+ * {@link BinaryFactFileDataSource}. Tuples are written to the file as they are
+ * added, so that only the dictionary of names needs to be kept in memory. The
+ * dictionary and the final header are written when the writer is closed.
+ *
+ * This class is not thread-safe.
+ */
+public class BinaryFactFileWriter implements Closeable {
+
+	private final FileOutputStream fileStream;
+	private final DataOutputStream stream;
+	private final int arity;
+	private int tupleCount = 0;
+
+	private final Map<String, Integer> nameIds = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 * Creates a writer for a new binary fact file, which holds facts of the given
+	 * arity. An existing file is overwritten.
+	 *
+	 * @param filePath path of the file to write
+	 * @param arity    the number of parameters in a fact of the file
+	 * @throws IOException if the file cannot be created
+	 */
+	public BinaryFactFileWriter(final String filePath, final int arity) throws IOException {
+		Validate.notBlank(filePath, "File path cannot be blank!");
+		Validate.isTrue(arity > 0, "Arity must be greater than zero: %d", arity);
+		this.arity = arity;
+		this.fileStream = new FileOutputStream(filePath);
+		this.stream = new DataOutputStream(new BufferedOutputStream(this.fileStream, OutputFiles.DEFAULT_BUFFER_SIZE));
+		// placeholder, which is overwritten on closing
+		this.stream.write(new byte[BinaryFactFileDataSource.HEADER_SIZE]);
+	}
+
+	/**
+	 * Adds a fact, given by the names of its constants, as in
+	 * {@link InMemoryDataSource#addTuple(String...)}.
+	 *
+	 * @param constantNames the string names of the constants in this fact
+	 * @throws IOException if writing fails
+	 */
+	public void addTuple(final String... constantNames) throws IOException {
+		this.validateArity(constantNames.length);
+		for (final String constantName : constantNames) {
+			this.stream.writeInt(this.getNameId(TermToVLogConverter.getVLogNameForConstantName(constantName)));
+		}
+		this.tupleCount++;
+	}
+
+	/**
+	 * Adds a fact, given by its arguments, e.g., the terms of a query result. Named
+	 * nulls are stored as constants, as for other data sources.
+	 *
+	 * @param terms the constants and named nulls of the fact
+	 * @throws IOException if writing fails
+	 */
+	public void addTuple(final List<Term> terms) throws IOException {
+		this.validateArity(terms.size());
+		for (final Term term : terms) {
+			final String vLogName;
+			if (term.getType() == TermType.NAMED_NULL) {
+				vLogName = TermToVLogConverter.getVLogNameForNamedNull((NamedNull) term);
+			} else if (term.isConstant()) {
+				vLogName = TermToVLogConverter.getVLogNameForConstant((Constant) term);
+			} else {
+				throw new IllegalArgumentException("Only constants and named nulls can be written, but found " + term);
+			}
+			this.stream.writeInt(this.getNameId(vLogName));
+		}
+		this.tupleCount++;
+	}
+
+	/**
+	 * Returns the number of facts written so far.
+	 *
+	 * @return number of facts
+	 */
+	public int getSize() {
+		return this.tupleCount;
+	}
+
+	/**
+	 * Writes the dictionary and the header, and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			int end = 0;
+			final List<byte[]> nameBytes = new ArrayList<>(this.names.size());
+			for (final String name : this.names) {
+				final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+				if (end + bytes.length < 0) {
+					throw new IOException("Dictionary of binary fact file exceeds 2GB.");
+				}
+				end += bytes.length;
+				this.stream.writeInt(end);
+				nameBytes.add(bytes);
+			}
+			for (final byte[] bytes : nameBytes) {
+				this.stream.write(bytes);
+			}
+			this.stream.flush();
+
+			final ByteBuffer header = ByteBuffer.allocate(BinaryFactFileDataSource.HEADER_SIZE);
+			header.putInt(BinaryFactFileDataSource.MAGIC).putInt(BinaryFactFileDataSource.VERSION).putInt(this.arity)
+					.putInt(this.tupleCount).putInt(this.names.size()).flip();
+			while (header.hasRemaining()) {
+				this.fileStream.getChannel().write(header, header.position());
+			}
+		} finally {
+			this.stream.close();
+		}
+	}
+
+	private int getNameId(final String vLogName) {
+		final Integer id = this.nameIds.get(vLogName);
+		if (id != null) {
+			return id;
+		}
+		final int newId = this.names.size();
+		this.names.add(vLogName);
+		this.nameIds.put(vLogName, newId);
+		return newId;
+	}
+
+	private void validateArity(final int tupleLength) {
+		if (tupleLength != this.arity) {
+			throw new IllegalArgumentException("This file holds tuples of arity " + this.arity
+					+ ". Adding a tuple of size " + tupleLength + " is not possible.");
+		}
+	}
+
+}
@@ -0,0 +1,397 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase.AdditionalInputParser;
+import org.semanticweb.rulewerk.core.reasoner.OutputFiles;
+
+/**
+ * A compact binary format for knowledge bases and inferred facts, which can be
+ * loaded much faster than Rulewerk syntax, since facts do not need to be
+ * parsed.
+ *
+ * A snapshot consists of a header, a text block with base, prefix, and data
+ * source declarations and rules in Rulewerk syntax, and a sequence of fact
+ * blocks. Each fact block contains the dictionary entries (constants and named
+ * nulls) that are used for the first time in the block, followed by the
+ * predicate and the tuples of the block, stored column by column as
+ * delta-encoded variable-length integer ids.
+ *
+ * When a snapshot is read, the facts of each predicate are added to the
+ * knowledge base as a {@link ColumnarInMemoryDataSource}, which the reasoner
+ * can load directly. Facts of in-memory data sources are stored in the fact
+ * blocks as well, while all other data sources (including
+ * {@link BinaryFactFileDataSource}) are kept as declarations. Like facts that
+ * are loaded from files, named nulls in snapshots are treated as constants by
+ * the reasoner.
+ */
+public final class BinarySnapshot {
+
+	static final byte[] MAGIC = { 'R', 'W', 'S', 'N' };
+	static final int VERSION = 1;
+
+	static final int END_MARKER = 0;
+	static final int BLOCK_MARKER = 1;
+
+	static final int ABSTRACT_CONSTANT = 0;
+	static final int DATATYPE_CONSTANT = 1;
+	static final int LANGSTRING_CONSTANT = 2;
+	static final int NAMED_NULL = 3;
+
+	private BinarySnapshot() {
+	}
+
+	/**
+	 * Writes a snapshot of the given knowledge base to a stream. The stream is
+	 * flushed, but not closed.
+	 *
+	 * @param knowledgeBase the knowledge base to write
+	 * @param stream        the stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final KnowledgeBase knowledgeBase, final OutputStream stream) throws IOException {
+		final StringWriter declarations = new StringWriter();
+		Serializer.writeBaseAndPrefixDeclarations(declarations, knowledgeBase);
+		final List<DataSourceDeclaration> inMemoryDataSources = new ArrayList<>();
+		for (final DataSourceDeclaration dataSourceDeclaration : knowledgeBase.getDataSourceDeclarations()) {
+			final DataSource dataSource = dataSourceDeclaration.getDataSource();
+			if (dataSource instanceof InMemoryDataSource) {
+				inMemoryDataSources.add(dataSourceDeclaration);
+			} else {
+				declarations.write(Serializer.getString(dataSourceDeclaration));
+				declarations.write('\n');
+			}
+		}
+		for (final Rule rule : knowledgeBase.getRules()) {
+			declarations.write(Serializer.getString(rule));
+			declarations.write('\n');
+		}
+
+		final BinarySnapshotWriter writer = new BinarySnapshotWriter(stream, declarations.toString());
+		for (final Predicate predicate : knowledgeBase.getFactPredicates()) {
+			for (final PositiveLiteral fact : knowledgeBase.getFacts(predicate)) {
+				writer.addTuple(predicate, fact.getArguments());
+			}
+		}
+		for (final DataSourceDeclaration dataSourceDeclaration : inMemoryDataSources) {
+			final Predicate predicate = dataSourceDeclaration.getPredicate();
+			for (final String[] tuple : ((InMemoryDataSource) dataSourceDeclaration.getDataSource()).getData()) {
+				final List<Term> terms = new ArrayList<>(tuple.length);
+				for (final String vLogName : tuple) {
+					terms.add(VLogToModelConverter.toTerm(
+							new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, vLogName)));
+				}
+				writer.addTuple(predicate, terms);
+			}
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Writes a snapshot of the given knowledge base to a file. If the file name
+	 * ends with {@code .gz}, the file is compressed with gzip.
+	 *
+	 * @param knowledgeBase the knowledge base to write
+	 * @param filePath      path of the file to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final KnowledgeBase knowledgeBase, final String filePath) throws IOException {
+		try (OutputStream stream = OutputFiles.open(filePath, OutputFiles.DEFAULT_BUFFER_SIZE)) {
+			write(knowledgeBase, stream);
+		}
+	}
+
+	/**
+	 * Reads a snapshot from a stream into the given knowledge base. The facts of
+	 * each predicate are added as a single {@link ColumnarInMemoryDataSource}. The
+	 * declarations and rules of the snapshot are parsed with the given parser,
+	 * which should support Rulewerk syntax, e.g., {@code RuleParser::parseInto}.
+	 * The stream is not closed.
+	 *
+	 * @param stream        the stream to read from, which should be buffered
+	 * @param knowledgeBase the knowledge base to add statements to
+	 * @param parser        a parser for Rulewerk syntax
+	 * @throws IOException       if reading fails, or if the stream does not
+	 *                           contain a valid snapshot
+	 * @throws RulewerkException if parsing the declarations fails
+	 */
+	public static void read(final InputStream stream, final KnowledgeBase knowledgeBase,
+			final AdditionalInputParser parser) throws IOException, RulewerkException {
+		Validate.notNull(knowledgeBase, "Knowledge base cannot be null!");
+		Validate.notNull(parser, "Parser cannot be null!");
+		final Reader reader = new Reader(stream);
+		reader.readHeader();
+		final byte[] declarations = reader.readBytes();
+		if (declarations.length > 0) {
+			parser.parseInto(new ByteArrayInputStream(declarations), knowledgeBase);
+		}
+
+		final Map<Predicate, ColumnarInMemoryDataSource> dataSources = reader.readBlocks();
+		final List<DataSourceDeclaration> dataSourceDeclarations = new ArrayList<>(dataSources.size());
+		for (final Map.Entry<Predicate, ColumnarInMemoryDataSource> entry : dataSources.entrySet()) {
+			dataSourceDeclarations.add(new DataSourceDeclarationImpl(entry.getKey(), entry.getValue()));
+		}
+		knowledgeBase.addStatements(dataSourceDeclarations);
+	}
+
+	/**
+	 * Reads a snapshot from a file into the given knowledge base, as in
+	 * {@link #read(InputStream, KnowledgeBase, AdditionalInputParser)}. If the
+	 * file name ends with {@code .gz}, the file is decompressed with gzip.
+	 *
+	 * @param filePath      path of the file to read from
+	 * @param knowledgeBase the knowledge base to add statements to
+	 * @param parser        a parser for Rulewerk syntax
+	 * @throws IOException       if reading fails, or if the file does not contain
+	 *                           a valid snapshot
+	 * @throws RulewerkException if parsing the declarations fails
+	 */
+	public static void read(final String filePath, final KnowledgeBase knowledgeBase,
+			final AdditionalInputParser parser) throws IOException, RulewerkException {
+		try (InputStream fileStream = new FileInputStream(filePath)) {
+			final InputStream stream = filePath.endsWith(OutputFiles.GZIP_EXTENSION)
+					? new GZIPInputStream(fileStream, OutputFiles.DEFAULT_BUFFER_SIZE)
+					: fileStream;
+			read(new BufferedInputStream(stream, OutputFiles.DEFAULT_BUFFER_SIZE), knowledgeBase, parser);
+		}
+	}
+
+	/**
+	 * Reads the fact blocks of a snapshot, keeping the constant names of all
+	 * dictionary entries read so far.
+	 */
+	private static class Reader {
+
+		private final InputStream stream;
+
+		private String[] constantNames = new String[16];
+		private int termCount = 0;
+
+		/**
+		 * Name ids of terms in the data source of the current block, indexed by the
+		 * ids of the snapshot. An entry is only valid if the corresponding entry of
+		 * {@link #nameIdOwners} is the number of the current data source, so that
+		 * both arrays are shared by all predicates.
+		 */
+		private int[] nameIds = new int[16];
+		private int[] nameIdOwners = new int[16];
+
+		Reader(final InputStream stream) {
+			this.stream = stream;
+		}
+
+		void readHeader() throws IOException {
+			final byte[] magic = new byte[MAGIC.length];
+			this.readFully(magic);
+			if (!Arrays.equals(MAGIC, magic)) {
+				throw new IOException("Input is not a Rulewerk snapshot.");
+			}
+			final int version = this.readVarInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported snapshot version " + version + ".");
+			}
+		}
+
+		Map<Predicate, ColumnarInMemoryDataSource> readBlocks() throws IOException {
+			final Map<Predicate, ColumnarInMemoryDataSource> dataSources = new LinkedHashMap<>();
+			final Map<Predicate, Integer> dataSourceNumbers = new LinkedHashMap<>();
+			int marker;
+			while ((marker = this.readByte()) == BLOCK_MARKER) {
+				this.readTerms();
+				final String predicateName = this.readString();
+				final int arity = this.readVarInt();
+				final int size = this.readVarInt();
+				if (arity < 0 || size < 0) {
+					throw new IOException("Invalid block header in snapshot.");
+				}
+				final Predicate predicate = Expressions.makePredicate(predicateName, arity);
+				ColumnarInMemoryDataSource dataSource = dataSources.get(predicate);
+				if (dataSource == null) {
+					dataSource = new ColumnarInMemoryDataSource(arity, size);
+					dataSources.put(predicate, dataSource);
+					// numbers start at 1, since owners are initially 0
+					dataSourceNumbers.put(predicate, dataSourceNumbers.size() + 1);
+				}
+				final int dataSourceNumber = dataSourceNumbers.get(predicate);
+
+				final int[][] columns = new int[arity][size];
+				for (final int[] column : columns) {
+					int previous = 0;
+					for (int t = 0; t < size; t++) {
+						final int zigzag = this.readVarInt();
+						final int id = previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+						if (id < 0 || id >= this.termCount) {
+							throw new IOException("Invalid term id " + id + " in snapshot.");
+						}
+						if (this.nameIdOwners[id] != dataSourceNumber) {
+							this.nameIds[id] = dataSource.getNameId(this.constantNames[id]);
+							this.nameIdOwners[id] = dataSourceNumber;
+						}
+						column[t] = this.nameIds[id];
+						previous = id;
+					}
+				}
+				final int[] tuple = new int[arity];
+				for (int t = 0; t < size; t++) {
+					for (int i = 0; i < arity; i++) {
+						tuple[i] = columns[i][t];
+					}
+					dataSource.addTupleIds(tuple);
+				}
+			}
+			if (marker != END_MARKER) {
+				throw new IOException("Invalid block marker " + marker + " in snapshot.");
+			}
+			return dataSources;
+		}
+
+		/**
+		 * Reads dictionary entries, and stores the names under which their terms
+		 * are passed to the reasoner as constant names.
+		 */
+		private void readTerms() throws IOException {
+			final int count = this.readVarInt();
+			if (count < 0) {
+				throw new IOException("Invalid number of terms " + count + " in snapshot.");
+			}
+			for (int i = 0; i < count; i++) {
+				if (this.termCount == this.constantNames.length) {
+					final int length = this.constantNames.length * 2;
+					this.constantNames = Arrays.copyOf(this.constantNames, length);
+					this.nameIds = Arrays.copyOf(this.nameIds, length);
+					this.nameIdOwners = Arrays.copyOf(this.nameIdOwners, length);
+				}
+				final int type = this.readByte();
+				final String constantName;
+				switch (type) {
+				case ABSTRACT_CONSTANT:
+					constantName = this.readString();
+					break;
+				case DATATYPE_CONSTANT:
+					constantName = Expressions.makeDatatypeConstant(this.readString(), this.readString()).getName();
+					break;
+				case LANGSTRING_CONSTANT:
+					constantName = Expressions.makeLanguageStringConstant(this.readString(), this.readString())
+							.getName();
+					break;
+				case NAMED_NULL:
+					final NamedNull namedNull = new NamedNullImpl(this.readString());
+					constantName = TermToVLogConverter.getVLogNameForNamedNull(namedNull);
+					break;
+				default:
+					throw new IOException("Invalid term type " + type + " in snapshot.");
+				}
+				this.constantNames[this.termCount++] = constantName;
+			}
+		}
+
+		/**
+		 * Reads a byte array with a preceding length. The array only grows while
+		 * bytes are actually read, so that an invalid length leads to an
+		 * {@link IOException} rather than a huge allocation.
+		 */
+		byte[] readBytes() throws IOException {
+			final int length = this.readVarInt();
+			if (length < 0) {
+				throw new IOException("Invalid length " + length + " in snapshot.");
+			}
+			byte[] bytes = new byte[Math.min(length, OutputFiles.DEFAULT_BUFFER_SIZE)];
+			int offset = 0;
+			while (offset < length) {
+				if (offset == bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+				}
+				final int read = this.stream.read(bytes, offset, bytes.length - offset);
+				if (read < 0) {
+					throw new EOFException("Unexpected end of snapshot.");
+				}
+				offset += read;
+			}
+			return bytes;
+		}
+
+		private String readString() throws IOException {
+			return new String(this.readBytes(), StandardCharsets.UTF_8);
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				final int b = this.readByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed variable-length integer in snapshot.");
+		}
+
+		private int readByte() throws IOException {
+			final int b = this.stream.read();
+			if (b < 0) {
+				throw new EOFException("Unexpected end of snapshot.");
+			}
+			return b;
+		}
+
+		private void readFully(final byte[] bytes) throws IOException {
+			int offset = 0;
+			while (offset < bytes.length) {
+				final int read = this.stream.read(bytes, offset, bytes.length - offset);
+				if (read < 0) {
+					throw new EOFException("Unexpected end of snapshot.");
+				}
+				offset += read;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,189 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.TermDictionary;
+
+/**
+ * Writes facts in the binary snapshot format described in
+ * {@link BinarySnapshot}. Facts are buffered per predicate, as columns of term
+ * ids, and written as a block whenever the predicate changes or the block is
+ * full. Each block starts with the dictionary entries of the terms that it
+ * introduces, so that the whole snapshot can be written and read in a single
+ * pass.
+ *
+ * This class is not thread-safe.
+ */
+final class BinarySnapshotWriter {
+
+	/**
+	 * Maximal number of tuples in one block.
+	 */
+	static final int BLOCK_SIZE = 1 << 16;
+
+	private final OutputStream stream;
+	private final TermDictionary dictionary = new TermDictionary();
+	private int writtenTermCount = 0;
+
+	private Predicate predicate;
+	private int[][] columns;
+	private int size;
+
+	private final byte[] buffer = new byte[10];
+
+	/**
+	 * Creates a writer and writes the snapshot header, followed by the given
+	 * declarations.
+	 *
+	 * @param stream       the stream to write to, which should be buffered
+	 * @param declarations base, prefix, and data source declarations and rules in
+	 *                     Rulewerk syntax
+	 * @throws IOException if writing fails
+	 */
+	BinarySnapshotWriter(final OutputStream stream, final String declarations) throws IOException {
+		this.stream = stream;
+		this.stream.write(BinarySnapshot.MAGIC);
+		this.writeVarInt(BinarySnapshot.VERSION);
+		this.writeString(declarations);
+	}
+
+	/**
+	 * Adds a fact. Facts of the same predicate should be added consecutively to
+	 * avoid writing many small blocks.
+	 *
+	 * @param predicate the predicate of the fact
+	 * @param terms     the constants and named nulls of the fact
+	 * @throws IOException if writing fails
+	 */
+	void addTuple(final Predicate predicate, final List<Term> terms) throws IOException {
+		if (!predicate.equals(this.predicate)) {
+			this.writeBlock();
+			this.predicate = predicate;
+			this.columns = new int[predicate.getArity()][16];
+		} else if (this.size == BLOCK_SIZE) {
+			this.writeBlock();
+		}
+		if (this.size == this.columns[0].length) {
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = Arrays.copyOf(this.columns[i], this.size * 2);
+			}
+		}
+		for (int i = 0; i < this.columns.length; i++) {
+			this.columns[i][this.size] = (int) this.dictionary.getId(terms.get(i));
+		}
+		this.size++;
+	}
+
+	/**
+	 * Writes all buffered facts and the end marker, and flushes the stream. The
+	 * stream is not closed.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	void finish() throws IOException {
+		this.writeBlock();
+		this.stream.write(BinarySnapshot.END_MARKER);
+		this.stream.flush();
+	}
+
+	private void writeBlock() throws IOException {
+		if (this.size == 0) {
+			return;
+		}
+		this.stream.write(BinarySnapshot.BLOCK_MARKER);
+
+		this.writeVarInt(this.dictionary.size() - this.writtenTermCount);
+		for (int id = this.writtenTermCount; id < this.dictionary.size(); id++) {
+			this.writeTerm(this.dictionary.getTerm(id));
+		}
+		this.writtenTermCount = this.dictionary.size();
+
+		this.writeString(this.predicate.getName());
+		this.writeVarInt(this.predicate.getArity());
+		this.writeVarInt(this.size);
+		for (final int[] column : this.columns) {
+			int previous = 0;
+			for (int t = 0; t < this.size; t++) {
+				final int delta = column[t] - previous;
+				this.writeVarInt((delta << 1) ^ (delta >> 31));
+				previous = column[t];
+			}
+		}
+		this.size = 0;
+	}
+
+	private void writeTerm(final Term term) throws IOException {
+		switch (term.getType()) {
+		case ABSTRACT_CONSTANT:
+			this.stream.write(BinarySnapshot.ABSTRACT_CONSTANT);
+			this.writeString(((AbstractConstant) term).getName());
+			break;
+		case DATATYPE_CONSTANT:
+			this.stream.write(BinarySnapshot.DATATYPE_CONSTANT);
+			this.writeString(((DatatypeConstant) term).getLexicalValue());
+			this.writeString(((DatatypeConstant) term).getDatatype());
+			break;
+		case LANGSTRING_CONSTANT:
+			this.stream.write(BinarySnapshot.LANGSTRING_CONSTANT);
+			this.writeString(((LanguageStringConstant) term).getString());
+			this.writeString(((LanguageStringConstant) term).getLanguageTag());
+			break;
+		case NAMED_NULL:
+			this.stream.write(BinarySnapshot.NAMED_NULL);
+			this.writeString(term.getName());
+			break;
+		default:
+			throw new IllegalArgumentException("Only constants and named nulls can be written, but found " + term);
+		}
+	}
+
+	private void writeString(final String string) throws IOException {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		this.writeVarInt(bytes.length);
+		this.stream.write(bytes);
+	}
+
+	/**
+	 * Writes a non-negative (or zigzag-encoded) int in 7-bit groups, least
+	 * significant group first.
+	 */
+	private void writeVarInt(int value) throws IOException {
+		int length = 0;
+		while ((value & ~0x7F) != 0) {
+			this.buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[length++] = (byte) value;
+		this.stream.write(this.buffer, 0, length);
+	}
+
+}
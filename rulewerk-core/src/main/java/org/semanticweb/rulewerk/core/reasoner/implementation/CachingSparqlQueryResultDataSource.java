@@ -0,0 +1,264 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link DataSource} for the results of a {@link SparqlQueryResultDataSource}
+ * that are stored in a {@link SparqlResultCache}. The query is sent to the endpoint
+ * only if there is no valid result in the cache. Otherwise, and whenever the
+ * knowledge base is loaded again, the results are read from the local copy.
+ *
+ * Results are requested from the endpoint in the SPARQL tab-separated values
+ * format. Rows in which some query variable is unbound are ignored, since they
+ * do not correspond to facts.
+ */
+public class CachingSparqlQueryResultDataSource implements JavaTupleSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CachingSparqlQueryResultDataSource.class);
+
+	static final String TSV_MEDIA_TYPE = "text/tab-separated-values";
+
+	private final SparqlQueryResultDataSource dataSource;
+	private final SparqlResultCache cache;
+	private final int arity;
+
+	/**
+	 * Creates a data source for the results of the given SPARQL data source.
+	 *
+	 * @param dataSource the SPARQL query whose results are provided
+	 * @param cache      the cache in which results are stored
+	 */
+	public CachingSparqlQueryResultDataSource(final SparqlQueryResultDataSource dataSource,
+			final SparqlResultCache cache) {
+		Validate.notNull(dataSource, "Data source cannot be null.");
+		Validate.notNull(cache, "Cache cannot be null.");
+		this.dataSource = dataSource;
+		this.cache = cache;
+		this.arity = dataSource.getRequiredArity().get();
+	}
+
+	public SparqlQueryResultDataSource getDataSource() {
+		return this.dataSource;
+	}
+
+	public SparqlResultCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	public int getArity() {
+		return this.arity;
+	}
+
+	/**
+	 * Returns the query results, fetching and storing them in the cache if
+	 * necessary. Only sources with the same query wait for each other, so that a
+	 * slow endpoint does not hold up the other sources that use the cache. The
+	 * lock of the query is held until the results have been read, so that the
+	 * cache does not delete them in the meantime.
+	 *
+	 * @throws UncheckedIOException if the results cannot be fetched or read
+	 */
+	@Override
+	public String[][] getData() {
+		final ReentrantLock lock = this.cache.getLock(this.dataSource);
+		lock.lock();
+		try {
+			File file = this.cache.getFile(this.dataSource);
+			if (file == null) {
+				file = this.fetch();
+			} else {
+				LOGGER.debug("Using cached results {} for {}.", file, this.dataSource);
+			}
+			return new BinaryFactFileDataSource(file.getPath()).getData();
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not obtain results of " + this.dataSource + ".", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private File fetch() throws IOException {
+		LOGGER.info("Querying SPARQL endpoint {} ...", this.dataSource.getEndpoint());
+		final File temporaryFile = this.cache.createTemporaryFile();
+		try {
+			try (BinaryFactFileWriter writer = new BinaryFactFileWriter(temporaryFile.getPath(), this.arity)) {
+				fetch(this.dataSource, writer);
+				LOGGER.info("Fetched {} results from SPARQL endpoint {}.", writer.getSize(),
+						this.dataSource.getEndpoint());
+			}
+			return this.cache.put(this.dataSource, temporaryFile);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+
+	/**
+	 * Sends the query of the given data source to its endpoint, and writes the
+	 * results to the given writer.
+	 */
+	static void fetch(final SparqlQueryResultDataSource dataSource, final BinaryFactFileWriter writer)
+			throws IOException {
+		final URLConnection connection = getQueryUrl(dataSource).openConnection();
+		connection.setRequestProperty("Accept", TSV_MEDIA_TYPE);
+		try {
+			if (connection instanceof HttpURLConnection) {
+				final int responseCode = ((HttpURLConnection) connection).getResponseCode();
+				if (responseCode != HttpURLConnection.HTTP_OK) {
+					throw new IOException("SPARQL endpoint " + dataSource.getEndpoint() + " responded with HTTP status "
+							+ responseCode + ".");
+				}
+			}
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+				final int arity = dataSource.getRequiredArity().get();
+				if (reader.readLine() == null) {
+					throw new IOException(
+							"SPARQL endpoint " + dataSource.getEndpoint() + " returned no results header.");
+				}
+				final String[] constantNames = new String[arity];
+				String line;
+				rows: while ((line = reader.readLine()) != null) {
+					if (line.isEmpty()) {
+						continue;
+					}
+					final String[] fields = line.split("\t", -1);
+					if (fields.length != arity) {
+						throw new IOException("Expected " + arity + " values per SPARQL result, but found " + line);
+					}
+					for (int i = 0; i < arity; i++) {
+						if (fields[i].isEmpty()) {
+							continue rows;
+						}
+						constantNames[i] = toConstantName(fields[i]);
+					}
+					writer.addTuple(constantNames);
+				}
+			}
+		} finally {
+			if (connection instanceof HttpURLConnection) {
+				((HttpURLConnection) connection).disconnect();
+			}
+		}
+	}
+
+	static URL getQueryUrl(final SparqlQueryResultDataSource dataSource) throws IOException {
+		final StringBuilder query = new StringBuilder("SELECT");
+		for (final String variable : dataSource.getQueryVariables().split(",")) {
+			query.append(" ?").append(variable);
+		}
+		query.append(" WHERE {").append(dataSource.getQueryBody()).append("}");
+
+		final String endpoint = dataSource.getEndpoint().toString();
+		return new URL(endpoint + (dataSource.getEndpoint().getQuery() == null ? "?" : "&") + "query="
+				+ URLEncoder.encode(query.toString(), StandardCharsets.UTF_8.name()));
+	}
+
+	/**
+	 * Converts an RDF term in SPARQL TSV syntax to the constant name that is used
+	 * in {@link InMemoryDataSource#addTuple(String...)}. Literals without datatype
+	 * and language tag, as well as numbers and booleans in abbreviated syntax,
+	 * are given their explicit datatype.
+	 */
+	static String toConstantName(final String tsvTerm) {
+		if (tsvTerm.charAt(0) == '<' && tsvTerm.charAt(tsvTerm.length() - 1) == '>') {
+			return tsvTerm.substring(1, tsvTerm.length() - 1);
+		} else if (tsvTerm.charAt(0) == '"') {
+			if (tsvTerm.length() > 1 && tsvTerm.charAt(tsvTerm.length() - 1) == '"') {
+				return tsvTerm + "^^<" + PrefixDeclarationRegistry.XSD_STRING + ">";
+			}
+			return tsvTerm;
+		} else if (tsvTerm.equals("true") || tsvTerm.equals("false")) {
+			return toTypedLiteral(tsvTerm, PrefixDeclarationRegistry.XSD_BOOLEAN);
+		} else if (tsvTerm.matches("[+-]?[0-9]+")) {
+			return toTypedLiteral(tsvTerm, PrefixDeclarationRegistry.XSD_INTEGER);
+		} else if (tsvTerm.matches("[+-]?[0-9]*\\.[0-9]+")) {
+			return toTypedLiteral(tsvTerm, PrefixDeclarationRegistry.XSD_DECIMAL);
+		} else if (tsvTerm.matches("[+-]?([0-9]+\\.?[0-9]*|\\.[0-9]+)[eE][+-]?[0-9]+")) {
+			return toTypedLiteral(tsvTerm, PrefixDeclarationRegistry.XSD_DOUBLE);
+		} else { // blank nodes
+			return tsvTerm;
+		}
+	}
+
+	private static String toTypedLiteral(final String lexicalValue, final String datatype) {
+		return "\"" + lexicalValue + "\"^^<" + datatype + ">";
+	}
+
+	@Override
+	public Optional<Integer> getRequiredArity() {
+		return this.dataSource.getRequiredArity();
+	}
+
+	/**
+	 * Returns the representation of the underlying SPARQL data source, since the
+	 * cache is a setting of the application rather than of the knowledge base.
+	 */
+	@Override
+	public String getSyntacticRepresentation() {
+		return this.dataSource.getSyntacticRepresentation();
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * this.dataSource.hashCode() + this.cache.getDirectory().hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		final CachingSparqlQueryResultDataSource other = (CachingSparqlQueryResultDataSource) obj;
+		return this.dataSource.equals(other.dataSource)
+				&& this.cache.getDirectory().equals(other.cache.getDirectory());
+	}
+
+	@Override
+	public String toString() {
+		return "CachingSparqlQueryResultDataSource [dataSource=" + this.dataSource + ", cache="
+				+ this.cache.getDirectory() + "]";
+	}
+
+}
@@ -0,0 +1,201 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An {@link InMemoryDataSource} that stores its tuples column by column, as
+ * arrays of integer ids of constant names. Each distinct constant name is
+ * stored (and converted to the format of the reasoner backend) only once, and
+ * appending a tuple does not allocate any objects unless the columns need to
+ * grow. This is much more compact than an array of string tuples when pushing
+ * large numbers of tuples from Java.
+ *
+ * Constant names can be encoded up front with {@link #getNameId(String)}, and
+ * the resulting ids can be added with {@link #addTupleIds(int...)}, which
+ * avoids any hashing of names when adding tuples.
+ *
+ * The reasoner backend expects string tuples, which are created anew on each
+ * call of {@link #getData()} and are not retained by this source, so that only
+ * the integer columns remain in memory once the data has been loaded. These
+ * tuples share the name strings of this source.
+ */
+public class ColumnarInMemoryDataSource extends InMemoryDataSource {
+
+	/**
+	 * One column of name ids per argument position.
+	 */
+	private int[][] columns;
+	private int size = 0;
+
+	private final Map<String, Integer> nameIds = new HashMap<>();
+	private String[] names = new String[16];
+
+	/**
+	 * Create a new columnar in-memory data source for facts of the specified
+	 * arity. The given capacity is the initial number of tuples that can be stored
+	 * without growing the columns.
+	 *
+	 * @param arity           the number of parameters in a fact from this source
+	 * @param initialCapacity the planned number of facts
+	 */
+	public ColumnarInMemoryDataSource(final int arity, final int initialCapacity) {
+		super(arity, 0);
+		Validate.isTrue(arity > 0, "Arity must be greater than zero: %d", arity);
+		Validate.isTrue(initialCapacity >= 0, "Capacity must not be negative: %d", initialCapacity);
+		this.columns = new int[arity][initialCapacity];
+	}
+
+	/**
+	 * Returns the id of the given constant name in this data source, adding the
+	 * name if necessary.
+	 *
+	 * @param constantName the string name of a constant
+	 * @return the id of the name
+	 */
+	public int getNameId(final String constantName) {
+		final Integer id = this.nameIds.get(constantName);
+		if (id != null) {
+			return id;
+		}
+		final int newId = this.nameIds.size();
+		if (newId == this.names.length) {
+			this.names = Arrays.copyOf(this.names, newId * 2);
+		}
+		this.names[newId] = TermToVLogConverter.getVLogNameForConstantName(constantName);
+		this.nameIds.put(constantName, newId);
+		return newId;
+	}
+
+	/**
+	 * Returns the number of distinct constant names in this data source.
+	 *
+	 * @return number of names
+	 */
+	public int getNameCount() {
+		return this.nameIds.size();
+	}
+
+	@Override
+	public void addTuple(final String... constantNames) {
+		this.validateArity(constantNames.length);
+		this.ensureCapacity();
+		for (int i = 0; i < this.arity; i++) {
+			this.columns[i][this.size] = this.getNameId(constantNames[i]);
+		}
+		this.size++;
+	}
+
+	/**
+	 * Adds a fact to this data source, given by the ids of its constant names.
+	 *
+	 * @param nameIds ids obtained from {@link #getNameId(String)}
+	 */
+	public void addTupleIds(final int... nameIds) {
+		this.validateArity(nameIds.length);
+		this.ensureCapacity();
+		final int nameCount = this.getNameCount();
+		for (int i = 0; i < this.arity; i++) {
+			if (nameIds[i] < 0 || nameIds[i] >= nameCount) {
+				throw new IllegalArgumentException("Unknown name id " + nameIds[i] + ".");
+			}
+			this.columns[i][this.size] = nameIds[i];
+		}
+		this.size++;
+	}
+
+	/**
+	 * Returns the number of tuples in this data source.
+	 *
+	 * @return number of tuples
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the name id at the given position of the given tuple.
+	 *
+	 * @param tupleIndex index of the tuple, smaller than {@link #getSize()}
+	 * @param position   argument position, smaller than the arity
+	 * @return name id
+	 */
+	public int getNameId(final int tupleIndex, final int position) {
+		Validate.validIndex(this.columns, position);
+		Validate.isTrue(tupleIndex >= 0 && tupleIndex < this.size, "Invalid tuple index %d.", tupleIndex);
+		return this.columns[position][tupleIndex];
+	}
+
+	/**
+	 * Returns the name of the given id, in the format expected by the VLog
+	 * reasoner backend.
+	 *
+	 * @param nameId an id obtained from {@link #getNameId(String)}
+	 * @return VLog name
+	 */
+	public String getVLogName(final int nameId) {
+		Validate.isTrue(nameId >= 0 && nameId < this.getNameCount(), "Unknown name id %d.", nameId);
+		return this.names[nameId];
+	}
+
+	/**
+	 * Returns the data stored in this data source, in the format expected by the
+	 * VLog reasoner backend. The tuples are created on each call and are not
+	 * kept by this source, so callers should not hold on to the result longer
+	 * than needed.
+	 *
+	 * @return the data
+	 */
+	@Override
+	public String[][] getData() {
+		final String[][] result = new String[this.size][];
+		for (int t = 0; t < this.size; t++) {
+			final String[] tuple = new String[this.arity];
+			for (int i = 0; i < this.arity; i++) {
+				tuple[i] = this.names[this.columns[i][t]];
+			}
+			result[t] = tuple;
+		}
+		return result;
+	}
+
+	private void validateArity(final int tupleLength) {
+		if (tupleLength != this.arity) {
+			throw new IllegalArgumentException("This data source holds tuples of arity " + this.arity
+					+ ". Adding a tuple of size " + tupleLength + " is not possible.");
+		}
+	}
+
+	private void ensureCapacity() {
+		if (this.size == this.columns[0].length) {
+			final int newCapacity = Math.max(this.size * 2, 16);
+			for (int i = 0; i < this.arity; i++) {
+				this.columns[i] = Arrays.copyOf(this.columns[i], newCapacity);
+			}
+		}
+	}
+
+}
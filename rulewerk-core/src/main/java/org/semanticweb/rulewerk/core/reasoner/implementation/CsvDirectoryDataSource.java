@@ -0,0 +1,125 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+
+/**
+ * A {@code CsvDirectoryDataSource} stores facts in several CSV files of the
+ * same format as for {@link CsvFileDataSource}, e.g., in shards of a large
+ * relation. The files are given by a directory, in which case all files of the
+ * extension {@code .csv} or {@code .csv.gz} are used, or by a glob pattern for
+ * the names of files in a directory, such as {@code data/edges/*.csv.gz}. The
+ * facts of all files are loaded for a single predicate.
+ * <p>
+ * The files are parsed in Java (see {@link Reasoner#setCsvParsingThreads(Integer)}),
+ * where several files are read in parallel. If no number of threads has been
+ * set, one thread per available processor is used.
+ */
+public class CsvDirectoryDataSource implements DataSource {
+
+	private static final List<String> possibleExtensions = Arrays.asList(".csv", ".csv.gz");
+
+	private final String path;
+	private final File directory;
+	private final PathMatcher fileNameMatcher;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param path path to a directory, or a path whose last part is a glob pattern
+	 *             for file names
+	 * @throws IllegalArgumentException if the glob pattern is invalid
+	 */
+	public CsvDirectoryDataSource(final String path) {
+		Validate.notBlank(path, "Data source path cannot be blank!");
+		this.path = path;
+		final File file = new File(path);
+		if (file.isDirectory()) {
+			this.directory = file;
+			this.fileNameMatcher = fileName -> possibleExtensions.stream()
+					.anyMatch(extension -> fileName.toString().endsWith(extension));
+		} else {
+			final File parent = file.getParentFile();
+			this.directory = parent == null ? new File(".") : parent;
+			this.fileNameMatcher = FileSystems.getDefault().getPathMatcher("glob:" + file.getName());
+		}
+	}
+
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Returns the files of this data source, in the order of their names.
+	 *
+	 * @return list of files
+	 * @throws IOException if the directory cannot be read
+	 */
+	public List<File> getFiles() throws IOException {
+		final File[] files = this.directory.listFiles(
+				file -> file.isFile() && this.fileNameMatcher.matches(Paths.get(file.getName())));
+		if (files == null) {
+			throw new IOException("Could not read directory " + this.directory + ".");
+		}
+		Arrays.sort(files);
+		return new ArrayList<>(Arrays.asList(files));
+	}
+
+	@Override
+	public String getSyntacticRepresentation() {
+		return Serializer.getString(this);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.path.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CsvDirectoryDataSource)) {
+			return false;
+		}
+		return this.path.equals(((CsvDirectoryDataSource) obj).getPath());
+	}
+
+	@Override
+	public String toString() {
+		return "CsvDirectoryDataSource [path=" + this.path + "]";
+	}
+
+}
@@ -0,0 +1,401 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses CSV files in Java, as an alternative to letting the reasoner backend
+ * read them. Files are (decompressed and) read in chunks that end at line
+ * breaks, and the chunks are tokenised in parallel. Each line is split at
+ * commas, and the fields are used as constant names in the format of the
+ * reasoner backend, as they are when VLog reads CSV files. Empty lines are
+ * skipped, and quoting is not supported.
+ *
+ * The tokeniser works directly on the bytes of a chunk, and decodes each
+ * distinct field of a chunk only once. Equal names of all chunks are
+ * represented by the same string, so that the resulting tuples take little
+ * memory. Progress is logged at level INFO.
+ */
+final class CsvFileParser {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CsvFileParser.class);
+
+	static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+	/**
+	 * Number of bytes after which progress is logged.
+	 */
+	private static final long PROGRESS_INTERVAL = 1L << 28;
+
+	private final int threads;
+	private final int chunkSize;
+
+	private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+	private final AtomicLong parsedBytes = new AtomicLong();
+	private final AtomicLong parsedTuples = new AtomicLong();
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param threads   number of threads that read and tokenise files
+	 * @param chunkSize number of bytes that are read at once, which grows if a
+	 *                  line is longer
+	 */
+	CsvFileParser(final int threads, final int chunkSize) {
+		Validate.isTrue(threads > 0, "Only strictly positive numbers of threads allowed!", threads);
+		Validate.isTrue(chunkSize > 0, "Only strictly positive chunk sizes allowed!", chunkSize);
+		this.threads = threads;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Parses the given CSV files, which may be gzipped (if their names end with
+	 * {@code .gz}). Several files are read in parallel.
+	 *
+	 * @param files      the files to parse
+	 * @param predicate  the predicate that the tuples are loaded for, which
+	 *                   determines the arity
+	 * @param dataSource the data source of the files, for error messages
+	 * @return the tuples of all files, in the order of the files
+	 * @throws IOException                         if reading a file fails
+	 * @throws IncompatiblePredicateArityException if a line does not have as many
+	 *                                             fields as the predicate has
+	 *                                             arguments
+	 */
+	String[][] parse(final List<File> files, final Predicate predicate, final DataSource dataSource)
+			throws IOException {
+		final long startTime = System.nanoTime();
+		final ForkJoinPool pool = new ForkJoinPool(this.threads);
+		final List<String[][]> chunks = new ArrayList<>();
+		try {
+			final List<FileTask> fileTasks = new ArrayList<>();
+			for (final File file : files) {
+				fileTasks.add(new FileTask(file, predicate, dataSource));
+			}
+			for (final FileTask fileTask : fileTasks) {
+				pool.execute(fileTask);
+			}
+			for (final FileTask fileTask : fileTasks) {
+				for (final ChunkTask chunkTask : fileTask.join()) {
+					chunks.add(chunkTask.join());
+				}
+			}
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			pool.shutdownNow();
+		}
+
+		int size = 0;
+		for (final String[][] chunk : chunks) {
+			size += chunk.length;
+		}
+		final String[][] tuples = new String[size][];
+		int position = 0;
+		for (final String[][] chunk : chunks) {
+			System.arraycopy(chunk, 0, tuples, position, chunk.length);
+			position += chunk.length;
+		}
+
+		final long milliseconds = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+		LOGGER.info("Parsed {} tuples of {} ({} MiB in {} ms, {} MiB/s) from {} file(s) with {} distinct names.",
+				size, predicate, this.parsedBytes.get() >> 20, milliseconds,
+				(this.parsedBytes.get() >> 20) * 1000 / milliseconds, files.size(), this.names.size());
+		return tuples;
+	}
+
+	/**
+	 * Returns the number of (decompressed) bytes parsed so far.
+	 *
+	 * @return number of bytes
+	 */
+	long getParsedBytes() {
+		return this.parsedBytes.get();
+	}
+
+	/**
+	 * Returns the number of tuples parsed so far.
+	 *
+	 * @return number of tuples
+	 */
+	long getParsedTuples() {
+		return this.parsedTuples.get();
+	}
+
+	private void reportProgress(final int bytes, final int tuples) {
+		final long total = this.parsedBytes.addAndGet(bytes);
+		final long totalTuples = this.parsedTuples.addAndGet(tuples);
+		if (total / PROGRESS_INTERVAL != (total - bytes) / PROGRESS_INTERVAL) {
+			LOGGER.info("Parsed {} MiB of CSV input ({} tuples).", total >> 20, totalTuples);
+		}
+	}
+
+	/**
+	 * Reads a file in chunks, and forks a task for tokenising each chunk. The
+	 * number of chunks that are waiting to be tokenised is bounded, so that reading
+	 * does not run ahead too far.
+	 */
+	private class FileTask extends RecursiveTask<List<ChunkTask>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final File file;
+		private final Predicate predicate;
+		private final DataSource dataSource;
+
+		FileTask(final File file, final Predicate predicate, final DataSource dataSource) {
+			this.file = file;
+			this.predicate = predicate;
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		protected List<ChunkTask> compute() {
+			final List<ChunkTask> chunkTasks = new ArrayList<>();
+			int joined = 0;
+			try (InputStream fileStream = new FileInputStream(this.file)) {
+				final InputStream stream = this.file.getName().endsWith(".gz")
+						? new GZIPInputStream(fileStream, 1 << 16)
+						: fileStream;
+				byte[] buffer = new byte[CsvFileParser.this.chunkSize];
+				int length = 0;
+				while (true) {
+					final int read = readFully(stream, buffer, length);
+					length += read;
+					if (length < buffer.length) { // end of file
+						if (length > 0) {
+							chunkTasks.add(this.fork(buffer, length));
+						}
+						break;
+					}
+					int end = length - 1;
+					while (end >= 0 && buffer[end] != '\n') {
+						end--;
+					}
+					if (end < 0) { // line longer than buffer
+						buffer = Arrays.copyOf(buffer, buffer.length * 2);
+						continue;
+					}
+					final byte[] next = new byte[buffer.length];
+					System.arraycopy(buffer, end + 1, next, 0, length - end - 1);
+					chunkTasks.add(this.fork(buffer, end + 1));
+					buffer = next;
+					length = length - end - 1;
+
+					while (chunkTasks.size() - joined > 2 * CsvFileParser.this.threads) {
+						chunkTasks.get(joined++).join();
+					}
+				}
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return chunkTasks;
+		}
+
+		private ChunkTask fork(final byte[] bytes, final int length) {
+			final ChunkTask chunkTask = new ChunkTask(bytes, length, this.predicate, this.dataSource);
+			chunkTask.fork();
+			return chunkTask;
+		}
+	}
+
+	private static int readFully(final InputStream stream, final byte[] buffer, final int offset)
+			throws IOException {
+		int position = offset;
+		while (position < buffer.length) {
+			final int read = stream.read(buffer, position, buffer.length - position);
+			if (read < 0) {
+				break;
+			}
+			position += read;
+		}
+		return position - offset;
+	}
+
+	/**
+	 * Tokenises the lines of one chunk. A small hash table maps the byte
+	 * sequences of fields to names, so that each distinct field is decoded only
+	 * once.
+	 */
+	private class ChunkTask extends RecursiveTask<String[][]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private byte[] bytes;
+		private final int length;
+		private final Predicate predicate;
+		private final DataSource dataSource;
+
+		private String[] tableNames = new String[1024];
+		private int[] tableStarts = new int[1024];
+		private int[] tableLengths = new int[1024];
+		private int[] tableHashes = new int[1024];
+		private int tableSize = 0;
+
+		ChunkTask(final byte[] bytes, final int length, final Predicate predicate, final DataSource dataSource) {
+			this.bytes = bytes;
+			this.length = length;
+			this.predicate = predicate;
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		protected String[][] compute() {
+			final int arity = this.predicate.getArity();
+			final List<String[]> tuples = new ArrayList<>();
+			int position = 0;
+			while (position < this.length) {
+				int lineEnd = position;
+				while (lineEnd < this.length && this.bytes[lineEnd] != '\n') {
+					lineEnd++;
+				}
+				int end = lineEnd;
+				if (end > position && this.bytes[end - 1] == '\r') {
+					end--;
+				}
+				if (end > position) {
+					final String[] tuple = new String[arity];
+					int field = 0;
+					int start = position;
+					for (int i = position; i <= end; i++) {
+						if (i == end || this.bytes[i] == ',') {
+							if (field == arity) {
+								throw this.incompatibleArity(position, end);
+							}
+							tuple[field++] = this.getName(start, i);
+							start = i + 1;
+						}
+					}
+					if (field != arity) {
+						throw this.incompatibleArity(position, end);
+					}
+					tuples.add(tuple);
+				}
+				position = lineEnd + 1;
+			}
+			reportProgress(this.length, tuples.size());
+			this.bytes = null;
+			this.tableNames = null;
+			this.tableStarts = null;
+			this.tableLengths = null;
+			this.tableHashes = null;
+			return tuples.toArray(new String[tuples.size()][]);
+		}
+
+		private IncompatiblePredicateArityException incompatibleArity(final int start, final int end) {
+			int fields = 1;
+			for (int i = start; i < end; i++) {
+				if (this.bytes[i] == ',') {
+					fields++;
+				}
+			}
+			return new IncompatiblePredicateArityException(this.predicate, fields, this.dataSource);
+		}
+
+		private String getName(final int start, final int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + this.bytes[i];
+			}
+			int slot = this.findSlot(hash);
+			while (this.tableNames[slot] != null) {
+				if (this.tableHashes[slot] == hash && this.matches(slot, start, end)) {
+					return this.tableNames[slot];
+				}
+				slot = (slot + 1) & (this.tableNames.length - 1);
+			}
+
+			final String newName = new String(this.bytes, start, end - start, StandardCharsets.UTF_8);
+			final String sharedName = CsvFileParser.this.names.putIfAbsent(newName, newName);
+			final String name = sharedName == null ? newName : sharedName;
+			this.tableNames[slot] = name;
+			this.tableStarts[slot] = start;
+			this.tableLengths[slot] = end - start;
+			this.tableHashes[slot] = hash;
+			if (++this.tableSize * 2 > this.tableNames.length) {
+				this.growTable();
+			}
+			return name;
+		}
+
+		private int findSlot(final int hash) {
+			return (hash ^ (hash >>> 16)) & (this.tableNames.length - 1);
+		}
+
+		private boolean matches(final int slot, final int start, final int end) {
+			if (this.tableLengths[slot] != end - start) {
+				return false;
+			}
+			final int otherStart = this.tableStarts[slot];
+			for (int i = 0; i < end - start; i++) {
+				if (this.bytes[otherStart + i] != this.bytes[start + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void growTable() {
+			final String[] oldNames = this.tableNames;
+			final int[] oldStarts = this.tableStarts;
+			final int[] oldLengths = this.tableLengths;
+			final int[] oldHashes = this.tableHashes;
+			this.tableNames = new String[oldNames.length * 2];
+			this.tableStarts = new int[oldNames.length * 2];
+			this.tableLengths = new int[oldNames.length * 2];
+			this.tableHashes = new int[oldNames.length * 2];
+			for (int i = 0; i < oldNames.length; i++) {
+				if (oldNames[i] != null) {
+					int slot = this.findSlot(oldHashes[i]);
+					while (this.tableNames[slot] != null) {
+						slot = (slot + 1) & (this.tableNames.length - 1);
+					}
+					this.tableNames[slot] = oldNames[i];
+					this.tableStarts[slot] = oldStarts[i];
+					this.tableLengths[slot] = oldLengths[i];
+					this.tableHashes[slot] = oldHashes[i];
+				}
+			}
+		}
+	}
+
+}
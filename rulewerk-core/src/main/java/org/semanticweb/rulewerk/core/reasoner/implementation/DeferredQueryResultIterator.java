@@ -0,0 +1,77 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+/**
+ * Iterator over query answers that only evaluates its query when it is first
+ * used, so that no resources of the reasoner are held for iterators that have
+ * not been used yet.
+ */
+class DeferredQueryResultIterator implements QueryResultIterator {
+
+	private final Supplier<QueryResultIterator> query;
+	private QueryResultIterator results;
+	private boolean closed = false;
+
+	DeferredQueryResultIterator(final Supplier<QueryResultIterator> query) {
+		this.query = query;
+	}
+
+	private QueryResultIterator getResults() {
+		if (this.results == null) {
+			if (this.closed) {
+				throw new IllegalStateException("Query result iterator has been closed.");
+			}
+			this.results = this.query.get();
+		}
+		return this.results;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.getResults().hasNext();
+	}
+
+	@Override
+	public QueryResult next() {
+		return this.getResults().next();
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.getResults().getCorrectness();
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		if (this.results != null) {
+			this.results.close();
+		}
+	}
+
+}
@@ -35,7 +35,7 @@ import org.semanticweb.rulewerk.core.model.api.Fact;
  * @author Markus Kroetzsch
  *
  */
-public class InMemoryDataSource implements DataSource {
+public class InMemoryDataSource implements JavaTupleSource {
 
 	String[][] data;
 	int nextEmptyTuple = 0;
@@ -54,7 +54,7 @@ public class InMemoryDataSource implements DataSource {
 	public InMemoryDataSource(final int arity, final int initialCapacity) {
 		this.capacity = initialCapacity;
 		this.arity = arity;
-		this.data = new String[initialCapacity][arity];
+		this.data = new String[initialCapacity][];
 	}
 
 	/**
@@ -69,7 +69,7 @@ public class InMemoryDataSource implements DataSource {
 					+ ". Adding a tuple of size " + constantNames.length + " is not possible.");
 		}
 		if (this.nextEmptyTuple == this.capacity) {
-			this.capacity = this.capacity * 2;
+			this.capacity = Math.max(this.capacity * 2, 16);
 			this.data = Arrays.copyOf(this.data, this.capacity);
 		}
 		this.data[this.nextEmptyTuple] = new String[this.arity];
@@ -81,25 +81,38 @@ public class InMemoryDataSource implements DataSource {
 
 	/**
 	 * Returns the data stored in this data source, in the format expected by the
-	 * VLog reasoner backend.
+	 * VLog reasoner backend. The internal array is trimmed to the number of
+	 * tuples when this method is first called, so that repeated calls do not copy
+	 * the data. The returned array must not be modified.
 	 *
 	 * @return the data
 	 */
+	@Override
 	public String[][] getData() {
-		if (this.nextEmptyTuple == this.capacity) {
-			return this.data;
-		} else {
-			return Arrays.copyOf(this.data, this.nextEmptyTuple);
+		if (this.nextEmptyTuple != this.capacity) {
+			this.data = Arrays.copyOf(this.data, this.nextEmptyTuple);
+			this.capacity = this.nextEmptyTuple;
 		}
+		return this.data;
+	}
+
+	/**
+	 * Returns the number of parameters in a fact from this source.
+	 *
+	 * @return the arity
+	 */
+	@Override
+	public int getArity() {
+		return this.arity;
 	}
 
 	@Override
 	public String getSyntacticRepresentation() {
 		final StringBuilder sb = new StringBuilder(
 				"This InMemoryDataSource holds the following tuples of constant names, one tuple per line:");
-		for (int i = 0; i < getData().length; i++) {
-			for (int j = 0; j < this.data[i].length; j++) {
-				sb.append(this.data[i][j] + " ");
+		for (final String[] tuple : getData()) {
+			for (final String constantName : tuple) {
+				sb.append(constantName).append(" ");
 			}
 			sb.append("\n");
 		}
@@ -0,0 +1,47 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+
+/**
+ * A {@link DataSource} whose tuples are provided in Java, in the format
+ * expected by the VLog reasoner backend, rather than being read by VLog
+ * itself.
+ */
+interface JavaTupleSource extends DataSource {
+
+	/**
+	 * Returns the number of parameters in a fact from this source.
+	 *
+	 * @return the arity
+	 */
+	int getArity();
+
+	/**
+	 * Returns the tuples of this source, in the format expected by the VLog
+	 * reasoner backend. The returned array must not be modified.
+	 *
+	 * @return the data
+	 */
+	String[][] getData();
+
+}
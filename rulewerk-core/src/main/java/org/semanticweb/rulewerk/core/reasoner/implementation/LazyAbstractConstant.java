@@ -0,0 +1,86 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermVisitor;
+
+/**
+ * {@link AbstractConstant} returned by VLog, which keeps the VLog name of the
+ * constant and only removes the angle brackets of IRIs when the name is first
+ * needed. Equality and hash codes agree with other implementations of
+ * {@link AbstractConstant}.
+ */
+class LazyAbstractConstant implements AbstractConstant {
+
+	private final String vLogName;
+
+	private String name;
+
+	/**
+	 * @param vLogName name of an abstract constant as returned by VLog
+	 */
+	LazyAbstractConstant(final String vLogName) {
+		this.vLogName = vLogName;
+	}
+
+	@Override
+	public String getName() {
+		if (this.name == null) {
+			this.name = VLogToModelConverter.isIri(this.vLogName)
+					? this.vLogName.substring(1, this.vLogName.length() - 1)
+					: this.vLogName;
+		}
+		return this.name;
+	}
+
+	@Override
+	public <T> T accept(final TermVisitor<T> termVisitor) {
+		return termVisitor.visit(this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = this.getName().hashCode();
+		result = prime * result + this.getType().hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Term)) {
+			return false;
+		}
+		final Term other = (Term) obj;
+		return this.getType() == other.getType() && this.getName().equals(other.getName());
+	}
+
+	@Override
+	public String toString() {
+		return this.getSyntacticRepresentation();
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.TermVisitor;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+
+/**
+ * {@link DatatypeConstant} returned by VLog, which keeps the VLog name
+ * {@code "lexical value"^^<datatype>} of the constant and only splits it into
+ * lexical value and datatype when one of them is first needed. Equality and
+ * hash codes agree with other implementations of {@link DatatypeConstant}.
+ */
+class LazyDatatypeConstant implements DatatypeConstant {
+
+	private final String vLogName;
+
+	private String lexicalValue;
+
+	private String datatype;
+
+	/**
+	 * @param vLogName name of a datatype constant as returned by VLog
+	 */
+	LazyDatatypeConstant(final String vLogName) {
+		this.vLogName = vLogName;
+	}
+
+	@Override
+	public String getDatatype() {
+		if (this.datatype == null) {
+			this.decode();
+		}
+		return this.datatype;
+	}
+
+	@Override
+	public String getLexicalValue() {
+		if (this.lexicalValue == null) {
+			this.decode();
+		}
+		return this.lexicalValue;
+	}
+
+	private void decode() {
+		final int startTypeIdx = this.vLogName.lastIndexOf(Serializer.LESS_THAN, this.vLogName.length() - 2);
+		this.lexicalValue = this.vLogName.substring(1, startTypeIdx - 3);
+		this.datatype = this.vLogName.substring(startTypeIdx + 1, this.vLogName.length() - 1);
+	}
+
+	@Override
+	public String getName() {
+		return Serializer.getConstantName(this);
+	}
+
+	@Override
+	public <T> T accept(final TermVisitor<T> termVisitor) {
+		return termVisitor.visit(this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = this.getDatatype().hashCode();
+		result = prime * result + this.getLexicalValue().hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DatatypeConstant)) {
+			return false;
+		}
+		final DatatypeConstant other = (DatatypeConstant) obj;
+		return this.getLexicalValue().equals(other.getLexicalValue())
+				&& this.getDatatype().equals(other.getDatatype());
+	}
+
+	@Override
+	public String toString() {
+		return this.getSyntacticRepresentation();
+	}
+
+}
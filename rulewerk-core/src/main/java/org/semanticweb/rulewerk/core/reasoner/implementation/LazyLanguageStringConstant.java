@@ -0,0 +1,105 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.TermVisitor;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+
+/**
+ * {@link LanguageStringConstant} returned by VLog, which keeps the VLog name
+ * {@code "string"@language} of the constant and only splits it into string and
+ * language tag when one of them is first needed. Equality and hash codes agree
+ * with other implementations of {@link LanguageStringConstant}.
+ */
+class LazyLanguageStringConstant implements LanguageStringConstant {
+
+	private final String vLogName;
+
+	private String string;
+
+	private String languageTag;
+
+	/**
+	 * @param vLogName name of a language string constant as returned by VLog
+	 */
+	LazyLanguageStringConstant(final String vLogName) {
+		this.vLogName = vLogName;
+	}
+
+	@Override
+	public String getString() {
+		if (this.string == null) {
+			this.decode();
+		}
+		return this.string;
+	}
+
+	@Override
+	public String getLanguageTag() {
+		if (this.languageTag == null) {
+			this.decode();
+		}
+		return this.languageTag;
+	}
+
+	private void decode() {
+		final int startTagIdx = this.vLogName.lastIndexOf(Serializer.AT, this.vLogName.length() - 2);
+		this.string = this.vLogName.substring(1, startTagIdx - 1);
+		this.languageTag = this.vLogName.substring(startTagIdx + 1);
+	}
+
+	@Override
+	public String getName() {
+		return Serializer.getConstantName(this);
+	}
+
+	@Override
+	public <T> T accept(final TermVisitor<T> termVisitor) {
+		return termVisitor.visit(this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = this.getLanguageTag().hashCode();
+		result = prime * result + this.getString().hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LanguageStringConstant)) {
+			return false;
+		}
+		final LanguageStringConstant other = (LanguageStringConstant) obj;
+		return this.getString().equals(other.getString()) && this.getLanguageTag().equals(other.getLanguageTag());
+	}
+
+	@Override
+	public String toString() {
+		return this.getSyntacticRepresentation();
+	}
+
+}
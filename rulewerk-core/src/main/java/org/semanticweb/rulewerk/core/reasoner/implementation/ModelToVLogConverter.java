@@ -76,6 +76,25 @@ final class ModelToVLogConverter {
 		return tuples;
 	}
 
+	/**
+	 * Converts the given facts to VLog tuples, using the given dictionary to
+	 * compute the VLog name of each distinct term only once. The returned tuples
+	 * share the name strings of repeated terms.
+	 *
+	 * @param facts          facts to convert
+	 * @param termDictionary dictionary to encode the terms of the facts
+	 * @return VLog fact tuples
+	 */
+	static String[][] toVLogFactTuples(final Collection<Fact> facts, final VLogTermDictionary termDictionary) {
+		final String[][] tuples = new String[facts.size()][];
+		int i = 0;
+		for (final Fact fact : facts) {
+			tuples[i] = termDictionary.toVLogFactTuple(termDictionary.toIdTuple(fact));
+			i++;
+		}
+		return tuples;
+	}
+
 	static String[] toVLogFactTuple(final Fact fact) {
 		final List<Term> terms = fact.getArguments();
 		final String[] vLogFactTuple = new String[terms.size()];
@@ -0,0 +1,148 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+
+/**
+ * Dependencies between the predicates of a set of rules. A predicate
+ * {@code q} directly depends on a predicate {@code p} if some rule has
+ * {@code p} in its body and {@code q} in its head. Changes of the facts for
+ * {@code p} can then affect the facts inferred for {@code q}.
+ *
+ * Dependencies and negated predicates are counted per rule occurrence, so
+ * that removing a rule keeps the dependencies that other rules also have.
+ */
+class PredicateDependencyGraph {
+
+	/**
+	 * For each body predicate, the number of occurrences of each head predicate
+	 * in rules that use the body predicate.
+	 */
+	private final Map<Predicate, Map<Predicate, Integer>> dependentPredicates = new HashMap<>();
+
+	/**
+	 * Number of negated body literals for each predicate.
+	 */
+	private final Map<Predicate, Integer> negatedPredicates = new HashMap<>();
+
+	PredicateDependencyGraph(final Collection<Rule> rules) {
+		for (final Rule rule : rules) {
+			addRule(rule);
+		}
+	}
+
+	/**
+	 * Adds the dependencies of a further rule.
+	 *
+	 * @param rule a rule
+	 */
+	void addRule(final Rule rule) {
+		for (final Literal bodyLiteral : rule.getBody()) {
+			final Map<Predicate, Integer> heads = this.dependentPredicates
+					.computeIfAbsent(bodyLiteral.getPredicate(), k -> new HashMap<>());
+			for (final PositiveLiteral headLiteral : rule.getHead()) {
+				heads.merge(headLiteral.getPredicate(), 1, Integer::sum);
+			}
+			if (bodyLiteral.isNegated()) {
+				this.negatedPredicates.merge(bodyLiteral.getPredicate(), 1, Integer::sum);
+			}
+		}
+	}
+
+	/**
+	 * Removes the dependencies of a rule that has been added before.
+	 *
+	 * @param rule a rule
+	 */
+	void removeRule(final Rule rule) {
+		for (final Literal bodyLiteral : rule.getBody()) {
+			final Map<Predicate, Integer> heads = this.dependentPredicates.get(bodyLiteral.getPredicate());
+			if (heads != null) {
+				for (final PositiveLiteral headLiteral : rule.getHead()) {
+					decrement(heads, headLiteral.getPredicate());
+				}
+				if (heads.isEmpty()) {
+					this.dependentPredicates.remove(bodyLiteral.getPredicate());
+				}
+			}
+			if (bodyLiteral.isNegated()) {
+				decrement(this.negatedPredicates, bodyLiteral.getPredicate());
+			}
+		}
+	}
+
+	private static void decrement(final Map<Predicate, Integer> counts, final Predicate predicate) {
+		counts.computeIfPresent(predicate, (k, count) -> count == 1 ? null : count - 1);
+	}
+
+	/**
+	 * Returns the given predicates together with all predicates that directly or
+	 * indirectly depend on them.
+	 *
+	 * @param predicates changed predicates
+	 * @return set of all predicates whose facts can be affected by changes of the
+	 *         given predicates
+	 */
+	Set<Predicate> getAffectedPredicates(final Collection<Predicate> predicates) {
+		final Set<Predicate> affected = new HashSet<>(predicates);
+		final Deque<Predicate> todo = new ArrayDeque<>(predicates);
+		while (!todo.isEmpty()) {
+			for (final Predicate dependent : this.dependentPredicates.getOrDefault(todo.pop(),
+					Collections.emptyMap()).keySet()) {
+				if (affected.add(dependent)) {
+					todo.push(dependent);
+				}
+			}
+		}
+		return affected;
+	}
+
+	/**
+	 * Returns true if one of the given predicates occurs in a negated body literal
+	 * of some rule. Adding facts for such predicates may invalidate previous
+	 * inferences.
+	 *
+	 * @param predicates set of predicates
+	 * @return true if some predicate of the set is used under negation
+	 */
+	boolean isUsedNegatively(final Set<Predicate> predicates) {
+		for (final Predicate predicate : this.negatedPredicates.keySet()) {
+			if (predicates.contains(predicate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,327 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+/**
+ * A cache of the answers to queries, and of the numbers of answers, that have
+ * been computed by a reasoner. Queries are identified up to renaming of their
+ * variables, since answers do not depend on variable names. The size of the
+ * cache is the total number of cached answers, where each answer count is
+ * counted as one answer. When it exceeds the maximal size, the least recently
+ * used entries are evicted. The answers to a single query are only cached if
+ * they fit into the cache. They are recorded while the caller iterates over
+ * them, and only cached once the caller has read all of them, so that no
+ * answers are read on behalf of the cache.<br>
+ * The cache has to be cleared whenever the answers of the reasoner may change.
+ *
+ * This class is not thread-safe.
+ */
+final class QueryResultCache {
+
+	private final int maxSize;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private int size = 0;
+	/**
+	 * Number of times the cache has been cleared, used to discard answers that
+	 * were recorded before the last clearing.
+	 */
+	private long generation = 0;
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param maxSize maximal number of cached answers
+	 */
+	QueryResultCache(final int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns a key that identifies the given query up to renaming of variables.
+	 *
+	 * @param query        the query
+	 * @param includeNulls whether answers with named nulls are included
+	 * @param count        whether the key is for the number of answers, rather
+	 *                     than for the answers themselves
+	 */
+	static Key getKey(final PositiveLiteral query, final boolean includeNulls, final boolean count) {
+		final Map<Term, Term> variables = new HashMap<>();
+		final List<Term> terms = new ArrayList<>(query.getArguments().size());
+		for (final Term term : query.getArguments()) {
+			if (term.isVariable()) {
+				terms.add(variables.computeIfAbsent(term,
+						variable -> variable.getType() == TermType.EXISTENTIAL_VARIABLE
+								? Expressions.makeExistentialVariable("X" + variables.size())
+								: Expressions.makeUniversalVariable("X" + variables.size())));
+			} else {
+				terms.add(term);
+			}
+		}
+		return new Key(Expressions.makePositiveLiteral(query.getPredicate(), terms), includeNulls, count);
+	}
+
+	/**
+	 * Returns the cached answers for the given key, or {@code null} if there are
+	 * none.
+	 */
+	QueryResultIterator getResults(final Key key) {
+		final Entry entry = this.getEntry(key);
+		return entry == null ? null : new CachedQueryResultIterator(entry.results, entry.correctness);
+	}
+
+	/**
+	 * Returns whether answers for the given key are cached, without counting a
+	 * hit or miss.
+	 */
+	boolean containsResults(final Key key) {
+		return this.entries.containsKey(key);
+	}
+
+	/**
+	 * Returns an iterator that yields the answers of the given iterator and
+	 * records them. The answers are cached when the returned iterator has been
+	 * exhausted, unless there were more answers than fit into the cache, or the
+	 * cache has been cleared in the meantime. Answers that are not read by the
+	 * caller are not read from the given iterator.
+	 */
+	QueryResultIterator putResults(final Key key, final QueryResultIterator results) {
+		return new RecordingQueryResultIterator(key, results);
+	}
+
+	/**
+	 * Caches the given answers, if they fit into the cache.
+	 */
+	void putResults(final Key key, final List<QueryResult> results, final Correctness correctness) {
+		if (results.size() <= this.maxSize) {
+			this.putEntry(key, new Entry(results, 0, correctness));
+		}
+	}
+
+	/**
+	 * Returns the cached number of answers for the given key, or {@code null} if
+	 * there is none.
+	 */
+	QueryAnswerCount getCount(final Key key) {
+		final Entry entry = this.getEntry(key);
+		return entry == null ? null : new QueryAnswerCountImpl(entry.correctness, entry.count);
+	}
+
+	void putCount(final Key key, final QueryAnswerCount count) {
+		this.putEntry(key, new Entry(null, count.getCount(), count.getCorrectness()));
+	}
+
+	void clear() {
+		this.entries.clear();
+		this.size = 0;
+		this.generation++;
+	}
+
+	int getMaxSize() {
+		return this.maxSize;
+	}
+
+	int getSize() {
+		return this.size;
+	}
+
+	long getHits() {
+		return this.hits;
+	}
+
+	long getMisses() {
+		return this.misses;
+	}
+
+	private Entry getEntry(final Key key) {
+		final Entry entry = this.entries.get(key);
+		if (entry == null) {
+			this.misses++;
+		} else {
+			this.hits++;
+		}
+		return entry;
+	}
+
+	private void putEntry(final Key key, final Entry entry) {
+		final Entry previous = this.entries.put(key, entry);
+		if (previous != null) {
+			this.size -= previous.getSize();
+		}
+		this.size += entry.getSize();
+		final Iterator<Entry> iterator = this.entries.values().iterator();
+		while (this.size > this.maxSize && iterator.hasNext()) {
+			this.size -= iterator.next().getSize();
+			iterator.remove();
+		}
+	}
+
+	static final class Key {
+		final PositiveLiteral query;
+		final boolean includeNulls;
+		final boolean count;
+
+		Key(final PositiveLiteral query, final boolean includeNulls, final boolean count) {
+			this.query = query;
+			this.includeNulls = includeNulls;
+			this.count = count;
+		}
+
+		@Override
+		public int hashCode() {
+			return 4 * this.query.hashCode() + (this.includeNulls ? 2 : 0) + (this.count ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.includeNulls == other.includeNulls && this.count == other.count
+					&& this.query.equals(other.query);
+		}
+	}
+
+	private static final class Entry {
+		final List<QueryResult> results;
+		final long count;
+		final Correctness correctness;
+
+		Entry(final List<QueryResult> results, final long count, final Correctness correctness) {
+			this.results = results;
+			this.count = count;
+			this.correctness = correctness;
+		}
+
+		int getSize() {
+			return this.results == null ? 1 : Math.max(1, this.results.size());
+		}
+	}
+
+	/**
+	 * Iterates over cached answers.
+	 */
+	static final class CachedQueryResultIterator implements QueryResultIterator {
+		private final Iterator<QueryResult> results;
+		private final Correctness correctness;
+
+		CachedQueryResultIterator(final List<QueryResult> results, final Correctness correctness) {
+			this.results = results.iterator();
+			this.correctness = correctness;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.results.hasNext();
+		}
+
+		@Override
+		public QueryResult next() {
+			return this.results.next();
+		}
+
+		@Override
+		public Correctness getCorrectness() {
+			return this.correctness;
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+	}
+
+	/**
+	 * Iterates over the answers of another iterator, recording them until there
+	 * are more than fit into the cache, and caches them once the other iterator
+	 * is exhausted.
+	 */
+	private final class RecordingQueryResultIterator implements QueryResultIterator {
+		private final Key key;
+		private final QueryResultIterator results;
+		private final long startGeneration;
+		private List<QueryResult> buffer = new ArrayList<>();
+
+		RecordingQueryResultIterator(final Key key, final QueryResultIterator results) {
+			this.key = key;
+			this.results = results;
+			this.startGeneration = QueryResultCache.this.generation;
+		}
+
+		@Override
+		public boolean hasNext() {
+			final boolean hasNext = this.results.hasNext();
+			if (!hasNext && this.buffer != null) {
+				if (this.startGeneration == QueryResultCache.this.generation) {
+					putEntry(this.key, new Entry(this.buffer, 0, this.results.getCorrectness()));
+				}
+				this.buffer = null;
+			}
+			return hasNext;
+		}
+
+		@Override
+		public QueryResult next() {
+			final QueryResult result = this.results.next();
+			if (this.buffer != null) {
+				if (this.buffer.size() < QueryResultCache.this.maxSize) {
+					this.buffer.add(result);
+				} else {
+					this.buffer = null;
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public Correctness getCorrectness() {
+			return this.results.getCorrectness();
+		}
+
+		@Override
+		public void close() {
+			this.buffer = null;
+			this.results.close();
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultPage;
+
+public class QueryResultPageImpl implements QueryResultPage {
+
+	private final List<QueryResult> results;
+	private final long offset;
+	private final String nextPageToken;
+	private final Correctness correctness;
+
+	/**
+	 * Constructor of QueryResultPage
+	 *
+	 * @param results       answers on the page
+	 * @param offset        number of answers on the previous pages
+	 * @param nextPageToken token for the next page, or {@code null} if there are
+	 *                      no more answers
+	 * @param correctness   of the evaluated query. See {@link Correctness}.
+	 */
+	QueryResultPageImpl(final List<QueryResult> results, final long offset, final String nextPageToken,
+			final Correctness correctness) {
+		this.results = results;
+		this.offset = offset;
+		this.nextPageToken = nextPageToken;
+		this.correctness = correctness;
+	}
+
+	@Override
+	public List<QueryResult> getResults() {
+		return this.results;
+	}
+
+	@Override
+	public long getOffset() {
+		return this.offset;
+	}
+
+	@Override
+	public String getNextPageToken() {
+		return this.nextPageToken;
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+	@Override
+	public String toString() {
+		return this.results.size() + " answers from " + this.offset + " (" + this.correctness.toString() + ")";
+	}
+
+}
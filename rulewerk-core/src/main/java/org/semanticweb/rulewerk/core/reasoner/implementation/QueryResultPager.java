@@ -0,0 +1,270 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultPage;
+
+/**
+ * Splits the answers to queries into pages. When a page has been returned, the
+ * iterator over the remaining answers is kept open, so that the next page is
+ * read by continuing this iterator. All pages of a query are therefore read
+ * from a single evaluation of the query, and their order does not depend on
+ * VLog returning answers in the same order when a query is evaluated again.
+ *
+ * Only a limited number of iterators are kept open, each for a limited time.
+ * The least recently used iterator is closed when the limit is exceeded, and
+ * iterators that have not been used for longer than the time to live are
+ * closed on the next call of {@link #getPage}. Page tokens of closed iterators
+ * are rejected, rather than evaluating the query again and skipping the
+ * answers before the page, and so are tokens that have already been used.
+ *
+ * Page tokens consist of an epoch, the hash code of the query, the offset of
+ * the page and a unique number. The epoch is incremented by
+ * {@link #invalidate()}, whenever the answers of the reasoner may have changed,
+ * so that tokens of earlier epochs are rejected.
+ */
+final class QueryResultPager {
+
+	/**
+	 * The default number of queries whose iterators are kept open.
+	 */
+	static final int DEFAULT_MAX_SUSPENDED_QUERIES = 16;
+
+	/**
+	 * The default time in milliseconds for which an unused iterator is kept open.
+	 */
+	static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60000;
+
+	private static final class SuspendedQuery {
+		final QueryResultCache.Key key;
+		final QueryResultIterator results;
+		final long suspendedAt;
+
+		SuspendedQuery(final QueryResultCache.Key key, final QueryResultIterator results, final long suspendedAt) {
+			this.key = key;
+			this.results = results;
+			this.suspendedAt = suspendedAt;
+		}
+	}
+
+	private int maxSuspendedQueries;
+
+	private long timeToLiveNanos;
+
+	private final LongSupplier nanoClock;
+
+	/**
+	 * Suspended queries by page token, least recently suspended first.
+	 */
+	private final Map<String, SuspendedQuery> suspendedQueries;
+
+	private long epoch;
+
+	private long nextId;
+
+	QueryResultPager(final int maxSuspendedQueries, final long timeToLiveMillis) {
+		this(maxSuspendedQueries, timeToLiveMillis, System::nanoTime);
+	}
+
+	/**
+	 * @param maxSuspendedQueries maximal number of iterators kept open
+	 * @param timeToLiveMillis    time in milliseconds after which an unused
+	 *                            iterator is closed
+	 * @param nanoClock           source of the current time in nanoseconds
+	 */
+	QueryResultPager(final int maxSuspendedQueries, final long timeToLiveMillis, final LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+		this.suspendedQueries = new LinkedHashMap<String, SuspendedQuery>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, SuspendedQuery> eldest) {
+				if (this.size() > QueryResultPager.this.maxSuspendedQueries) {
+					eldest.getValue().results.close();
+					return true;
+				}
+				return false;
+			}
+		};
+		this.setMaxSuspendedQueries(maxSuspendedQueries);
+		this.setTimeToLiveMillis(timeToLiveMillis);
+	}
+
+	/**
+	 * Sets the maximal number of iterators kept open. If more iterators are open,
+	 * the least recently suspended ones are closed.
+	 *
+	 * @param maxSuspendedQueries maximal number of iterators kept open
+	 */
+	void setMaxSuspendedQueries(final int maxSuspendedQueries) {
+		Validate.isTrue(maxSuspendedQueries >= 0, "Number of suspended queries must not be negative.");
+		this.maxSuspendedQueries = maxSuspendedQueries;
+		final Iterator<SuspendedQuery> iterator = this.suspendedQueries.values().iterator();
+		while (this.suspendedQueries.size() > maxSuspendedQueries) {
+			iterator.next().results.close();
+			iterator.remove();
+		}
+	}
+
+	int getMaxSuspendedQueries() {
+		return this.maxSuspendedQueries;
+	}
+
+	/**
+	 * Sets the time after which an unused iterator is closed. Iterators that have
+	 * been unused for longer are closed on the next call of {@link #getPage}.
+	 *
+	 * @param timeToLiveMillis time in milliseconds after which an unused
+	 *                         iterator is closed
+	 */
+	void setTimeToLiveMillis(final long timeToLiveMillis) {
+		Validate.isTrue(timeToLiveMillis >= 0, "Time to live must not be negative.");
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+	}
+
+	long getTimeToLiveMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.timeToLiveNanos);
+	}
+
+	/**
+	 * Returns a page of the answers to a query.
+	 *
+	 * @param key       the query
+	 * @param pageSize  maximal number of answers on the page
+	 * @param pageToken token of the previous page of the same query, or
+	 *                  {@code null} for the first page
+	 * @param evaluator function that evaluates the query of a key
+	 * @return the page
+	 * @throws IllegalArgumentException if the page token is malformed, belongs to
+	 *                                  a different query, has already been used,
+	 *                                  or has expired
+	 */
+	QueryResultPage getPage(final QueryResultCache.Key key, final int pageSize, final String pageToken,
+			final Function<QueryResultCache.Key, QueryResultIterator> evaluator) {
+		Validate.isTrue(pageSize > 0, "Page size must be positive, but was %d.", pageSize);
+		final long now = this.nanoClock.getAsLong();
+		this.closeExpiredQueries(now);
+
+		long offset = 0;
+		final QueryResultIterator results;
+		if (pageToken == null) {
+			results = evaluator.apply(key);
+		} else {
+			offset = this.getOffset(pageToken, key);
+			final SuspendedQuery suspendedQuery = this.suspendedQueries.get(pageToken);
+			Validate.isTrue(suspendedQuery != null,
+					"Page token %s has expired or has already been used. Request the first page again.", pageToken);
+			Validate.isTrue(suspendedQuery.key.equals(key), "Page token %s belongs to a different query.",
+					pageToken);
+			this.suspendedQueries.remove(pageToken);
+			results = suspendedQuery.results;
+		}
+
+		final List<QueryResult> page = new ArrayList<>(Math.min(pageSize, 1024));
+		while (page.size() < pageSize && results.hasNext()) {
+			page.add(results.next());
+		}
+
+		String nextPageToken = null;
+		if (results.hasNext()) {
+			nextPageToken = this.epoch + "-" + Integer.toHexString(key.hashCode()) + "-" + (offset + page.size())
+					+ "-" + this.nextId++;
+			this.suspendedQueries.put(nextPageToken, new SuspendedQuery(key, results, now));
+		} else {
+			results.close();
+		}
+		return new QueryResultPageImpl(Collections.unmodifiableList(page), offset, nextPageToken,
+				results.getCorrectness());
+	}
+
+	/**
+	 * Closes all suspended queries and makes all page tokens that have been
+	 * returned so far invalid.
+	 */
+	void invalidate() {
+		for (final SuspendedQuery suspendedQuery : this.suspendedQueries.values()) {
+			suspendedQuery.results.close();
+		}
+		this.suspendedQueries.clear();
+		this.epoch++;
+	}
+
+	/**
+	 * Returns the number of queries whose iterators are currently kept open.
+	 *
+	 * @return number of suspended queries
+	 */
+	int getSuspendedQueryCount() {
+		return this.suspendedQueries.size();
+	}
+
+	/**
+	 * Closes the iterators of queries that have been suspended for longer than
+	 * the time to live. Since every token is used at most once, queries are
+	 * suspended in the iteration order of {@link #suspendedQueries}.
+	 */
+	private void closeExpiredQueries(final long now) {
+		final Iterator<SuspendedQuery> iterator = this.suspendedQueries.values().iterator();
+		while (iterator.hasNext()) {
+			final SuspendedQuery suspendedQuery = iterator.next();
+			if (now - suspendedQuery.suspendedAt <= this.timeToLiveNanos) {
+				return;
+			}
+			suspendedQuery.results.close();
+			iterator.remove();
+		}
+	}
+
+	private long getOffset(final String pageToken, final QueryResultCache.Key key) {
+		final String[] parts = pageToken.split("-");
+		Validate.isTrue(parts.length == 4, "Malformed page token: %s", pageToken);
+		final long tokenEpoch;
+		final int queryHash;
+		final long offset;
+		try {
+			tokenEpoch = Long.parseLong(parts[0]);
+			queryHash = Integer.parseUnsignedInt(parts[1], 16);
+			offset = Long.parseLong(parts[2]);
+			Long.parseLong(parts[3]);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Malformed page token: " + pageToken, e);
+		}
+		Validate.isTrue(tokenEpoch == this.epoch,
+				"Page token %s has expired, since the answers of the reasoner may have changed.", pageToken);
+		Validate.isTrue(queryHash == key.hashCode(), "Page token %s belongs to a different query.", pageToken);
+		Validate.isTrue(offset >= 0, "Malformed page token: %s", pageToken);
+		return offset;
+	}
+
+}
@@ -0,0 +1,234 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A directory of local copies of SPARQL query results, as used by
+ * {@link CachingSparqlQueryResultDataSource}. Each result is stored as a binary
+ * fact file (see {@link BinaryFactFileDataSource}), which is named after a hash
+ * of the endpoint, the query variables and the query body of its data source.
+ * Results that are older than the time to live are not used. When the total
+ * size of the stored results exceeds the maximal size, the oldest results are
+ * deleted, except for the result that has just been stored. The age of a result
+ * counts from the time it was stored.
+ *
+ * This class is thread-safe, but a directory should not be used by several
+ * caches at once. Fetching and reading a result is coordinated per data source
+ * with {@link #getLock(SparqlQueryResultDataSource)}, so that queries with
+ * different keys can be fetched at the same time. Results whose lock is held
+ * are never deleted to limit the cache size or because they have expired, so
+ * that a file returned by {@link #getFile(SparqlQueryResultDataSource)} can be
+ * read while holding the lock.
+ */
+public class SparqlResultCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SparqlResultCache.class);
+
+	private final File directory;
+	private final long timeToLiveMillis;
+	private final long maxSize;
+
+	private final ConcurrentMap<File, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a cache that stores results in the given directory, which is created
+	 * if necessary. Results that are already stored in the directory are used.
+	 *
+	 * @param directoryPath     path of the cache directory
+	 * @param timeToLiveSeconds number of seconds after which a stored result is
+	 *                          fetched again
+	 * @param maxSize           maximal total size of the stored results, in bytes
+	 * @throws IOException if the directory cannot be created
+	 */
+	public SparqlResultCache(final String directoryPath, final long timeToLiveSeconds, final long maxSize)
+			throws IOException {
+		Validate.notBlank(directoryPath, "Cache directory path cannot be blank!");
+		Validate.isTrue(timeToLiveSeconds > 0, "Only strictly positive time to live allowed!", timeToLiveSeconds);
+		Validate.isTrue(maxSize > 0, "Only strictly positive cache sizes allowed!", maxSize);
+		this.directory = new File(directoryPath);
+		this.timeToLiveMillis = timeToLiveSeconds * 1000;
+		this.maxSize = maxSize;
+		Files.createDirectories(this.directory.toPath());
+	}
+
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	public long getTimeToLiveSeconds() {
+		return this.timeToLiveMillis / 1000;
+	}
+
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Returns the file that stores the result of the given data source, if it has
+	 * not expired. Expired results are deleted.
+	 *
+	 * @param dataSource a SPARQL data source
+	 * @return the binary fact file with the result, or {@code null} if there is no
+	 *         valid result
+	 */
+	public synchronized File getFile(final SparqlQueryResultDataSource dataSource) {
+		final File file = this.getFileName(dataSource);
+		if (!file.isFile()) {
+			return null;
+		}
+		if (this.isExpired(file, System.currentTimeMillis())) {
+			LOGGER.debug("Deleting expired SPARQL result {}.", file);
+			file.delete();
+			return null;
+		}
+		return file;
+	}
+
+	/**
+	 * Returns the lock that users of the cache hold while they look up, fetch,
+	 * store and read the result of the given data source. Data sources with the
+	 * same cache key share the same lock, others do not.
+	 *
+	 * @param dataSource a SPARQL data source
+	 * @return the lock for the result of the data source
+	 */
+	ReentrantLock getLock(final SparqlQueryResultDataSource dataSource) {
+		return this.locks.computeIfAbsent(this.getFileName(dataSource), file -> new ReentrantLock());
+	}
+
+	/**
+	 * Creates a new empty file in the cache directory, to which a result can be
+	 * written before it is stored with
+	 * {@link #put(SparqlQueryResultDataSource, File)}.
+	 *
+	 * @return a new temporary file
+	 * @throws IOException if the file cannot be created
+	 */
+	public File createTemporaryFile() throws IOException {
+		return File.createTempFile("sparql", ".tmp", this.directory);
+	}
+
+	/**
+	 * Stores the given file as the result of the given data source, replacing any
+	 * previous result, and deletes expired and, if necessary, the oldest results.
+	 *
+	 * @param dataSource    a SPARQL data source
+	 * @param temporaryFile binary fact file with the result, which is moved into
+	 *                      the cache
+	 * @return the file that now stores the result
+	 * @throws IOException if the file cannot be moved
+	 */
+	public synchronized File put(final SparqlQueryResultDataSource dataSource, final File temporaryFile)
+			throws IOException {
+		final File file = this.getFileName(dataSource);
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		// the moved file keeps the time at which fetching started
+		Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+		this.evict(file);
+		return file;
+	}
+
+	private void evict(final File keptFile) {
+		final File[] files = this.directory
+				.listFiles(file -> file.isFile() && file.getName().endsWith(BinaryFactFileDataSource.EXTENSION));
+		if (files == null) {
+			return;
+		}
+		final long now = System.currentTimeMillis();
+		final List<File> validFiles = new ArrayList<>();
+		long size = 0;
+		for (final File file : files) {
+			if (this.isDeletable(file, keptFile) && this.isExpired(file, now)) {
+				file.delete();
+			} else {
+				validFiles.add(file);
+				size += file.length();
+			}
+		}
+		validFiles.sort(Comparator.comparingLong(File::lastModified).thenComparing(File::getName));
+		for (final File file : validFiles) {
+			if (size <= this.maxSize) {
+				break;
+			}
+			if (this.isDeletable(file, keptFile)) {
+				LOGGER.debug("Deleting SPARQL result {} to limit the cache size.", file);
+				size -= file.length();
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given file may be deleted, i.e., if it is not the kept
+	 * file and nobody holds the lock of its result. Since
+	 * {@link #getFile(SparqlQueryResultDataSource)} and this method are only
+	 * called while holding the monitor of the cache, a file that is returned by
+	 * the former is not deleted before the caller releases its lock.
+	 */
+	private boolean isDeletable(final File file, final File keptFile) {
+		if (file.equals(keptFile)) {
+			return false;
+		}
+		final ReentrantLock lock = this.locks.get(file);
+		return lock == null || !lock.isLocked();
+	}
+
+	private boolean isExpired(final File file, final long now) {
+		return file.lastModified() + this.timeToLiveMillis <= now;
+	}
+
+	File getFileName(final SparqlQueryResultDataSource dataSource) {
+		final String key = dataSource.getEndpoint() + "\n" + dataSource.getQueryVariables() + "\n"
+				+ dataSource.getQueryBody();
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder name = new StringBuilder();
+			for (final byte b : Arrays.copyOf(hash, 16)) {
+				name.append(String.format("%02x", b));
+			}
+			return new File(this.directory, name.append(BinaryFactFileDataSource.EXTENSION).toString());
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported.", e);
+		}
+	}
+
+}
@@ -20,8 +20,10 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
  * #L%
  */
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.semanticweb.rulewerk.core.model.api.DataSource;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
@@ -64,6 +67,9 @@ public class VLogKnowledgeBase {
 
 	private final Map<Predicate, List<Fact>> directEdbFacts = new HashMap<>();
 
+	private final Map<Predicate, List<DataSourceDeclaration>> mergedEdbPredicates = new HashMap<>();
+	private final Map<Predicate, List<Fact>> mergedEdbFacts = new HashMap<>();
+
 	private final Set<Rule> rules = new HashSet<>();
 
 	/**
@@ -80,8 +86,22 @@ public class VLogKnowledgeBase {
 		}
 	}
 
+	/**
+	 * Adds further statements to this knowledge base, as if they had been part of
+	 * the knowledge base it was created from.
+	 *
+	 * @param statements statements that have been added to the knowledge base
+	 */
+	void addStatements(final Collection<Statement> statements) {
+		final LoadKbVisitor visitor = this.new LoadKbVisitor();
+		for (final Statement statement : statements) {
+			statement.accept(visitor);
+		}
+	}
+
 	boolean hasData() {
-		return !this.edbPredicates.isEmpty() && !this.aliasedEdbPredicates.isEmpty();
+		return (!this.edbPredicates.isEmpty() && !this.aliasedEdbPredicates.isEmpty())
+				|| !this.mergedEdbPredicates.isEmpty();
 	}
 
 	public boolean hasRules() {
@@ -96,19 +116,35 @@ public class VLogKnowledgeBase {
 		}
 	}
 
-	String getVLogDataSourcesConfigurationString() {
+	/**
+	 * Returns the configuration of the data sources that are read by VLog.
+	 *
+	 * @param csvFilesParsedInJava if true, CSV files are omitted, since they are
+	 *                             parsed in Java
+	 * @param sparqlResultsCached  if true, SPARQL data sources are omitted, since
+	 *                             their results are fetched in Java
+	 */
+	String getVLogDataSourcesConfigurationString(final boolean csvFilesParsedInJava,
+			final boolean sparqlResultsCached) {
 		final StringBuilder configStringBuilder = new StringBuilder();
 		final Formatter formatter = new Formatter(configStringBuilder);
 		int dataSourceIndex = 0;
 
-		for (final Entry<Predicate, DataSourceDeclaration> e : this.edbPredicates.entrySet()) {
-			dataSourceIndex = addDataSourceConfigurationString(e.getValue().getDataSource(), e.getKey(),
-					dataSourceIndex, formatter);
-		}
-
-		for (final Entry<DataSourceDeclaration, Predicate> e : this.aliasesForEdbPredicates.entrySet()) {
-			dataSourceIndex = addDataSourceConfigurationString(e.getKey().getDataSource(), e.getValue(),
-					dataSourceIndex, formatter);
+		// sort by predicate, so that the configuration does not depend on hash codes
+		final TreeMap<String, Entry<Predicate, DataSource>> dataSources = new TreeMap<>();
+		this.edbPredicates.forEach((predicate, declaration) -> dataSources.put(
+				ModelToVLogConverter.toVLogPredicate(predicate),
+				new SimpleImmutableEntry<>(predicate, declaration.getDataSource())));
+		this.aliasesForEdbPredicates.forEach((declaration, predicate) -> dataSources.put(
+				ModelToVLogConverter.toVLogPredicate(predicate),
+				new SimpleImmutableEntry<>(predicate, declaration.getDataSource())));
+
+		for (final Entry<Predicate, DataSource> e : dataSources.values()) {
+			if (!(csvFilesParsedInJava && e.getValue() instanceof CsvFileDataSource)
+					&& !(sparqlResultsCached && e.getValue() instanceof SparqlQueryResultDataSource)) {
+				dataSourceIndex = addDataSourceConfigurationString(e.getValue(), e.getKey(), dataSourceIndex,
+						formatter);
+			}
 		}
 
 		formatter.close();
@@ -145,10 +181,97 @@ public class VLogKnowledgeBase {
 		return this.directEdbFacts;
 	}
 
+	/**
+	 * Returns the EDB predicates whose data is loaded as one relation from several
+	 * sources, see {@link #mergeDataSources(boolean)}, together with these
+	 * sources.
+	 */
+	Map<Predicate, List<DataSourceDeclaration>> getMergedEdbPredicates() {
+		return this.mergedEdbPredicates;
+	}
+
+	/**
+	 * Returns the facts of the knowledge base that belong to the merged EDB
+	 * predicates, see {@link #mergeDataSources(boolean)}.
+	 */
+	Map<Predicate, List<Fact>> getMergedEdbFacts() {
+		return this.mergedEdbFacts;
+	}
+
 	Set<Rule> getRules() {
 		return this.rules;
 	}
 
+	/**
+	 * Merges the sources of predicates that have several sources (local facts and
+	 * data sources) into a single EDB relation, if all of these sources are loaded
+	 * in Java. This replaces the alias predicate and the copy rule that is
+	 * otherwise used for each source. If the predicate also occurs in rule heads,
+	 * the merged relation is stored for a single alias predicate, which is copied
+	 * to the original predicate by one rule. <br>
+	 * The facts of merged predicates are moved from
+	 * {@link #getDirectEdbFacts()} to {@link #getMergedEdbFacts()}.
+	 *
+	 * @param csvFilesParsedInJava if true, {@link CsvFileDataSource}s are
+	 *                             considered to be loaded in Java
+	 */
+	void mergeDataSources(final boolean csvFilesParsedInJava) {
+		final Map<Predicate, List<DataSourceDeclaration>> declarationsByPredicate = new HashMap<>();
+		this.aliasesForEdbPredicates.keySet().forEach(declaration -> declarationsByPredicate
+				.computeIfAbsent(declaration.getPredicate(), predicate -> new ArrayList<>()).add(declaration));
+
+		for (final Entry<Predicate, List<DataSourceDeclaration>> entry : declarationsByPredicate.entrySet()) {
+			final Predicate predicate = entry.getKey();
+			final List<DataSourceDeclaration> declarations = entry.getValue();
+			if (declarations.size() < 2 || !declarations.stream()
+					.allMatch(declaration -> isLoadedInJava(declaration, csvFilesParsedInJava))) {
+				continue;
+			}
+
+			for (final DataSourceDeclaration declaration : declarations) {
+				final Predicate aliasPredicate = this.aliasesForEdbPredicates.remove(declaration);
+				this.rules.remove(makeCopyRule(aliasPredicate, predicate));
+			}
+			final Predicate mergedPredicate;
+			if (this.idbPredicates.contains(predicate)) {
+				mergedPredicate = new PredicateImpl(predicate.getName() + "##EDB", predicate.getArity());
+				addCopyRule(mergedPredicate, predicate);
+			} else {
+				mergedPredicate = predicate;
+			}
+			this.mergedEdbPredicates.put(mergedPredicate, declarations);
+			final List<Fact> facts = this.directEdbFacts.remove(predicate);
+			if (facts != null) {
+				this.mergedEdbFacts.put(mergedPredicate, facts);
+			}
+		}
+	}
+
+	private static boolean isLoadedInJava(final DataSourceDeclaration declaration, final boolean csvFilesParsedInJava) {
+		final DataSource dataSource = declaration.getDataSource();
+		return declaration instanceof LocalFactsDataSourceDeclaration || dataSource instanceof JavaTupleSource
+				|| dataSource instanceof CsvDirectoryDataSource
+				|| (csvFilesParsedInJava && dataSource instanceof CsvFileDataSource);
+	}
+
+	/**
+	 * Adds a rule that copies all facts of the {@code source} predicate to the
+	 * {@code target} predicate, which must have the same arity.
+	 */
+	void addCopyRule(final Predicate source, final Predicate target) {
+		this.rules.add(makeCopyRule(source, target));
+	}
+
+	private static Rule makeCopyRule(final Predicate source, final Predicate target) {
+		final List<Term> terms = new ArrayList<>();
+		for (int i = 1; i <= target.getArity(); i++) {
+			terms.add(new UniversalVariableImpl("X" + i));
+		}
+		final Literal body = new PositiveLiteralImpl(source, terms);
+		final PositiveLiteral head = new PositiveLiteralImpl(target, terms);
+		return new RuleImpl(new ConjunctionImpl<>(Arrays.asList(head)), new ConjunctionImpl<>(Arrays.asList(body)));
+	}
+
 	/**
 	 * Local visitor implementation for processing statements upon loading. Internal
 	 * index structures are updated based on the statements that are detected.
@@ -164,6 +287,8 @@ public class VLogKnowledgeBase {
 			VLogKnowledgeBase.this.aliasedEdbPredicates.clear();
 			VLogKnowledgeBase.this.aliasesForEdbPredicates.clear();
 			VLogKnowledgeBase.this.directEdbFacts.clear();
+			VLogKnowledgeBase.this.mergedEdbPredicates.clear();
+			VLogKnowledgeBase.this.mergedEdbFacts.clear();
 			VLogKnowledgeBase.this.rules.clear();
 		}
 
@@ -234,16 +359,7 @@ public class VLogKnowledgeBase {
 			}
 			VLogKnowledgeBase.this.aliasesForEdbPredicates.put(dataSourceDeclaration, aliasPredicate);
 			VLogKnowledgeBase.this.aliasedEdbPredicates.add(predicate);
-
-			final List<Term> terms = new ArrayList<>();
-			for (int i = 1; i <= predicate.getArity(); i++) {
-				terms.add(new UniversalVariableImpl("X" + i));
-			}
-			final Literal body = new PositiveLiteralImpl(aliasPredicate, terms);
-			final PositiveLiteral head = new PositiveLiteralImpl(predicate, terms);
-			final Rule rule = new RuleImpl(new ConjunctionImpl<>(Arrays.asList(head)),
-					new ConjunctionImpl<>(Arrays.asList(body)));
-			VLogKnowledgeBase.this.rules.add(rule);
+			addCopyRule(aliasPredicate, predicate);
 		}
 
 	}
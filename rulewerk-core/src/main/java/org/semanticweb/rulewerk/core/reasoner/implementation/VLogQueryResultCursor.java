@@ -0,0 +1,124 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultCursor;
+
+import karmaresearch.vlog.TermQueryResultIterator;
+
+/**
+ * {@link QueryResultCursor} over the answers of a VLog query. The terms of the
+ * current answer are kept as returned by VLog, and only converted to
+ * {@link Term}s on request. Names of constants that occur in the knowledge
+ * base are looked up in the {@link VLogTermDictionary}, so that reading them
+ * does not create new strings.
+ */
+class VLogQueryResultCursor implements QueryResultCursor {
+
+	private final TermQueryResultIterator vLogTermQueryResultIterator;
+
+	private final Correctness correctness;
+
+	private final VLogTermDictionary termDictionary;
+
+	private karmaresearch.vlog.Term[] current;
+
+	/**
+	 * Creates a cursor over the answers of a VLog query.
+	 *
+	 * @param termQueryResultIterator VLog query results, or {@code null} if the
+	 *                                query has no answers
+	 * @param correctness             correctness of the query answers
+	 * @param termDictionary          dictionary of the terms in the knowledge
+	 *                                base
+	 */
+	VLogQueryResultCursor(final TermQueryResultIterator termQueryResultIterator, final Correctness correctness,
+			final VLogTermDictionary termDictionary) {
+		this.vLogTermQueryResultIterator = termQueryResultIterator;
+		this.correctness = correctness;
+		this.termDictionary = termDictionary;
+	}
+
+	@Override
+	public boolean advance() {
+		if (this.vLogTermQueryResultIterator != null && this.vLogTermQueryResultIterator.hasNext()) {
+			this.current = this.vLogTermQueryResultIterator.next();
+			return true;
+		}
+		this.current = null;
+		return false;
+	}
+
+	@Override
+	public int getArity() {
+		return this.getCurrent().length;
+	}
+
+	@Override
+	public TermType getTermType(final int i) {
+		return VLogToModelConverter.getTermType(this.getCurrent()[i]);
+	}
+
+	@Override
+	public String getTermName(final int i) {
+		final karmaresearch.vlog.Term vLogTerm = this.getCurrent()[i];
+		final String vLogName = vLogTerm.getName();
+		if (vLogTerm.getTermType() == karmaresearch.vlog.Term.TermType.CONSTANT) {
+			final Term constant = this.termDictionary.findConstant(vLogName);
+			if (constant != null && constant.getType() == TermType.ABSTRACT_CONSTANT) {
+				return constant.getName();
+			}
+			if (VLogToModelConverter.isIri(vLogName)) {
+				return vLogName.substring(1, vLogName.length() - 1);
+			}
+		}
+		return vLogName;
+	}
+
+	@Override
+	public Term getTerm(final int i) {
+		return this.termDictionary.toTerm(this.getCurrent()[i]);
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+	@Override
+	public void close() {
+		this.current = null;
+		if (this.vLogTermQueryResultIterator != null) {
+			this.vLogTermQueryResultIterator.close();
+		}
+	}
+
+	private karmaresearch.vlog.Term[] getCurrent() {
+		if (this.current == null) {
+			throw new IllegalStateException("Cursor is not positioned at a query answer.");
+		}
+		return this.current;
+	}
+
+}
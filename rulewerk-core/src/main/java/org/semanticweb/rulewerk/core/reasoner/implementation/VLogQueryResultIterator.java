@@ -40,10 +40,18 @@ public class VLogQueryResultIterator implements QueryResultIterator {
 
 	private final Correctness correctness;
 
+	private final VLogTermDictionary termDictionary;
+
 	public VLogQueryResultIterator(final TermQueryResultIterator termQueryResultIterator,
 			final Correctness materialisationState) {
+		this(termQueryResultIterator, materialisationState, null);
+	}
+
+	VLogQueryResultIterator(final TermQueryResultIterator termQueryResultIterator,
+			final Correctness materialisationState, final VLogTermDictionary termDictionary) {
 		this.vLogTermQueryResultIterator = termQueryResultIterator;
 		this.correctness = materialisationState;
+		this.termDictionary = termDictionary;
 	}
 
 	@Override
@@ -54,7 +62,11 @@ public class VLogQueryResultIterator implements QueryResultIterator {
 	@Override
 	public QueryResult next() {
 		final Term[] vLogQueryResult = this.vLogTermQueryResultIterator.next();
-		return VLogToModelConverter.toQueryResult(vLogQueryResult);
+		if (this.termDictionary == null) {
+			return VLogToModelConverter.toQueryResult(vLogQueryResult);
+		} else {
+			return new QueryResultImpl(this.termDictionary.toTermList(vLogQueryResult));
+		}
 	}
 
 	@Override
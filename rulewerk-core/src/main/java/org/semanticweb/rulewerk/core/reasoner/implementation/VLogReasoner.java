@@ -20,14 +20,36 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
  * #L%
  */
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
@@ -36,9 +58,9 @@ import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.DataSource;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
-import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
@@ -50,8 +72,11 @@ import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.CyclicityResult;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.core.reasoner.OutputFiles;
 import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultCursor;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultPage;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
@@ -78,15 +103,57 @@ import karmaresearch.vlog.VLog.CyclicCheckResult;
 public class VLogReasoner implements Reasoner {
 	private static Logger LOGGER = LoggerFactory.getLogger(VLogReasoner.class);
 
+	/**
+	 * Number of rows that are fetched from VLog at once when exporting inferences.
+	 */
+	static final int EXPORT_CHUNK_SIZE = 4096;
+
 	final KnowledgeBase knowledgeBase;
 	final VLog vLog = new VLog();
 
+	/**
+	 * Dictionary of the terms of loaded facts. It is replaced whenever the
+	 * knowledge base is loaded and when the reasoner is reset, so that it only
+	 * holds the terms of the currently loaded facts.
+	 */
+	VLogTermDictionary termDictionary = new VLogTermDictionary();
+
+	/**
+	 * The knowledge base as it was last loaded, together with the facts and data
+	 * source declarations that have been added to the knowledge base since then.
+	 * As long as no other statements are added or removed, the next load only
+	 * needs to process the added statements. Is {@code null} otherwise.
+	 */
+	private VLogKnowledgeBase loadedVLogKB;
+	private final List<Statement> addedDataStatements = new ArrayList<>();
+
+	/**
+	 * Dependencies between the predicates of the rules that were last loaded.
+	 */
+	private PredicateDependencyGraph predicateDependencies;
+
 	private ReasonerState reasonerState = ReasonerState.KB_NOT_LOADED;
 	private Correctness correctness = Correctness.SOUND_BUT_INCOMPLETE;
 
+	/**
+	 * Predicates whose facts may have changed since the knowledge base was loaded.
+	 * Answers for the former may be incomplete, answers for the latter may also
+	 * be unsound.
+	 */
+	private final Set<Predicate> incompletePredicates = new HashSet<>();
+	private final Set<Predicate> incorrectPredicates = new HashSet<>();
+
 	private LogLevel internalLogLevel = LogLevel.WARNING;
 	private Algorithm algorithm = Algorithm.RESTRICTED_CHASE;
 	private Integer timeoutAfterSeconds;
+	private Integer loadingParallelism;
+	private Integer csvParsingThreads;
+	private boolean mergingDataSources;
+	private SparqlResultCache sparqlResultCache;
+	private QueryResultCache queryResultCache;
+	private final QueryResultPager queryResultPager = new QueryResultPager(
+			QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES, QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+	private int outputBufferSize = OutputFiles.DEFAULT_BUFFER_SIZE;
 	private RuleRewriteStrategy ruleRewriteStrategy = RuleRewriteStrategy.NONE;
 
 	/**
@@ -134,6 +201,120 @@ public class VLogReasoner implements Reasoner {
 		return this.timeoutAfterSeconds;
 	}
 
+	@Override
+	public void setLoadingParallelism(Integer threads) {
+		validateNotClosed();
+		if (threads != null) {
+			Validate.isTrue(threads > 0, "Only strictly positive numbers of threads allowed!", threads);
+		}
+		this.loadingParallelism = threads;
+	}
+
+	@Override
+	public Integer getLoadingParallelism() {
+		return this.loadingParallelism;
+	}
+
+	@Override
+	public void setCsvParsingThreads(Integer threads) {
+		validateNotClosed();
+		if (threads != null) {
+			Validate.isTrue(threads > 0, "Only strictly positive numbers of threads allowed!", threads);
+		}
+		this.csvParsingThreads = threads;
+	}
+
+	@Override
+	public Integer getCsvParsingThreads() {
+		return this.csvParsingThreads;
+	}
+
+	@Override
+	public void setMergingDataSources(boolean mergingDataSources) {
+		validateNotClosed();
+		this.mergingDataSources = mergingDataSources;
+	}
+
+	@Override
+	public boolean isMergingDataSources() {
+		return this.mergingDataSources;
+	}
+
+	/**
+	 * Sets the cache in which the results of {@link SparqlQueryResultDataSource}s
+	 * are stored. If a cache is set, queries are sent to their endpoints from
+	 * Java, and only if the cache holds no valid result for them. In particular,
+	 * loading the knowledge base again, e.g., after {@link #resetReasoner()}, uses
+	 * the stored results.
+	 *
+	 * @param cache the cache for SPARQL query results. If {@code null}, SPARQL
+	 *              queries are evaluated by VLog whenever the knowledge base is
+	 *              loaded.
+	 */
+	public void setSparqlResultCache(SparqlResultCache cache) {
+		validateNotClosed();
+		this.sparqlResultCache = cache;
+	}
+
+	/**
+	 * Returns the cache in which the results of
+	 * {@link SparqlQueryResultDataSource}s are stored. The default value is
+	 * {@code null}, in which case results are not cached.
+	 *
+	 * @return if not {@code null}, the cache for SPARQL query results
+	 */
+	public SparqlResultCache getSparqlResultCache() {
+		return this.sparqlResultCache;
+	}
+
+	@Override
+	public void setQueryResultCacheSize(Integer size) {
+		validateNotClosed();
+		if (size != null) {
+			Validate.isTrue(size > 0, "Only strictly positive cache sizes allowed!", size);
+		}
+		this.queryResultCache = size == null ? null : new QueryResultCache(size);
+	}
+
+	@Override
+	public Integer getQueryResultCacheSize() {
+		return this.queryResultCache == null ? null : this.queryResultCache.getMaxSize();
+	}
+
+	@Override
+	public long getQueryResultCacheHits() {
+		return this.queryResultCache == null ? 0 : this.queryResultCache.getHits();
+	}
+
+	@Override
+	public long getQueryResultCacheMisses() {
+		return this.queryResultCache == null ? 0 : this.queryResultCache.getMisses();
+	}
+
+	/**
+	 * Discards cached query answers and expires page tokens, since the answers of
+	 * the reasoner may have changed. Must be called before VLog is stopped, so
+	 * that open VLog query iterators are closed first.
+	 */
+	private void invalidateQueryResults() {
+		if (this.queryResultCache != null) {
+			this.queryResultCache.clear();
+		}
+		this.queryResultPager.invalidate();
+	}
+
+	@Override
+	public void setOutputBufferSize(int bufferSize) {
+		validateNotClosed();
+		Validate.isTrue(bufferSize > 0, "Only strictly positive buffer sizes allowed!", bufferSize);
+		this.outputBufferSize = bufferSize;
+	}
+
+	@Override
+	public int getOutputBufferSize() {
+		return this.outputBufferSize;
+	}
+
 	@Override
 	public void setRuleRewriteStrategy(RuleRewriteStrategy ruleRewritingStrategy) {
 		validateNotClosed();
@@ -175,8 +356,27 @@ public class VLogReasoner implements Reasoner {
 
 	void loadKnowledgeBase() throws IOException {
 		LOGGER.info("Started loading knowledge base ...");
+		invalidateQueryResults();
+		this.termDictionary = new VLogTermDictionary();
 
-		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(this.knowledgeBase);
+		final VLogKnowledgeBase vLogKB;
+		if (this.loadedVLogKB != null) {
+			vLogKB = this.loadedVLogKB;
+			vLogKB.addStatements(this.addedDataStatements);
+		} else {
+			vLogKB = new VLogKnowledgeBase(this.knowledgeBase);
+			this.predicateDependencies = new PredicateDependencyGraph(this.knowledgeBase.getRules());
+		}
+		this.addedDataStatements.clear();
+		if (this.mergingDataSources) {
+			vLogKB.mergeDataSources(this.csvParsingThreads != null);
+		}
+		if (this.mergingDataSources) {
+			// merged sources cannot be extended
+			this.loadedVLogKB = null;
+		} else {
+			this.loadedVLogKB = vLogKB;
+		}
 
 		if (!vLogKB.hasData()) {
 			LOGGER.warn("No data statements (facts or datasource declarations) have been provided.");
@@ -187,6 +387,7 @@ public class VLogReasoner implements Reasoner {
 
 		// 2. in-memory data is loaded
 		loadInMemoryDataSources(vLogKB);
+		loadMergedDataSources(vLogKB);
 		validateDataSourcePredicateArities(vLogKB);
 
 		loadFacts(vLogKB);
@@ -198,13 +399,16 @@ public class VLogReasoner implements Reasoner {
 
 		// if there are no rules, then materialisation state is complete
 		this.correctness = !vLogKB.hasRules() ? Correctness.SOUND_AND_COMPLETE : Correctness.SOUND_BUT_INCOMPLETE;
+		this.incompletePredicates.clear();
+		this.incorrectPredicates.clear();
 
 		LOGGER.info("Finished loading knowledge base.");
 	}
 
 	void loadVLogDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
 		try {
-			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(), false);
+			this.vLog.start(vLogKB.getVLogDataSourcesConfigurationString(this.csvParsingThreads != null,
+					this.sparqlResultCache != null), false);
 		} catch (final AlreadyStartedException e) {
 			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 		} catch (final EDBConfigurationException e) {
@@ -212,31 +416,125 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	void loadInMemoryDataSources(final VLogKnowledgeBase vLogKB) {
-		vLogKB.getEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(v.getDataSource(), k));
+	void loadInMemoryDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
+		try {
+			vLogKB.getEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(v.getDataSource(), k));
 
-		vLogKB.getAliasesForEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(k.getDataSource(), v));
+			vLogKB.getAliasesForEdbPredicates().forEach((k, v) -> loadInMemoryDataSource(k.getDataSource(), v));
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	void loadInMemoryDataSource(final DataSource dataSource, final Predicate predicate) {
-		if (dataSource instanceof InMemoryDataSource) {
+		if (dataSource instanceof JavaTupleSource) {
 
-			final InMemoryDataSource inMemoryDataSource = (InMemoryDataSource) dataSource;
+			final JavaTupleSource javaTupleSource = (JavaTupleSource) dataSource;
 			try {
-				load(predicate, inMemoryDataSource);
+				load(predicate, javaTupleSource);
 			} catch (final EDBConfigurationException e) {
 				throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
 			}
+		} else if (dataSource instanceof SparqlQueryResultDataSource && this.sparqlResultCache != null) {
+			addData(ModelToVLogConverter.toVLogPredicate(predicate), new CachingSparqlQueryResultDataSource(
+					(SparqlQueryResultDataSource) dataSource, this.sparqlResultCache).getData());
+		} else {
+			final String[][] tuples = parseCsvDataSource(dataSource, predicate);
+			if (tuples != null) {
+				addData(ModelToVLogConverter.toVLogPredicate(predicate), tuples);
+			}
 		}
 	}
 
-	void load(final Predicate predicate, final InMemoryDataSource inMemoryDataSource) throws EDBConfigurationException {
+	/**
+	 * Parses the files of the given data source in Java, if it is a CSV data
+	 * source that is not read by VLog.
+	 *
+	 * @return the parsed tuples, or {@code null} if the data source is not parsed
+	 *         in Java
+	 */
+	private String[][] parseCsvDataSource(final DataSource dataSource, final Predicate predicate) {
+		try {
+			if (dataSource instanceof CsvFileDataSource && this.csvParsingThreads != null) {
+				final CsvFileDataSource csvFileDataSource = (CsvFileDataSource) dataSource;
+				return parseCsvFiles(Collections.singletonList(csvFileDataSource.getFile()), predicate, dataSource,
+						this.csvParsingThreads);
+			} else if (dataSource instanceof CsvDirectoryDataSource) {
+				final List<File> files = ((CsvDirectoryDataSource) dataSource).getFiles();
+				return parseCsvFiles(files, predicate, dataSource, this.csvParsingThreads != null
+						? this.csvParsingThreads
+						: Runtime.getRuntime().availableProcessors());
+			} else {
+				return null;
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String[][] parseCsvFiles(final List<File> files, final Predicate predicate, final DataSource dataSource,
+			final int threads) throws IOException {
+		return new CsvFileParser(threads, CsvFileParser.DEFAULT_CHUNK_SIZE).parse(files, predicate, dataSource);
+	}
+
+	/**
+	 * Loads the facts and data sources of each merged EDB predicate (see
+	 * {@link Reasoner#setMergingDataSources(boolean)}) into a single VLog
+	 * relation.
+	 */
+	void loadMergedDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
+		try {
+			vLogKB.getMergedEdbPredicates().forEach((predicate, declarations) -> {
+				final List<String[][]> parts = new ArrayList<>();
+				final List<Fact> facts = vLogKB.getMergedEdbFacts().get(predicate);
+				if (facts != null) {
+					parts.add(ModelToVLogConverter.toVLogFactTuples(facts, this.termDictionary));
+				}
+				for (final DataSourceDeclaration declaration : declarations) {
+					final DataSource dataSource = declaration.getDataSource();
+					if (dataSource instanceof JavaTupleSource) {
+						final JavaTupleSource javaTupleSource = (JavaTupleSource) dataSource;
+						if (javaTupleSource.getArity() != predicate.getArity()) {
+							throw new IncompatiblePredicateArityException(predicate, javaTupleSource.getArity(),
+									dataSource);
+						}
+						parts.add(javaTupleSource.getData());
+					} else if (dataSource != null) {
+						parts.add(parseCsvDataSource(dataSource, predicate));
+					}
+				}
+				addData(ModelToVLogConverter.toVLogPredicate(predicate), concatenate(parts));
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static String[][] concatenate(final List<String[][]> parts) {
+		if (parts.size() == 1) {
+			return parts.get(0);
+		}
+		int size = 0;
+		for (final String[][] part : parts) {
+			size += part.length;
+		}
+		final String[][] result = new String[size][];
+		int position = 0;
+		for (final String[][] part : parts) {
+			System.arraycopy(part, 0, result, position, part.length);
+			position += part.length;
+		}
+		return result;
+	}
+
+	void load(final Predicate predicate, final JavaTupleSource javaTupleSource) throws EDBConfigurationException {
 		final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(predicate);
 
-		this.vLog.addData(vLogPredicateName, inMemoryDataSource.getData());
+		final String[][] vLogPredicateTuples = javaTupleSource.getData();
+		this.vLog.addData(vLogPredicateName, vLogPredicateTuples);
 
 		if (LOGGER.isDebugEnabled()) {
-			for (final String[] tuple : inMemoryDataSource.getData()) {
+			for (final String[] tuple : vLogPredicateTuples) {
 				LOGGER.debug("Loaded direct fact {}{}.", vLogPredicateName, Arrays.toString(tuple));
 			}
 		}
@@ -254,6 +552,9 @@ public class VLogReasoner implements Reasoner {
 		vLogKB.getEdbPredicates().forEach((k, v) -> validateDataSourcePredicateArity(k, v.getDataSource()));
 
 		vLogKB.getAliasesForEdbPredicates().forEach((k, v) -> validateDataSourcePredicateArity(v, k.getDataSource()));
+
+		vLogKB.getMergedEdbPredicates().forEach((k, v) -> v
+				.forEach(declaration -> validateDataSourcePredicateArity(k, declaration.getDataSource())));
 	}
 
 	/**
@@ -285,25 +586,66 @@ public class VLogReasoner implements Reasoner {
 	}
 
 	void loadFacts(final VLogKnowledgeBase vLogKB) {
+		if (this.loadingParallelism != null) {
+			loadFactsInParallel(vLogKB, this.loadingParallelism);
+			return;
+		}
 		final Map<Predicate, List<Fact>> directEdbFacts = vLogKB.getDirectEdbFacts();
 
 		directEdbFacts.forEach((k, v) -> {
-			try {
-				final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k));
-				final String[][] vLogPredicateTuples = ModelToVLogConverter.toVLogFactTuples(v);
+			final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k));
+			addData(vLogPredicateName, ModelToVLogConverter.toVLogFactTuples(v, this.termDictionary));
+		});
+	}
 
-				this.vLog.addData(vLogPredicateName, vLogPredicateTuples);
+	/**
+	 * Converts the facts of each predicate to VLog tuples on a pool of
+	 * {@code parallelism} threads. The terms of all facts are first added to the
+	 * term dictionary by the calling thread, and their VLog names are computed on
+	 * the pool, so that the facts are converted with the same dictionary as in
+	 * serial loading. The tuples are passed to VLog by the calling thread in the
+	 * order of the VLog predicate names, while the following predicates are
+	 * converted. At most {@code parallelism} converted predicates are waiting to
+	 * be loaded at any time.
+	 *
+	 * @param vLogKB      the knowledge base to load facts from
+	 * @param parallelism number of threads used for conversion
+	 */
+	void loadFactsInParallel(final VLogKnowledgeBase vLogKB, final int parallelism) {
+		final TreeMap<String, List<Fact>> factsByVLogPredicateName = new TreeMap<>();
+		vLogKB.getDirectEdbFacts().forEach((k, v) -> factsByVLogPredicateName
+				.put(ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k)), v));
 
-				if (LOGGER.isDebugEnabled()) {
-					for (final String[] tuple : vLogPredicateTuples) {
-						LOGGER.debug("Loaded direct fact {}{}.", vLogPredicateName, Arrays.toString(tuple));
-					}
+		final VLogTermDictionary dictionary = this.termDictionary;
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			dictionary.prepareVLogNames(factsByVLogPredicateName.values(), pool);
+			final Deque<ForkJoinTask<String[][]>> pendingConversions = new ArrayDeque<>();
+			final Iterator<List<Fact>> factLists = factsByVLogPredicateName.values().iterator();
+			for (final String vLogPredicateName : factsByVLogPredicateName.keySet()) {
+				while (pendingConversions.size() < parallelism && factLists.hasNext()) {
+					final List<Fact> facts = factLists.next();
+					pendingConversions.add(pool.submit(() -> dictionary.findVLogFactTuples(facts)));
 				}
-			} catch (final EDBConfigurationException e) {
-				throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
+				addData(vLogPredicateName, pendingConversions.remove().join());
 			}
+		} finally {
+			shutdownAndAwaitTermination(pool);
+		}
+	}
 
-		});
+	void addData(final String vLogPredicateName, final String[][] vLogPredicateTuples) {
+		try {
+			this.vLog.addData(vLogPredicateName, vLogPredicateTuples);
+		} catch (final EDBConfigurationException e) {
+			throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
+		}
+
+		if (LOGGER.isDebugEnabled()) {
+			for (final String[] tuple : vLogPredicateTuples) {
+				LOGGER.debug("Loaded direct fact {}{}.", vLogPredicateName, Arrays.toString(tuple));
+			}
+		}
 	}
 
 	void loadRules(final VLogKnowledgeBase vLogKB) {
@@ -352,6 +694,7 @@ public class VLogReasoner implements Reasoner {
 	private void runChase() {
 		LOGGER.info("Started materialisation of inferences ...");
 		this.reasonerState = ReasonerState.MATERIALISED;
+		invalidateQueryResults();
 
 		final boolean skolemChase = this.algorithm == Algorithm.SKOLEM_CHASE;
 		try {
@@ -384,6 +727,187 @@ public class VLogReasoner implements Reasoner {
 	public QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls) {
 		validateBeforeQuerying(query);
 
+		if (this.queryResultCache == null) {
+			return answerQueryUncached(query, includeNulls);
+		}
+		final QueryResultCache.Key key = QueryResultCache.getKey(query, includeNulls, false);
+		final QueryResultIterator cachedResults = this.queryResultCache.getResults(key);
+		if (cachedResults != null) {
+			return cachedResults;
+		}
+		return this.queryResultCache.putResults(key, answerQueryUncached(query, includeNulls));
+	}
+
+	@Override
+	public Map<PositiveLiteral, QueryResultIterator> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls) {
+		validateBeforeQuerying(queries);
+
+		final Map<PositiveLiteral, QueryResultIterator> results = new LinkedHashMap<>();
+		groupEquivalentQueries(queries, includeNulls).forEach((key, equivalentQueries) -> {
+			if (equivalentQueries.size() == 1) {
+				final PositiveLiteral query = equivalentQueries.get(0);
+				results.put(query, new DeferredQueryResultIterator(() -> answerQuery(query, includeNulls)));
+			} else {
+				final Supplier<QueryResultIterator> sharedResults = answerQueryOnce(key, includeNulls);
+				equivalentQueries.forEach(query -> results.put(query, new DeferredQueryResultIterator(sharedResults)));
+			}
+		});
+		return results;
+	}
+
+	/**
+	 * Returns a supplier of iterators over the answers of the query of the given
+	 * key, which evaluates the query when it is first called and keeps its answers
+	 * for all further calls.
+	 */
+	private Supplier<QueryResultIterator> answerQueryOnce(final QueryResultCache.Key key,
+			final boolean includeNulls) {
+		final List<QueryResult> answers = new ArrayList<>();
+		final Correctness[] correctness = { null };
+		return () -> {
+			if (correctness[0] == null) {
+				try (QueryResultIterator results = answerQuery(key.query, includeNulls)) {
+					results.forEachRemaining(answers::add);
+					correctness[0] = results.getCorrectness();
+				}
+			}
+			return new QueryResultCache.CachedQueryResultIterator(answers, correctness[0]);
+		};
+	}
+
+	/**
+	 * Groups the given queries by their {@link QueryResultCache.Key}, so that
+	 * queries that are equal up to variable renaming are only evaluated once.
+	 */
+	private static Map<QueryResultCache.Key, List<PositiveLiteral>> groupEquivalentQueries(
+			final Collection<PositiveLiteral> queries, final boolean includeNulls) {
+		final Map<QueryResultCache.Key, List<PositiveLiteral>> queriesByKey = new LinkedHashMap<>();
+		for (final PositiveLiteral query : queries) {
+			final List<PositiveLiteral> equivalentQueries = queriesByKey
+					.computeIfAbsent(QueryResultCache.getKey(query, includeNulls, false), key -> new ArrayList<>());
+			if (!equivalentQueries.contains(query)) {
+				equivalentQueries.add(query);
+			}
+		}
+		return queriesByKey;
+	}
+
+	@Override
+	public Map<PositiveLiteral, Correctness> answerQueries(final Collection<PositiveLiteral> queries,
+			final boolean includeNulls, final BiConsumer<PositiveLiteral, QueryResult> action) {
+		validateBeforeQuerying(queries);
+		Validate.notNull(action, "Action must not be null!");
+
+		final Map<QueryResultCache.Key, List<PositiveLiteral>> queriesByKey = groupEquivalentQueries(queries,
+				includeNulls);
+
+		// only queries without constants share a scan of their predicate, since
+		// VLog answers queries with constants by an index lookup
+		final Map<QueryResultCache.Key, Correctness> correctnessByKey = new HashMap<>();
+		final Map<Predicate, List<QueryResultCache.Key>> scannedKeysByPredicate = new LinkedHashMap<>();
+		queriesByKey.keySet().forEach(key -> {
+			if (hasConstants(key.query)
+					|| (this.queryResultCache != null && this.queryResultCache.containsResults(key))) {
+				correctnessByKey.put(key, answerQuery(key, queriesByKey.get(key), includeNulls, action));
+			} else {
+				scannedKeysByPredicate.computeIfAbsent(key.query.getPredicate(), predicate -> new ArrayList<>())
+						.add(key);
+			}
+		});
+
+		scannedKeysByPredicate.forEach((predicate, keys) -> {
+			if (keys.size() == 1) {
+				correctnessByKey.put(keys.get(0), answerQuery(keys.get(0), queriesByKey.get(keys.get(0)),
+						includeNulls, action));
+			} else {
+				final Correctness correctness = scanQueries(predicate, keys, queriesByKey, includeNulls, action);
+				keys.forEach(key -> correctnessByKey.put(key, correctness));
+			}
+		});
+
+		final Map<PositiveLiteral, Correctness> result = new LinkedHashMap<>();
+		queriesByKey.forEach((key, equivalentQueries) -> equivalentQueries
+				.forEach(query -> result.put(query, correctnessByKey.get(key))));
+		return result;
+	}
+
+	/**
+	 * Passes the answers of a query to the given action for each of the given
+	 * equivalent queries, using the query result cache.
+	 */
+	private Correctness answerQuery(final QueryResultCache.Key key, final List<PositiveLiteral> equivalentQueries,
+			final boolean includeNulls, final BiConsumer<PositiveLiteral, QueryResult> action) {
+		try (QueryResultIterator results = answerQuery(key.query, includeNulls)) {
+			while (results.hasNext()) {
+				final QueryResult answer = results.next();
+				equivalentQueries.forEach(query -> action.accept(query, answer));
+			}
+			return results.getCorrectness();
+		}
+	}
+
+	/**
+	 * Answers several queries without constants for the same predicate by a
+	 * single scan of its facts. The answers are cached if they fit into the query
+	 * result cache.
+	 */
+	private Correctness scanQueries(final Predicate predicate, final List<QueryResultCache.Key> keys,
+			final Map<QueryResultCache.Key, List<PositiveLiteral>> queriesByKey, final boolean includeNulls,
+			final BiConsumer<PositiveLiteral, QueryResult> action) {
+		final Map<QueryResultCache.Key, List<QueryResult>> recordedAnswers = new HashMap<>();
+		if (this.queryResultCache != null) {
+			keys.forEach(key -> recordedAnswers.put(key, new ArrayList<>()));
+		}
+		try (QueryResultIterator results = answerQueryUncached(getQueryAtom(predicate), includeNulls)) {
+			while (results.hasNext()) {
+				final QueryResult answer = results.next();
+				for (final QueryResultCache.Key key : keys) {
+					if (matches(key.query, answer.getTerms())) {
+						queriesByKey.get(key).forEach(query -> action.accept(query, answer));
+						final List<QueryResult> recorded = recordedAnswers.get(key);
+						if (recorded != null && recorded.size() < this.queryResultCache.getMaxSize()) {
+							recorded.add(answer);
+						} else {
+							recordedAnswers.remove(key);
+						}
+					}
+				}
+			}
+			recordedAnswers.forEach(
+					(key, answers) -> this.queryResultCache.putResults(key, answers, results.getCorrectness()));
+			return results.getCorrectness();
+		}
+	}
+
+	private static boolean hasConstants(final PositiveLiteral query) {
+		for (final Term term : query.getArguments()) {
+			if (!term.isVariable()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if the given answer of a query whose arguments are distinct variables
+	 * is an answer of the given query, i.e., if it has the constants of the query
+	 * and equal terms for equal variables.
+	 */
+	static boolean matches(final PositiveLiteral query, final List<Term> terms) {
+		final List<Term> arguments = query.getArguments();
+		for (int i = 0; i < arguments.size(); i++) {
+			final Term argument = arguments.get(i);
+			final int firstOccurrence = argument.isVariable() ? arguments.indexOf(argument) : i;
+			if (argument.isVariable() ? !terms.get(firstOccurrence).equals(terms.get(i))
+					: !argument.equals(terms.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private QueryResultIterator answerQueryUncached(PositiveLiteral query, boolean includeNulls) {
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
 
@@ -398,14 +922,84 @@ public class VLogReasoner implements Reasoner {
 			return new EmptyQueryResultIterator(Correctness.SOUND_AND_COMPLETE);
 		}
 
-		logWarningOnCorrectness();
-		return new VLogQueryResultIterator(stringQueryResultIterator, this.correctness);
+		final Correctness queryCorrectness = getCorrectness(query.getPredicate());
+		logWarningOnCorrectness(queryCorrectness);
+		return new VLogQueryResultIterator(stringQueryResultIterator, queryCorrectness, this.termDictionary);
+	}
+
+	@Override
+	public QueryResultPage answerQueryPage(PositiveLiteral query, boolean includeNulls, int pageSize,
+			String pageToken) {
+		validateBeforeQuerying(query);
+
+		return this.queryResultPager.getPage(QueryResultCache.getKey(query, includeNulls, false), pageSize, pageToken,
+				key -> answerQueryUncached(key.query, includeNulls));
+	}
+
+	@Override
+	public void setMaxSuspendedPagedQueries(int maxQueries) {
+		validateNotClosed();
+		Validate.isTrue(maxQueries >= 0, "Only non-negative numbers of suspended queries allowed!", maxQueries);
+		this.queryResultPager.setMaxSuspendedQueries(maxQueries);
+	}
+
+	@Override
+	public int getMaxSuspendedPagedQueries() {
+		return this.queryResultPager.getMaxSuspendedQueries();
+	}
+
+	@Override
+	public void setPagedQueryTimeToLive(long milliseconds) {
+		validateNotClosed();
+		Validate.isTrue(milliseconds >= 0, "Only non-negative times to live allowed!", milliseconds);
+		this.queryResultPager.setTimeToLiveMillis(milliseconds);
+	}
+
+	@Override
+	public long getPagedQueryTimeToLive() {
+		return this.queryResultPager.getTimeToLiveMillis();
+	}
+
+	@Override
+	public QueryResultCursor openQueryCursor(PositiveLiteral query, boolean includeNulls) {
+		validateBeforeQuerying(query);
+
+		final boolean filterBlanks = !includeNulls;
+		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
+
+		TermQueryResultIterator stringQueryResultIterator;
+		try {
+			stringQueryResultIterator = this.vLog.query(vLogAtom, true, filterBlanks);
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e1) {
+			LOGGER.warn("Query uses predicate " + query.getPredicate()
+					+ " that does not occur in the knowledge base. Answer must be empty!");
+			return new VLogQueryResultCursor(null, Correctness.SOUND_AND_COMPLETE, this.termDictionary);
+		}
+
+		final Correctness queryCorrectness = getCorrectness(query.getPredicate());
+		logWarningOnCorrectness(queryCorrectness);
+		return new VLogQueryResultCursor(stringQueryResultIterator, queryCorrectness, this.termDictionary);
 	}
 
 	@Override
 	public QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls) {
 		validateBeforeQuerying(query);
 
+		if (this.queryResultCache == null) {
+			return countQueryAnswersUncached(query, includeNulls);
+		}
+		final QueryResultCache.Key key = QueryResultCache.getKey(query, includeNulls, true);
+		QueryAnswerCount count = this.queryResultCache.getCount(key);
+		if (count == null) {
+			count = countQueryAnswersUncached(query, includeNulls);
+			this.queryResultCache.putCount(key, count);
+		}
+		return count;
+	}
+
+	private QueryAnswerCount countQueryAnswersUncached(PositiveLiteral query, boolean includeNulls) {
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
 
@@ -419,8 +1013,9 @@ public class VLogReasoner implements Reasoner {
 					+ " that does not occur in the knowledge base. Answer must be empty!");
 			result = 0;
 		}
-		logWarningOnCorrectness();
-		return new QueryAnswerCountImpl(this.correctness, result);
+		final Correctness queryCorrectness = getCorrectness(query.getPredicate());
+		logWarningOnCorrectness(queryCorrectness);
+		return new QueryAnswerCountImpl(queryCorrectness, result);
 	}
 
 	@Override
@@ -442,16 +1037,29 @@ public class VLogReasoner implements Reasoner {
 					+ " that does not occur in the knowledge base. Answers are therefore empty.");
 		}
 
-		logWarningOnCorrectness();
-		return this.correctness;
+		final Correctness queryCorrectness = getCorrectness(query.getPredicate());
+		logWarningOnCorrectness(queryCorrectness);
+		return queryCorrectness;
 	}
 
 	private void validateBeforeQuerying(final PositiveLiteral query) {
+		validateQueryingAllowed();
+		Validate.notNull(query, "Query atom must not be null!");
+	}
+
+	private void validateBeforeQuerying(final Collection<PositiveLiteral> queries) {
+		validateQueryingAllowed();
+		Validate.notNull(queries, "Query atoms must not be null!");
+		for (final PositiveLiteral query : queries) {
+			validateBeforeQuerying(query);
+		}
+	}
+
+	private void validateQueryingAllowed() {
 		validateNotClosed();
 		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
 			throw new ReasonerStateException(this.reasonerState, "Querying is not alowed before reasoner is loaded!");
 		}
-		Validate.notNull(query, "Query atom must not be null!");
 	}
 
 	@Override
@@ -463,39 +1071,236 @@ public class VLogReasoner implements Reasoner {
 		}
 		final Set<Predicate> toBeQueriedHeadPredicates = getKnowledgeBasePredicates();
 
-		stream.write(Serializer.getBaseAndPrefixDeclarations(knowledgeBase).getBytes());
+		final Writer writer = OutputFiles.newWriter(stream, this.outputBufferSize);
+		final Function<String, String> iriTransformer = this.knowledgeBase::unresolveAbsoluteIri;
+		Serializer.writeBaseAndPrefixDeclarations(writer, this.knowledgeBase);
 
 		for (final Predicate predicate : toBeQueriedHeadPredicates) {
-			final PositiveLiteral queryAtom = getQueryAtom(predicate);
-			final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(queryAtom);
-			try (final TermQueryResultIterator answers = this.vLog.query(vLogAtom, true, false)) {
-				while (answers.hasNext()) {
-					final karmaresearch.vlog.Term[] vlogTerms = answers.next();
-					final List<Term> termList = VLogToModelConverter.toTermList(vlogTerms);
-					stream.write(Serializer.getFactString(predicate, termList, knowledgeBase::unresolveAbsoluteIri)
-							.getBytes());
+			forEachInference(predicate, terms -> Serializer.writeFact(writer, predicate, terms, iriTransformer));
+		}
+		writer.flush();
+
+		final Correctness correctness = getCorrectness();
+		logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	@Override
+	public Correctness writeInferencesSnapshot(final OutputStream stream) throws IOException {
+		validateNotClosed();
+		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Obtaining inferences is not alowed before reasoner is loaded!");
+		}
+		final StringBuilder declarations = new StringBuilder();
+		Serializer.writeBaseAndPrefixDeclarations(declarations, this.knowledgeBase);
+		final BinarySnapshotWriter writer = new BinarySnapshotWriter(stream, declarations.toString());
+		for (final Predicate predicate : getKnowledgeBasePredicates()) {
+			forEachInference(predicate, terms -> writer.addTuple(predicate, terms));
+		}
+		writer.finish();
+
+		final Correctness correctness = getCorrectness();
+		logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	@Override
+	public Correctness writeInferencesToDirectory(final String directoryPath, final int threads,
+			final boolean compress) throws IOException {
+		validateNotClosed();
+		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Obtaining inferences is not alowed before reasoner is loaded!");
+		}
+		Validate.isTrue(threads > 0, "Only strictly positive numbers of threads allowed!", threads);
+		final File directory = new File(directoryPath);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create directory " + directoryPath);
+		}
+
+		final List<Predicate> predicates = new ArrayList<>(getKnowledgeBasePredicates());
+		predicates.sort(Comparator.comparing(Predicate::getName).thenComparingInt(Predicate::getArity));
+		final String extension = OutputFiles.RULES_EXTENSION + (compress ? OutputFiles.GZIP_EXTENSION : "");
+		final Function<String, String> iriTransformer = this.knowledgeBase::unresolveAbsoluteIri;
+
+		// the manifest only exists while all files listed in it are complete
+		final File manifestFile = new File(directory, OutputFiles.MANIFEST_FILE_NAME);
+		final File temporaryManifestFile = new File(directory, OutputFiles.MANIFEST_FILE_NAME + ".tmp");
+		Files.deleteIfExists(manifestFile.toPath());
+
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		boolean completed = false;
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			final List<ForkJoinTask<Long>> factCounts = new ArrayList<>();
+			for (int i = 0; i < predicates.size(); i++) {
+				final Predicate predicate = predicates.get(i);
+				final String filePath = new File(directory, getExportFileName(i, extension)).getPath();
+				factCounts.add(pool.submit(() -> {
+					try (OutputStream stream = OutputFiles.open(filePath, this.outputBufferSize)) {
+						final Writer writer = OutputFiles.newWriter(stream, this.outputBufferSize);
+						Serializer.writeBaseAndPrefixDeclarations(writer, this.knowledgeBase);
+						final long factCount = forEachInference(predicate, terms -> {
+							if (cancelled.get()) {
+								throw new CancellationException();
+							}
+							Serializer.writeFact(writer, predicate, terms, iriTransformer);
+						});
+						writer.flush();
+						return factCount;
+					} catch (final IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}));
+			}
+
+			try (Writer manifest = OutputFiles.newWriter(
+					OutputFiles.open(temporaryManifestFile.getPath(), this.outputBufferSize), this.outputBufferSize)) {
+				for (int i = 0; i < predicates.size(); i++) {
+					final Predicate predicate = predicates.get(i);
+					manifest.write(getExportFileName(i, extension) + "\t" + predicate.getName() + "\t"
+							+ predicate.getArity() + "\t" + factCounts.get(i).join() + "\n");
 				}
+			}
+			Files.move(temporaryManifestFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			completed = true;
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			if (!completed) {
+				cancelled.set(true);
+			}
+			shutdownAndAwaitTermination(pool);
+			if (!completed) {
+				temporaryManifestFile.delete();
+			}
+		}
+
+		final Correctness correctness = getCorrectness();
+		logWarningOnCorrectness(correctness);
+		return correctness;
+	}
+
+	/**
+	 * Cancels all tasks of the given pool that have not started yet, and waits
+	 * until the running tasks have finished, so that no task uses the reasoner
+	 * after the method that started them has returned.
+	 */
+	private static void shutdownAndAwaitTermination(final ForkJoinPool pool) {
+		pool.shutdownNow();
+		boolean interrupted = false;
+		while (!pool.isTerminated()) {
+			try {
+				pool.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (final InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String getExportFileName(final int predicateIndex, final String extension) {
+		return String.format("predicate%05d%s", predicateIndex, extension);
+	}
+
+	/**
+	 * Consumer of the argument lists of inferred facts, which may write them.
+	 */
+	@FunctionalInterface
+	private interface InferenceConsumer {
+		void accept(List<Term> terms) throws IOException;
+	}
+
+	/**
+	 * Passes all facts of the given predicate to the given consumer. Rows are
+	 * fetched from VLog in chunks while holding the lock on {@link #vLog}, which is
+	 * not thread-safe, and converted and consumed without holding the lock, so
+	 * that several predicates can be exported in parallel.
+	 *
+	 * @return the number of facts
+	 */
+	private long forEachInference(final Predicate predicate, final InferenceConsumer consumer) throws IOException {
+		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(getQueryAtom(predicate));
+		final karmaresearch.vlog.Term[][] rows = new karmaresearch.vlog.Term[EXPORT_CHUNK_SIZE][];
+		long factCount = 0;
+		final TermQueryResultIterator answers;
+		synchronized (this.vLog) {
+			try {
+				answers = this.vLog.query(vLogAtom, true, false);
 			} catch (final NotStartedException e) {
 				throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 			} catch (final NonExistingPredicateException e1) {
 				throw new RulewerkRuntimeException("Inconsistent knowledge base state.", e1);
 			}
 		}
+		try {
+			int size;
+			do {
+				size = 0;
+				synchronized (this.vLog) {
+					while (size < rows.length && answers.hasNext()) {
+						rows[size++] = answers.next();
+					}
+				}
+				for (int i = 0; i < size; i++) {
+					consumer.accept(this.termDictionary.toTermList(rows[i]));
+				}
+				factCount += size;
+			} while (size == rows.length);
+		} finally {
+			synchronized (this.vLog) {
+				answers.close();
+			}
+		}
+		return factCount;
+	}
 
-		logWarningOnCorrectness();
+	private void logWarningOnCorrectness(final Correctness correctness) {
+		if (correctness != Correctness.SOUND_AND_COMPLETE) {
+			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", correctness);
+		}
+	}
+
+	/**
+	 * Returns the correctness of the answers for the given predicate, taking into
+	 * account which predicates are affected by changes of the knowledge base since
+	 * it was loaded.
+	 *
+	 * @param predicate a predicate
+	 * @return the correctness of query answers for {@code predicate}
+	 */
+	Correctness getCorrectness(final Predicate predicate) {
+		if (this.incorrectPredicates.contains(predicate)) {
+			return Correctness.INCORRECT;
+		} else if (this.incompletePredicates.contains(predicate)) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
+		}
 		return this.correctness;
 	}
 
-	private void logWarningOnCorrectness() {
-		if (this.correctness != Correctness.SOUND_AND_COMPLETE) {
-			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", this.correctness);
+	/**
+	 * Returns the correctness of the answers for all predicates.
+	 *
+	 * @return the least correctness of query answers for any predicate
+	 */
+	Correctness getCorrectness() {
+		if (!this.incorrectPredicates.isEmpty()) {
+			return Correctness.INCORRECT;
+		} else if (!this.incompletePredicates.isEmpty()) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
 		}
+		return this.correctness;
 	}
 
 	@Override
 	public void resetReasoner() {
 		validateNotClosed();
 		this.reasonerState = ReasonerState.KB_NOT_LOADED;
+		invalidateQueryResults();
+		this.termDictionary = new VLogTermDictionary();
 		this.vLog.stop();
 		LOGGER.info("Reasoner has been reset. All inferences computed during reasoning have been discarded.");
 	}
@@ -507,6 +1312,8 @@ public class VLogReasoner implements Reasoner {
 		} else {
 			this.reasonerState = ReasonerState.CLOSED;
 			this.knowledgeBase.deleteListener(this);
+			invalidateQueryResults();
+			this.termDictionary = null;
 			this.vLog.stop();
 			LOGGER.info("Reasoner closed.");
 		}
@@ -584,49 +1391,32 @@ public class VLogReasoner implements Reasoner {
 
 	@Override
 	public void onStatementsAdded(List<Statement> statementsAdded) {
-		// TODO more elaborate materialisation state handling
-
 		updateReasonerToKnowledgeBaseChanged();
-
-		// updateCorrectnessOnStatementsAdded(statementsAdded);
-		updateCorrectnessOnStatementsAdded();
+		updateCorrectnessOnStatementsAdded(statementsAdded);
 	}
 
 	@Override
 	public void onStatementAdded(Statement statementAdded) {
-		// TODO more elaborate materialisation state handling
-
 		updateReasonerToKnowledgeBaseChanged();
-
-		// updateCorrectnessOnStatementAdded(statementAdded);
-		updateCorrectnessOnStatementsAdded();
+		updateCorrectnessOnStatementsAdded(Arrays.asList(statementAdded));
 	}
 
 	@Override
 	public void onStatementRemoved(Statement statementRemoved) {
 		updateReasonerToKnowledgeBaseChanged();
-		updateCorrectnessOnStatementsRemoved();
+		updateCorrectnessOnStatementsRemoved(Arrays.asList(statementRemoved));
 	}
 
 	@Override
 	public void onStatementsRemoved(List<Statement> statementsRemoved) {
 		updateReasonerToKnowledgeBaseChanged();
-		updateCorrectnessOnStatementsRemoved();
+		updateCorrectnessOnStatementsRemoved(statementsRemoved);
 	}
 
 	Set<Predicate> getKnowledgeBasePredicates() {
-		final Set<Predicate> toBeQueriedHeadPredicates = new HashSet<>();
-		for (final Rule rule : this.knowledgeBase.getRules()) {
-			for (final Literal literal : rule.getHead()) {
-				toBeQueriedHeadPredicates.add(literal.getPredicate());
-			}
-		}
-		for (final DataSourceDeclaration dataSourceDeclaration : this.knowledgeBase.getDataSourceDeclarations()) {
-			toBeQueriedHeadPredicates.add(dataSourceDeclaration.getPredicate());
-		}
-		for (final Fact fact : this.knowledgeBase.getFacts()) {
-			toBeQueriedHeadPredicates.add(fact.getPredicate());
-		}
+		final Set<Predicate> toBeQueriedHeadPredicates = new HashSet<>(this.knowledgeBase.getRuleHeadPredicates());
+		toBeQueriedHeadPredicates.addAll(this.knowledgeBase.getDataSourceDeclarationPredicates());
+		toBeQueriedHeadPredicates.addAll(this.knowledgeBase.getFactPredicates());
 		return toBeQueriedHeadPredicates;
 	}
 
@@ -658,6 +1448,7 @@ public class VLogReasoner implements Reasoner {
 	}
 
 	private void updateReasonerToKnowledgeBaseChanged() {
+		invalidateQueryResults();
 		if (this.reasonerState.equals(ReasonerState.KB_LOADED)
 				|| this.reasonerState.equals(ReasonerState.MATERIALISED)) {
 
@@ -665,18 +1456,81 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	private void updateCorrectnessOnStatementsAdded() {
+	/**
+	 * Adding statements is monotone: all previous answers for the predicates
+	 * that depend on the added statements remain sound, unless one of these
+	 * predicates is used in a negated rule body literal. Answers for other
+	 * predicates are not affected.
+	 */
+	private void updateCorrectnessOnStatementsAdded(final List<Statement> statementsAdded) {
+		if (!containsOnlyData(statementsAdded)) {
+			this.loadedVLogKB = null;
+		} else if (this.loadedVLogKB != null) {
+			this.addedDataStatements.addAll(statementsAdded);
+		}
+
 		if (this.reasonerState == ReasonerState.KB_CHANGED) {
-			// TODO refine
-			this.correctness = Correctness.INCORRECT;
+			for (final Statement statement : statementsAdded) {
+				if (statement instanceof Rule) {
+					this.predicateDependencies.addRule((Rule) statement);
+				}
+			}
+			final Set<Predicate> affectedPredicates = this.predicateDependencies
+					.getAffectedPredicates(getChangedPredicates(statementsAdded));
+			if (this.predicateDependencies.isUsedNegatively(affectedPredicates)) {
+				this.incorrectPredicates.addAll(affectedPredicates);
+			} else {
+				this.incompletePredicates.addAll(affectedPredicates);
+			}
 		}
 	}
 
-	private void updateCorrectnessOnStatementsRemoved() {
+	/**
+	 * Answers for the predicates that depend on removed statements may no longer
+	 * be sound. Removed rules are taken into account for this, and only then
+	 * removed from the dependency graph, so that later changes only propagate
+	 * along the remaining rules.
+	 */
+	private void updateCorrectnessOnStatementsRemoved(final List<Statement> statementsRemoved) {
+		this.loadedVLogKB = null;
 		if (this.reasonerState == ReasonerState.KB_CHANGED) {
-			// TODO refine
-			this.correctness = Correctness.INCORRECT;
+			this.incorrectPredicates
+					.addAll(this.predicateDependencies.getAffectedPredicates(getChangedPredicates(statementsRemoved)));
+			for (final Statement statement : statementsRemoved) {
+				if (statement instanceof Rule) {
+					this.predicateDependencies.removeRule((Rule) statement);
+				}
+			}
+		}
+	}
+
+	private static boolean containsOnlyData(final List<Statement> statements) {
+		for (final Statement statement : statements) {
+			if (!(statement instanceof Fact) && !(statement instanceof DataSourceDeclaration)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the predicates of the given facts and data source declarations, and
+	 * the head predicates of the given rules.
+	 */
+	private static Set<Predicate> getChangedPredicates(final List<Statement> statements) {
+		final Set<Predicate> predicates = new HashSet<>();
+		for (final Statement statement : statements) {
+			if (statement instanceof Fact) {
+				predicates.add(((Fact) statement).getPredicate());
+			} else if (statement instanceof DataSourceDeclaration) {
+				predicates.add(((DataSourceDeclaration) statement).getPredicate());
+			} else if (statement instanceof Rule) {
+				for (final PositiveLiteral literal : ((Rule) statement).getHead()) {
+					predicates.add(literal.getPredicate());
+				}
+			}
 		}
+		return predicates;
 	}
 
 	/**
@@ -0,0 +1,258 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.TermDictionary;
+
+/**
+ * A {@link TermDictionary} that also caches the VLog names of its terms. Facts
+ * are encoded as tuples of ids on loading, and the VLog names of repeated terms
+ * are computed only once. Conversely, query results that contain VLog names of
+ * known constants are decoded without parsing the names again.
+ *
+ * Results are decoded by lookup only, so that scanning large results does not
+ * add unknown constants or nulls to the dictionary.
+ */
+class VLogTermDictionary {
+
+	private final TermDictionary termDictionary = new TermDictionary();
+
+	private String[] vLogNames = new String[16];
+
+	/**
+	 * Ids of the constants in the dictionary, indexed by their VLog name.
+	 */
+	private final Map<String, Long> constantIdsByVLogName = new HashMap<>();
+
+	TermDictionary getTermDictionary() {
+		return this.termDictionary;
+	}
+
+	/**
+	 * Returns the id of the given term, adding it to the dictionary if necessary.
+	 *
+	 * @param term a constant or named null
+	 * @return id of {@code term}
+	 */
+	long getId(final Term term) {
+		if (!(term instanceof Constant) && !(term instanceof NamedNull)) {
+			throw new RulewerkRuntimeException("Terms in facts must be constants or named nulls. Encountered " + term
+					+ " of type " + term.getType() + ".");
+		}
+		return this.termDictionary.getId(term);
+	}
+
+	/**
+	 * Returns the name used by VLog for the term with the given id.
+	 *
+	 * @param id id of a term in this dictionary
+	 * @return VLog constant string
+	 */
+	String getVLogName(final long id) {
+		final int index = (int) id;
+		this.ensureVLogNamesCapacity(index + 1);
+		String vLogName = this.vLogNames[index];
+		if (vLogName == null) {
+			vLogName = this.computeVLogName(index);
+			this.vLogNames[index] = vLogName;
+			this.registerVLogName(index);
+		}
+		return vLogName;
+	}
+
+	/**
+	 * Adds the arguments of the given facts to the dictionary, and computes the
+	 * VLog names of all terms that do not have one yet, on the given pool.
+	 * Afterwards, {@link #findVLogFactTuples(Collection)} can be called for these
+	 * facts by several threads at once, as long as no terms are added meanwhile.
+	 *
+	 * @param factLists lists of facts with constants and named nulls only
+	 * @param pool      the pool that computes the VLog names
+	 */
+	void prepareVLogNames(final Collection<List<Fact>> factLists, final ForkJoinPool pool) {
+		for (final List<Fact> facts : factLists) {
+			for (final Fact fact : facts) {
+				for (final Term term : fact.getArguments()) {
+					this.getId(term);
+				}
+			}
+		}
+
+		final int size = this.termDictionary.size();
+		this.ensureVLogNamesCapacity(size);
+		final int[] missing = IntStream.range(0, size).filter(index -> this.vLogNames[index] == null).toArray();
+		final int chunkSize = Math.max(1, (missing.length + pool.getParallelism() - 1) / pool.getParallelism());
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int start = 0; start < missing.length; start += chunkSize) {
+			final int from = start;
+			final int to = Math.min(start + chunkSize, missing.length);
+			// tasks write disjoint entries, which are published by join()
+			tasks.add(pool.submit(() -> {
+				for (int i = from; i < to; i++) {
+					this.vLogNames[missing[i]] = this.computeVLogName(missing[i]);
+				}
+			}));
+		}
+		tasks.forEach(ForkJoinTask::join);
+		for (final int index : missing) {
+			this.registerVLogName(index);
+		}
+	}
+
+	/**
+	 * Converts facts to VLog tuples, without modifying the dictionary. All
+	 * arguments must have VLog names already, see
+	 * {@link #prepareVLogNames(Collection, ForkJoinPool)}. As in
+	 * {@link ModelToVLogConverter#toVLogFactTuples(Collection, VLogTermDictionary)},
+	 * the tuples share the name strings of repeated terms.
+	 *
+	 * @param facts facts whose arguments are in the dictionary
+	 * @return VLog fact tuples
+	 */
+	String[][] findVLogFactTuples(final Collection<Fact> facts) {
+		final String[][] tuples = new String[facts.size()][];
+		int t = 0;
+		for (final Fact fact : facts) {
+			final List<Term> terms = fact.getArguments();
+			final String[] tuple = new String[terms.size()];
+			int i = 0;
+			for (final Term term : terms) {
+				tuple[i++] = this.vLogNames[(int) this.termDictionary.findId(term)];
+			}
+			tuples[t++] = tuple;
+		}
+		return tuples;
+	}
+
+	private void ensureVLogNamesCapacity(final int capacity) {
+		if (capacity > this.vLogNames.length) {
+			this.vLogNames = Arrays.copyOf(this.vLogNames, Math.max(capacity, this.vLogNames.length * 2));
+		}
+	}
+
+	private String computeVLogName(final int index) {
+		final Term term = this.termDictionary.getTerm(index);
+		if (term instanceof Constant) {
+			return TermToVLogConverter.getVLogNameForConstant((Constant) term);
+		} else {
+			return TermToVLogConverter.getVLogNameForNamedNull((NamedNull) term);
+		}
+	}
+
+	private void registerVLogName(final int index) {
+		if (this.termDictionary.getTerm(index) instanceof Constant) {
+			this.constantIdsByVLogName.put(this.vLogNames[index], (long) index);
+		}
+	}
+
+	/**
+	 * Encodes the arguments of a fact as a tuple of ids.
+	 *
+	 * @param fact a fact
+	 * @return ids of the arguments of {@code fact}
+	 */
+	long[] toIdTuple(final Fact fact) {
+		final List<Term> terms = fact.getArguments();
+		final long[] tuple = new long[terms.size()];
+		int i = 0;
+		for (final Term term : terms) {
+			tuple[i++] = this.getId(term);
+		}
+		return tuple;
+	}
+
+	/**
+	 * Converts a tuple of ids into the VLog names of the respective terms.
+	 *
+	 * @param tuple ids of terms in this dictionary
+	 * @return VLog fact tuple
+	 */
+	String[] toVLogFactTuple(final long[] tuple) {
+		final String[] vLogFactTuple = new String[tuple.length];
+		for (int i = 0; i < tuple.length; i++) {
+			vLogFactTuple[i] = this.getVLogName(tuple[i]);
+		}
+		return vLogFactTuple;
+	}
+
+	/**
+	 * Converts a VLog term into a {@link Term}, reusing the known term object if
+	 * the term is a constant in this dictionary. Other constants are decoded
+	 * lazily (see {@link VLogToModelConverter#toLazyTerm}), unless interning is
+	 * enabled in {@link Expressions}.
+	 *
+	 * @param vLogTerm term returned by VLog
+	 * @return corresponding {@link Term}
+	 */
+	Term toTerm(final karmaresearch.vlog.Term vLogTerm) {
+		if (vLogTerm.getTermType() == karmaresearch.vlog.Term.TermType.CONSTANT) {
+			final Term constant = this.findConstant(vLogTerm.getName());
+			if (constant != null) {
+				return constant;
+			}
+		}
+		return Expressions.isInterning() ? VLogToModelConverter.toTerm(vLogTerm)
+				: VLogToModelConverter.toLazyTerm(vLogTerm);
+	}
+
+	/**
+	 * Returns the constant in this dictionary with the given VLog name.
+	 *
+	 * @param vLogName VLog constant string
+	 * @return the constant, or {@code null} if no constant of this dictionary has
+	 *         the given VLog name
+	 */
+	Term findConstant(final String vLogName) {
+		final Long id = this.constantIdsByVLogName.get(vLogName);
+		return id == null ? null : this.termDictionary.getTerm(id);
+	}
+
+	/**
+	 * Converts an array of VLog terms into a list of {@link Term}s.
+	 *
+	 * @param vLogTerms terms returned by VLog
+	 * @return list of corresponding {@link Term}s
+	 */
+	List<Term> toTermList(final karmaresearch.vlog.Term[] vLogTerms) {
+		final List<Term> terms = new ArrayList<>(vLogTerms.length);
+		for (final karmaresearch.vlog.Term vLogTerm : vLogTerms) {
+			terms.add(this.toTerm(vLogTerm));
+		}
+		return terms;
+	}
+
+}
@@ -26,9 +26,8 @@ import java.util.List;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Term;
-import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.DatatypeConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.LanguageStringConstantImpl;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
 
@@ -94,6 +93,74 @@ class VLogToModelConverter {
 		}
 	}
 
+	/**
+	 * Converts an internal VLog term ({@link karmaresearch.vlog.Term}) to a VLog
+	 * API model {@link Term}, like {@link #toTerm(karmaresearch.vlog.Term)}, but
+	 * without decoding the names of constants. The returned constants keep the
+	 * VLog name, and only extract IRIs, lexical values, datatypes and language
+	 * tags from it when these are first needed.
+	 *
+	 * @param vLogTerm term to be converted
+	 * @return a {@link Term} that is equal to the result of
+	 *         {@link #toTerm(karmaresearch.vlog.Term)}
+	 */
+	static Term toLazyTerm(karmaresearch.vlog.Term vLogTerm) {
+		final String name = vLogTerm.getName();
+		switch (getTermType(vLogTerm)) {
+		case ABSTRACT_CONSTANT:
+			return new LazyAbstractConstant(name);
+		case DATATYPE_CONSTANT:
+			return new LazyDatatypeConstant(name);
+		case LANGSTRING_CONSTANT:
+			return new LazyLanguageStringConstant(name);
+		default:
+			return new NamedNullImpl(name);
+		}
+	}
+
+	/**
+	 * Determines the type of the {@link Term} that corresponds to the given VLog
+	 * term, in the same way as {@link #toTerm(karmaresearch.vlog.Term)}, but
+	 * without converting it.
+	 *
+	 * @param vLogTerm a VLog constant or blank
+	 * @return type of the corresponding {@link Term}
+	 */
+	static TermType getTermType(karmaresearch.vlog.Term vLogTerm) {
+		switch (vLogTerm.getTermType()) {
+		case CONSTANT:
+			final String name = vLogTerm.getName();
+			if (name.charAt(0) != Serializer.QUOTE) {
+				return TermType.ABSTRACT_CONSTANT;
+			} else if (name.charAt(name.length() - 1) == Serializer.MORE_THAN) {
+				return TermType.DATATYPE_CONSTANT;
+			} else if (name.lastIndexOf(Serializer.AT, name.length() - 2) > -1) {
+				return TermType.LANGSTRING_CONSTANT;
+			} else {
+				return TermType.ABSTRACT_CONSTANT;
+			}
+		case BLANK:
+			return TermType.NAMED_NULL;
+		case VARIABLE:
+			throw new IllegalArgumentException(
+					"VLog variables cannot be converted without knowing if they are universally or existentially quantified.");
+		default:
+			throw new IllegalArgumentException("Unexpected VLog term type: " + vLogTerm.getTermType());
+		}
+	}
+
+	/**
+	 * Checks if the given VLog constant name is an IRI in angle brackets.
+	 *
+	 * @param vLogConstantName the string name used by VLog
+	 * @return {@code true} if the name starts with {@code <} and ends with
+	 *         {@code >}
+	 */
+	static boolean isIri(String vLogConstantName) {
+		return vLogConstantName.charAt(0) == Serializer.LESS_THAN
+				&& vLogConstantName.charAt(vLogConstantName.length() - 1) == Serializer.MORE_THAN;
+	}
+
 	/**
 	 * Creates a {@link Constant} from the given VLog constant name.
 	 * 
@@ -102,29 +169,28 @@ class VLogToModelConverter {
 	 */
 	private static Constant toConstant(String vLogConstantName) {
 		final Constant constant;
-		if (vLogConstantName.charAt(0) == Serializer.LESS_THAN
-				&& vLogConstantName.charAt(vLogConstantName.length() - 1) == Serializer.MORE_THAN) {
+		if (isIri(vLogConstantName)) {
 			// strip <> off of IRIs
-			constant = new AbstractConstantImpl(vLogConstantName.substring(1, vLogConstantName.length() - 1));
+			constant = Expressions.makeAbstractConstant(vLogConstantName.substring(1, vLogConstantName.length() - 1));
 		} else if (vLogConstantName.charAt(0) == Serializer.QUOTE) {
 			if (vLogConstantName.charAt(vLogConstantName.length() - 1) == Serializer.MORE_THAN) {
 				final int startTypeIdx = vLogConstantName.lastIndexOf(Serializer.LESS_THAN,
 						vLogConstantName.length() - 2);
 				final String datatype = vLogConstantName.substring(startTypeIdx + 1, vLogConstantName.length() - 1);
 				final String lexicalValue = vLogConstantName.substring(1, startTypeIdx - 3);
-				constant = new DatatypeConstantImpl(lexicalValue, datatype);
+				constant = Expressions.makeDatatypeConstant(lexicalValue, datatype);
 			} else {
 				final int startTypeIdx = vLogConstantName.lastIndexOf(Serializer.AT, vLogConstantName.length() - 2);
 				if (startTypeIdx > -1) {
 					final String languageTag = vLogConstantName.substring(startTypeIdx + 1, vLogConstantName.length());
 					final String string = vLogConstantName.substring(1, startTypeIdx - 1);
-					constant = new LanguageStringConstantImpl(string, languageTag);
+					constant = Expressions.makeLanguageStringConstant(string, languageTag);
 				} else {
-					constant = new AbstractConstantImpl(vLogConstantName);
+					constant = Expressions.makeAbstractConstant(vLogConstantName);
 				}
 			}
 		} else {
-			constant = new AbstractConstantImpl(vLogConstantName);
+			constant = Expressions.makeAbstractConstant(vLogConstantName);
 		}
 		return constant;
 	}
@@ -0,0 +1,103 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class ExpressionsInterningTest {
+
+	@After
+	public void disableInterning() {
+		Expressions.setInterning(false);
+	}
+
+	@Test
+	public void interningDisabledByDefault() {
+		assertFalse(Expressions.isInterning());
+		final AbstractConstant c1 = Expressions.makeAbstractConstant("c");
+		final AbstractConstant c2 = Expressions.makeAbstractConstant("c");
+		assertEquals(c1, c2);
+		assertNotSame(c1, c2);
+	}
+
+	@Test
+	public void constantsInterned() {
+		Expressions.setInterning(true);
+		assertTrue(Expressions.isInterning());
+
+		assertSame(Expressions.makeAbstractConstant("c"), Expressions.makeAbstractConstant("c"));
+		final DatatypeConstant d1 = Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER);
+		final DatatypeConstant d2 = Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER);
+		assertSame(d1, d2);
+		final LanguageStringConstant l1 = Expressions.makeLanguageStringConstant("a", "en");
+		final LanguageStringConstant l2 = Expressions.makeLanguageStringConstant("a", "en");
+		assertSame(l1, l2);
+	}
+
+	@Test
+	public void differentConstantsNotConflated() {
+		Expressions.setInterning(true);
+
+		final AbstractConstant c = Expressions.makeAbstractConstant("c");
+		final AbstractConstant d = Expressions.makeAbstractConstant("d");
+		final LanguageStringConstant cEn = Expressions.makeLanguageStringConstant("c", "en");
+		final LanguageStringConstant cDe = Expressions.makeLanguageStringConstant("c", "de");
+		assertFalse(c.equals(d));
+		assertFalse(cEn.equals(cDe));
+	}
+
+	@Test
+	public void predicatesInterned() {
+		Expressions.setInterning(true);
+
+		final Predicate p1 = Expressions.makePredicate("p", 1);
+		assertSame(p1, Expressions.makePredicate("p", 1));
+		assertNotSame(p1, Expressions.makePredicate("p", 2));
+
+		final Fact fact = Expressions.makeFact("p", Expressions.makeAbstractConstant("c"));
+		assertSame(p1, fact.getPredicate());
+	}
+
+	@Test
+	public void disablingInterningCreatesNewObjects() {
+		Expressions.setInterning(true);
+		final AbstractConstant c1 = Expressions.makeAbstractConstant("c");
+		Expressions.setInterning(false);
+		final AbstractConstant c2 = Expressions.makeAbstractConstant("c");
+		assertEquals(c1, c2);
+		assertNotSame(c1, c2);
+	}
+
+}
@@ -207,4 +207,30 @@ public class MergingPrefixDeclarationRegistryTest {
 		assertNotEquals(RELATIVE, resolvedIri);
 		assertEquals("rulewerk_generated_0:" + RELATIVE, resolvedIri);
 	}
+
+	@Test
+	public void unresolveAbsoluteIri_prefixIriWithRegexCharacters_succeeds() {
+		prefixDeclarations.setPrefixIri("eg:", "https://example.org/a+b?c=");
+		assertEquals("eg:d", prefixDeclarations.unresolveAbsoluteIri("https://example.org/a+b?c=d"));
+		assertEquals("https://example.org/aab?c=d",
+				prefixDeclarations.unresolveAbsoluteIri("https://example.org/aab?c=d"));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_manyPrefixes_longestMatchWins() {
+		for (int i = 0; i < 100; i++) {
+			prefixDeclarations.setPrefixIri("p" + i + ":", BASE + i + "/");
+		}
+		prefixDeclarations.setPrefixIri("q:", BASE + "1");
+		assertEquals("p42:x", prefixDeclarations.unresolveAbsoluteIri(BASE + "42/x"));
+		assertEquals("q:00", prefixDeclarations.unresolveAbsoluteIri(BASE + "100"));
+		assertEquals(BASE + "x", prefixDeclarations.unresolveAbsoluteIri(BASE + "x"));
+	}
+
+	@Test
+	public void unresolveAbsoluteIri_baseAndPrefixEqual_baseWins() {
+		prefixDeclarations.setBaseIri(BASE);
+		prefixDeclarations.setPrefixIri("eg:", BASE);
+		assertEquals(RELATIVE, prefixDeclarations.unresolveAbsoluteIri(BASE + RELATIVE));
+	}
 }
@@ -0,0 +1,89 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+
+public class SerializerTest {
+
+	private final List<Term> terms = Arrays.asList(Expressions.makeAbstractConstant("c"),
+			Expressions.makeAbstractConstant("http://example.org/c"), Expressions.makeAbstractConstant("42"),
+			Expressions.makeAbstractConstant("-4.2e+1"), Expressions.makeAbstractConstant(".5"),
+			Expressions.makeAbstractConstant("+.5"), Expressions.makeAbstractConstant("1e"),
+			Expressions.makeAbstractConstant("true"), Expressions.makeAbstractConstant("2x"),
+			Expressions.makeDatatypeConstant("a \"quoted\"\t\\string\n", PrefixDeclarationRegistry.XSD_STRING),
+			Expressions.makeDatatypeConstant("", PrefixDeclarationRegistry.XSD_STRING),
+			Expressions.makeDatatypeConstant("23", PrefixDeclarationRegistry.XSD_INTEGER),
+			Expressions.makeDatatypeConstant("x\r\f\b", "http://example.org/datatype"),
+			Expressions.makeLanguageStringConstant("chat\"", "fr"), new NamedNullImpl("n1"),
+			Expressions.makeUniversalVariable("X"), Expressions.makeExistentialVariable("Y"));
+
+	@Test
+	public void writeTerm_matchesSyntacticRepresentation() throws IOException {
+		for (final Term term : this.terms) {
+			final StringBuilder stringBuilder = new StringBuilder();
+			Serializer.writeTerm(stringBuilder, term, Function.identity());
+			assertEquals(term.getSyntacticRepresentation(), stringBuilder.toString());
+		}
+	}
+
+	@Test
+	public void getString_numbersAndBooleansInAngleBrackets() {
+		assertEquals("c", Serializer.getString(Expressions.makeAbstractConstant("c")));
+		assertEquals("<42>", Serializer.getString(Expressions.makeAbstractConstant("42")));
+		assertEquals("<-4.2e+1>", Serializer.getString(Expressions.makeAbstractConstant("-4.2e+1")));
+		assertEquals("<.5>", Serializer.getString(Expressions.makeAbstractConstant(".5")));
+		assertEquals("+.5", Serializer.getString(Expressions.makeAbstractConstant("+.5")));
+		assertEquals("1e", Serializer.getString(Expressions.makeAbstractConstant("1e")));
+		assertEquals("<false>", Serializer.getString(Expressions.makeAbstractConstant("false")));
+	}
+
+	@Test
+	public void writeFact_matchesFactString() throws IOException {
+		final Fact fact = Expressions.makeFact("http://example.org/p", Expressions.makeAbstractConstant("c"),
+				Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_DOUBLE));
+		final Function<String, String> iriTransformer = iri -> iri.replace("http://example.org/", "eg:");
+
+		final StringBuilder stringBuilder = new StringBuilder();
+		Serializer.writeFact(stringBuilder, fact);
+		assertEquals(Serializer.getFactString(fact), stringBuilder.toString());
+
+		stringBuilder.setLength(0);
+		Serializer.writeFact(stringBuilder, fact.getPredicate(), fact.getArguments(), iriTransformer);
+		assertEquals("eg:p(c, 1) .\n", stringBuilder.toString());
+		assertEquals(Serializer.getFactString(fact.getPredicate(), fact.getArguments(), iriTransformer),
+				stringBuilder.toString());
+	}
+
+}
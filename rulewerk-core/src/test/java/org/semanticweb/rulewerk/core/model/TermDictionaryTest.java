@@ -0,0 +1,88 @@
+package org.semanticweb.rulewerk.core.model;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.TermDictionary;
+
+public class TermDictionaryTest {
+
+	final Term c = Expressions.makeAbstractConstant("c");
+	final Term d = Expressions.makeAbstractConstant("d");
+	final Term n = new NamedNullImpl("n");
+
+	@Test
+	public void idsAreDense() {
+		final TermDictionary dictionary = new TermDictionary();
+		assertEquals(0, dictionary.getId(this.c));
+		assertEquals(1, dictionary.getId(this.d));
+		assertEquals(0, dictionary.getId(Expressions.makeAbstractConstant("c")));
+		assertEquals(2, dictionary.getId(this.n));
+		assertEquals(3, dictionary.size());
+	}
+
+	@Test
+	public void findIdDoesNotAddTerms() {
+		final TermDictionary dictionary = new TermDictionary();
+		assertEquals(TermDictionary.NO_ID, dictionary.findId(this.c));
+		assertEquals(0, dictionary.size());
+		dictionary.getId(this.c);
+		assertEquals(0, dictionary.findId(this.c));
+	}
+
+	@Test
+	public void encodeDecodeTuples() {
+		final TermDictionary dictionary = new TermDictionary();
+		final List<Term> terms = Arrays.asList(this.c, this.d, this.c, this.n);
+		final long[] tuple = dictionary.getIds(terms);
+		assertArrayEquals(new long[] { 0, 1, 0, 2 }, tuple);
+		assertEquals(terms, dictionary.getTerms(tuple));
+	}
+
+	@Test
+	public void manyTerms() {
+		final TermDictionary dictionary = new TermDictionary();
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, dictionary.getId(Expressions.makeAbstractConstant("c" + i)));
+		}
+		assertEquals(Expressions.makeAbstractConstant("c999"), dictionary.getTerm(999));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void variablesNotEncoded() {
+		new TermDictionary().getId(Expressions.makeUniversalVariable("X"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownIdRejected() {
+		new TermDictionary().getTerm(0);
+	}
+
+}
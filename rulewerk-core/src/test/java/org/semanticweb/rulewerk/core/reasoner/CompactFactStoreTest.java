@@ -0,0 +1,216 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+
+public class CompactFactStoreTest {
+
+	private final Fact fact1 = Expressions.makeFact("p", Expressions.makeAbstractConstant("a"),
+			Expressions.makeAbstractConstant("b"));
+	private final Fact fact2 = Expressions.makeFact("p", Expressions.makeAbstractConstant("b"),
+			Expressions.makeAbstractConstant("a"));
+	private final Fact fact3 = Expressions.makeFact("q", Expressions.makeDatatypeConstant("1",
+			"http://www.w3.org/2001/XMLSchema#integer"));
+	private final Fact fact4 = Expressions.makeFact("q", new NamedNullImpl("n"));
+	private final Rule rule = Expressions.makeRule(
+			Expressions.makePositiveLiteral("q", Expressions.makeUniversalVariable("X")),
+			Expressions.makePositiveLiteral("p", Expressions.makeUniversalVariable("X"),
+					Expressions.makeUniversalVariable("Y")));
+
+	@Test
+	public void addAndRetrieveFacts() {
+		final CompactFactStore store = new CompactFactStore();
+		assertTrue(store.add(this.fact1));
+		assertTrue(store.add(this.fact3));
+		assertTrue(store.add(this.fact2));
+		assertFalse(store.add(Expressions.makeFact("p", Expressions.makeAbstractConstant("a"),
+				Expressions.makeAbstractConstant("b"))));
+
+		assertEquals(3, store.size());
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), store.getFacts());
+		assertEquals(new HashSet<>(Arrays.asList(this.fact1, this.fact2)), store.getFacts(this.fact1.getPredicate()));
+		assertTrue(store.getFacts(this.fact1.getPredicate()).contains(this.fact2));
+		assertFalse(store.getFacts(this.fact1.getPredicate()).contains(this.fact3));
+		assertTrue(store.contains(this.fact3));
+		assertFalse(store.contains(this.fact4));
+	}
+
+	@Test
+	public void removeFacts() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.fact1);
+		store.add(this.fact2);
+		store.add(this.fact3);
+
+		assertFalse(store.remove(this.fact4));
+		assertTrue(store.remove(this.fact1));
+		assertFalse(store.remove(this.fact1));
+		assertTrue(store.remove(this.fact3));
+
+		assertEquals(Collections.singletonList(this.fact2), store.getFacts());
+		assertEquals(Collections.singleton(this.fact1.getPredicate()), store.getPredicates());
+		assertTrue(store.getFacts(this.fact3.getPredicate()).isEmpty());
+		assertTrue(store.add(this.fact1));
+		assertEquals(Arrays.asList(this.fact2, this.fact1), store.getFacts());
+	}
+
+	@Test
+	public void manyFacts() {
+		final CompactFactStore store = new CompactFactStore();
+		final List<Fact> facts = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			facts.add(Expressions.makeFact("r", Expressions.makeAbstractConstant("c" + i % 100),
+					Expressions.makeAbstractConstant("c" + i / 100)));
+		}
+		facts.forEach(store::add);
+		facts.forEach(fact -> assertFalse(store.add(fact)));
+		assertEquals(facts, store.getFacts());
+
+		for (int i = 0; i < 1000; i += 2) {
+			assertTrue(store.remove(facts.get(i)));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 2 == 1, store.contains(facts.get(i)));
+		}
+		assertEquals(500, store.size());
+	}
+
+	@Test
+	public void removeMostFacts_keepsOrderAndAllowsReadding() {
+		final CompactFactStore store = new CompactFactStore();
+		final List<Fact> facts = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			facts.add(Expressions.makeFact("r", Expressions.makeAbstractConstant("c" + i)));
+		}
+		facts.forEach(store::add);
+		final List<Fact> remaining = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			if (i % 10 == 3) {
+				remaining.add(facts.get(i));
+			} else {
+				assertTrue(store.remove(facts.get(i)));
+				assertFalse(store.remove(facts.get(i)));
+			}
+		}
+		assertEquals(remaining, store.getFacts());
+		assertEquals(new ArrayList<>(remaining), new ArrayList<>(store.getFacts(remaining.get(0).getPredicate())));
+
+		assertTrue(store.add(facts.get(0)));
+		remaining.add(facts.get(0));
+		assertEquals(remaining, store.getFacts());
+		assertEquals(101, store.size());
+	}
+
+	@Test
+	public void getFacts_isSnapshot() {
+		final CompactFactStore store = new CompactFactStore();
+		final List<Fact> facts = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			facts.add(Expressions.makeFact("r", Expressions.makeAbstractConstant("c" + i)));
+		}
+		facts.forEach(store::add);
+		store.remove(facts.get(0));
+		final List<Fact> expected = facts.subList(1, 100);
+		final List<Fact> snapshot = store.getFacts();
+		final Iterator<PositiveLiteral> iterator = store.getFacts(facts.get(0).getPredicate()).iterator();
+
+		// removes enough facts to compact the tuples
+		for (int i = 1; i < 90; i++) {
+			store.remove(facts.get(i));
+		}
+		store.add(this.fact1);
+
+		assertEquals(expected, snapshot);
+		assertEquals(facts.get(50), snapshot.get(49));
+		assertEquals(expected, new ArrayList<>(snapshot));
+		final List<Fact> iterated = new ArrayList<>();
+		iterator.forEachRemaining(fact -> iterated.add((Fact) fact));
+		assertEquals(expected, iterated);
+		final List<Fact> current = new ArrayList<>(facts.subList(90, 100));
+		current.add(this.fact1);
+		assertEquals(current, store.getFacts());
+	}
+
+	@Test
+	public void getFactsByPredicate() {
+		final CompactFactStore store = new CompactFactStore();
+		store.add(this.fact1);
+		store.add(this.fact2);
+		store.add(this.fact3);
+		final Predicate p = this.fact1.getPredicate();
+		final Predicate q = this.fact3.getPredicate();
+
+		assertEquals(new HashSet<>(Arrays.asList(this.fact1, this.fact2)), store.getFactsByPredicate().get(p));
+		assertEquals(Collections.singleton(this.fact3), store.getFactsByPredicate().get(q));
+		assertEquals(2, store.getFactsByPredicate().size());
+
+		store.remove(this.fact3);
+		assertNull(store.getFactsByPredicate().get(q));
+		assertEquals(Collections.singleton(p), store.getFactsByPredicate().keySet());
+	}
+
+	@Test
+	public void knowledgeBaseWithCompactFactStorage() {
+		final KnowledgeBase kb = KnowledgeBase.withCompactFactStorage();
+		kb.addStatements(this.fact1, this.rule, this.fact3, this.fact2, this.fact1);
+		final Predicate p = this.fact1.getPredicate();
+
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), kb.getFacts());
+		assertEquals(Collections.singletonList(this.rule), kb.getRules());
+		assertEquals(new HashSet<>(Arrays.asList(this.fact1, this.fact2)), kb.getFacts(p));
+		assertEquals(new HashSet<>(Arrays.asList(p, this.fact3.getPredicate())), kb.getFactPredicates());
+
+		final List<Statement> statements = new ArrayList<>();
+		kb.forEach(statements::add);
+		assertEquals(Arrays.asList(this.rule, this.fact1, this.fact2, this.fact3), statements);
+		assertEquals(4, kb.getStatements().size());
+		assertTrue(kb.getStatements().contains(this.fact2));
+
+		kb.removeStatements(this.fact2, this.fact4);
+		assertEquals(Arrays.asList(this.fact1, this.fact3), kb.getFacts());
+		assertFalse(kb.getStatements().contains(this.fact2));
+
+		kb.removeStatements(kb.getFacts());
+		assertTrue(kb.getFacts().isEmpty());
+		assertEquals(Collections.singletonList(this.rule), kb.getRules());
+	}
+
+}
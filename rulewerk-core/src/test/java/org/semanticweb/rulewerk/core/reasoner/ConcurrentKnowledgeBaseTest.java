@@ -0,0 +1,170 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class ConcurrentKnowledgeBaseTest {
+
+	private static final int THREADS = 4;
+	private static final int FACTS_PER_THREAD = 2000;
+
+	private static class CountingListener implements KnowledgeBaseListener {
+
+		final AtomicInteger added = new AtomicInteger();
+		final AtomicInteger notifications = new AtomicInteger();
+
+		@Override
+		public void onStatementAdded(final Statement statementAdded) {
+			this.added.incrementAndGet();
+			this.notifications.incrementAndGet();
+		}
+
+		@Override
+		public void onStatementsAdded(final List<Statement> statementsAdded) {
+			this.added.addAndGet(statementsAdded.size());
+			this.notifications.incrementAndGet();
+		}
+
+		@Override
+		public void onStatementRemoved(final Statement statementRemoved) {
+		}
+
+		@Override
+		public void onStatementsRemoved(final List<Statement> statementsRemoved) {
+		}
+	}
+
+	@Test
+	public void concurrentAdditionsAreDeduplicated() throws Exception {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final CountingListener listener = new CountingListener();
+		kb.addListener(listener);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int offset = thread * FACTS_PER_THREAD / 2;
+			futures.add(executor.submit(() -> {
+				final List<Fact> batch = new ArrayList<>();
+				for (int i = offset; i < offset + FACTS_PER_THREAD; i++) {
+					batch.add(Expressions.makeFact("p", Expressions.makeAbstractConstant("c" + i)));
+					if (batch.size() == 100) {
+						kb.addStatements(batch);
+						batch.clear();
+					}
+				}
+				kb.addStatements(batch);
+			}));
+		}
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		final int expected = (THREADS + 1) * FACTS_PER_THREAD / 2;
+		final Set<Fact> facts = new HashSet<>(kb.getFacts());
+		assertEquals(expected, facts.size());
+		assertEquals(expected, kb.getFacts().size());
+		assertEquals(expected, listener.added.get());
+		// one notification per batch that added new facts
+		assertTrue(listener.notifications.get() <= THREADS * FACTS_PER_THREAD / 100);
+	}
+
+	@Test
+	public void returnedCollectionsAreCopies() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final Fact fact1 = Expressions.makeFact("p", Expressions.makeAbstractConstant("a"));
+		final Fact fact2 = Expressions.makeFact("p", Expressions.makeAbstractConstant("b"));
+		kb.addStatement(fact1);
+
+		final Set<?> facts = kb.getFacts(fact1.getPredicate());
+		kb.addStatement(fact2);
+		assertEquals(1, facts.size());
+		assertEquals(2, kb.getFacts(fact1.getPredicate()).size());
+		assertEquals(2, kb.getStatements().size());
+	}
+
+	@Test
+	public void listenersAreNotifiedWithoutHoldingLocks() throws Exception {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final Fact fact1 = Expressions.makeFact("p", Expressions.makeAbstractConstant("a"));
+		final Fact fact2 = Expressions.makeFact("p", Expressions.makeAbstractConstant("b"));
+		final Rule rule = Expressions.makeRule(
+				Expressions.makePositiveLiteral("q", Expressions.makeUniversalVariable("x")),
+				Expressions.makePositiveLiteral("p", Expressions.makeUniversalVariable("x")));
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		kb.addListener(new CountingListener() {
+			@Override
+			public void onStatementsAdded(final List<Statement> statementsAdded) {
+				if (statementsAdded.contains(fact1)) {
+					try {
+						// would deadlock if the adding thread still held a lock
+						executor.submit(() -> kb.addStatements(fact2)).get(10, TimeUnit.SECONDS);
+					} catch (final Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}
+		});
+
+		kb.addStatements(rule, fact1);
+		executor.shutdown();
+
+		assertEquals(Arrays.asList(fact1, fact2), kb.getFacts());
+		assertEquals(Arrays.asList(rule, fact1, fact2), new ArrayList<>(kb.getStatements()));
+	}
+
+	@Test
+	public void factsOfDifferentPredicates() {
+		final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+		final Fact fact1 = Expressions.makeFact("p", Expressions.makeAbstractConstant("a"));
+		final Fact fact2 = Expressions.makeFact("q", Expressions.makeAbstractConstant("a"));
+		kb.addStatements(fact1, fact2, fact1);
+		assertEquals(new HashSet<>(Arrays.asList(fact1.getPredicate(), fact2.getPredicate())),
+				kb.getFactPredicates());
+
+		kb.removeStatements(fact1);
+		assertEquals(Collections.singleton(fact2.getPredicate()), kb.getFactPredicates());
+		assertTrue(kb.getFacts(fact1.getPredicate()).isEmpty());
+		assertEquals(Collections.singletonList(fact2), kb.getFacts());
+	}
+
+}
@@ -23,10 +23,20 @@ package org.semanticweb.rulewerk.core.reasoner;
 import static org.junit.Assert.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -149,6 +159,32 @@ public class KnowledgeBaseTest {
 		assertEquals("@base <" + baseIri + "> .\nP(c) .\nP(d) .\nQ(c) .\n", stream.toString());
 	}
 
+	@Test
+	public void writeKnowledgeBase_nonAsciiCharacters_writesUtf8() throws IOException {
+		final Fact fact = Expressions.makeFact("P", Expressions.makeAbstractConstant("Pragerstraße"));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(fact);
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		kb.writeKnowledgeBase(stream);
+		assertEquals("P(Pragerstraße) .\n", new String(stream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void writeKnowledgeBase_gzipFile_isCompressed() throws IOException {
+		final File file = File.createTempFile("knowledgeBase", ".rls.gz");
+		file.deleteOnExit();
+		this.kb.writeKnowledgeBase(file.getPath());
+		try (InputStream stream = new GZIPInputStream(new FileInputStream(file))) {
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[1024];
+			int length;
+			while ((length = stream.read(buffer)) > 0) {
+				content.write(buffer, 0, length);
+			}
+			assertEquals("P(c) .\nP(d) .\nQ(c) .\n", new String(content.toByteArray(), StandardCharsets.UTF_8));
+		}
+	}
+
 	@Test
 	public void writeKnowledgeBase_alsoRuleAndDataSource_succeeds() throws IOException {
 		String sparqlIri = "https://example.org/sparql";
@@ -162,4 +198,104 @@ public class KnowledgeBaseTest {
 		assertEquals("@source S[1]: sparql(<" + sparqlIri + ">, \"?X\", \"" + sparqlBgp
 				+ "\") .\nP(?X) :- Q(?X) .\nP(c) .\nP(d) .\nQ(c) .\n", stream.toString());
 	}
+
+	@Test
+	public void getRules_returnsRulesInOrder() {
+		final Rule rule2 = Expressions.makeRule(literal2, literal1);
+		this.kb.addStatements(rule2, this.rule);
+
+		assertEquals(Arrays.asList(rule2, this.rule), this.kb.getRules());
+		assertSame(this.kb.getRules(), this.kb.getRules());
+
+		this.kb.removeStatement(rule2);
+		assertEquals(Arrays.asList(this.rule), this.kb.getRules());
+	}
+
+	@Test
+	public void getFacts_afterRemoval_succeeds() {
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), this.kb.getFacts());
+		this.kb.removeStatement(this.fact2);
+		assertEquals(Arrays.asList(this.fact1, this.fact3), this.kb.getFacts());
+	}
+
+	@Test
+	public void getFacts_manyRemovals_keepsOrder() {
+		final List<Fact> facts = this.kb.getFacts();
+		final List<Fact> expected = new ArrayList<>(facts);
+		for (int i = 0; i < 100; i++) {
+			final Fact fact = Expressions.makeFact("R", Expressions.makeAbstractConstant("c" + i));
+			this.kb.addStatement(fact);
+			expected.add(fact);
+		}
+		for (int i = 0; i < 100; i += 3) {
+			final Fact fact = Expressions.makeFact("R", Expressions.makeAbstractConstant("c" + i));
+			this.kb.removeStatement(fact);
+			expected.remove(fact);
+			assertEquals(expected, facts);
+		}
+		assertTrue(facts.contains(this.fact2));
+		assertEquals(66, this.kb.getFacts(Expressions.makePredicate("R", 1)).size());
+	}
+
+	@Test
+	public void removeStatements_allFactsThroughGetter_succeeds() {
+		for (int i = 0; i < 100; i++) {
+			this.kb.addStatement(Expressions.makeFact("R", Expressions.makeAbstractConstant("c" + i)));
+		}
+		this.kb.addStatement(this.rule);
+
+		this.kb.removeStatements(this.kb.getFacts());
+
+		assertTrue(this.kb.getFacts().isEmpty());
+		assertTrue(this.kb.getFactsByPredicate().isEmpty());
+		assertEquals(Arrays.asList(this.rule), this.kb.getRules());
+
+		this.kb.addStatement(this.fact1);
+		assertEquals(Arrays.asList(this.fact1), this.kb.getFacts());
+	}
+
+	@Test
+	public void getRulesWithPredicate_reflectsLaterChanges() {
+		final Set<Rule> rules = this.kb.getRulesWithHeadPredicate(literal1.getPredicate());
+		assertTrue(rules.isEmpty());
+
+		this.kb.addStatement(this.rule);
+		assertEquals(Collections.singleton(this.rule), rules);
+		this.kb.removeStatement(this.rule);
+		assertTrue(rules.isEmpty());
+		this.kb.addStatement(this.rule);
+		assertEquals(Collections.singleton(this.rule), rules);
+	}
+
+	@Test
+	public void getRulesWithPredicate_succeeds() {
+		this.kb.addStatement(this.rule);
+
+		assertEquals(Collections.singleton(this.rule), this.kb.getRulesWithHeadPredicate(literal1.getPredicate()));
+		assertEquals(Collections.singleton(this.rule), this.kb.getRulesWithBodyPredicate(literal2.getPredicate()));
+		assertTrue(this.kb.getRulesWithHeadPredicate(literal2.getPredicate()).isEmpty());
+		assertEquals(Collections.singleton(literal1.getPredicate()), this.kb.getRuleHeadPredicates());
+
+		this.kb.removeStatement(this.rule);
+		assertTrue(this.kb.getRulesWithBodyPredicate(literal2.getPredicate()).isEmpty());
+		assertTrue(this.kb.getRuleHeadPredicates().isEmpty());
+	}
+
+	@Test
+	public void getDataSourceDeclarations_byPredicate_succeeds() throws IOException {
+		final DataSourceDeclarationImpl dataSourceDeclaration = new DataSourceDeclarationImpl(
+				Expressions.makePredicate("S", 1),
+				new SparqlQueryResultDataSource(new URL("https://example.org/"), "var", "?var <a> <b>"));
+		this.kb.addStatement(dataSourceDeclaration);
+
+		assertEquals(Arrays.asList(dataSourceDeclaration), this.kb.getDataSourceDeclarations());
+		assertEquals(Collections.singleton(dataSourceDeclaration),
+				this.kb.getDataSourceDeclarations(dataSourceDeclaration.getPredicate()));
+		assertEquals(Collections.singleton(dataSourceDeclaration.getPredicate()),
+				this.kb.getDataSourceDeclarationPredicates());
+		assertEquals(new HashSet<>(Arrays.asList(this.fact1.getPredicate(), this.fact3.getPredicate())),
+				this.kb.getFactPredicates());
+		assertEquals(new HashSet<>(Arrays.asList(this.fact1, this.fact2)), this.kb.getFacts(this.fact1.getPredicate()));
+	}
+
 }
@@ -29,13 +29,17 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.internal.util.collections.Sets;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
@@ -46,8 +50,10 @@ import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultPage;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
 
 public class AnswerQueryTest {
@@ -338,4 +344,135 @@ public class AnswerQueryTest {
 		}
 	}
 
+	@Test
+	public void answerQueries_agreesWithAnswerQuery() throws IOException {
+		final Constant constantC = Expressions.makeAbstractConstant("c");
+		final Constant constantD = Expressions.makeAbstractConstant("d");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", constantC, constantC),
+				Expressions.makeFact("p", constantC, constantD), Expressions.makeFact("q", constantD));
+
+		final List<PositiveLiteral> queries = Arrays.asList(Expressions.makePositiveLiteral("p", x, y),
+				Expressions.makePositiveLiteral("p", x, x), Expressions.makePositiveLiteral("p", y, y),
+				Expressions.makePositiveLiteral("p", x, constantD), Expressions.makePositiveLiteral("q", x),
+				Expressions.makePositiveLiteral("r", x));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final Map<PositiveLiteral, QueryResultIterator> results = reasoner.answerQueries(queries, true);
+
+			assertEquals(queries, new ArrayList<>(results.keySet()));
+			for (final PositiveLiteral query : queries) {
+				assertEquals(QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true)),
+						QueryResultsUtils.collectQueryResults(results.get(query)));
+			}
+		}
+	}
+
+	@Test
+	public void answerQueriesWithAction_agreesWithAnswerQuery() throws IOException {
+		final Constant constantC = Expressions.makeAbstractConstant("c");
+		final Constant constantD = Expressions.makeAbstractConstant("d");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", constantC, constantC),
+				Expressions.makeFact("p", constantC, constantD), Expressions.makeFact("q", constantD));
+
+		final List<PositiveLiteral> queries = Arrays.asList(Expressions.makePositiveLiteral("p", x, y),
+				Expressions.makePositiveLiteral("p", x, x), Expressions.makePositiveLiteral("p", y, y),
+				Expressions.makePositiveLiteral("p", x, constantD), Expressions.makePositiveLiteral("q", x),
+				Expressions.makePositiveLiteral("r", x));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final Map<PositiveLiteral, Set<List<Term>>> answers = new HashMap<>();
+			final Map<PositiveLiteral, Correctness> correctness = reasoner.answerQueries(queries, true,
+					(query, answer) -> answers.computeIfAbsent(query, q -> new HashSet<>()).add(answer.getTerms()));
+
+			assertEquals(queries, new ArrayList<>(correctness.keySet()));
+			for (final PositiveLiteral query : queries) {
+				try (final QueryResultIterator results = reasoner.answerQuery(query, true)) {
+					assertEquals(QueryResultsUtils.collectQueryResults(results),
+							answers.getOrDefault(query, Collections.emptySet()));
+					assertEquals(results.getCorrectness(), correctness.get(query));
+				}
+			}
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void answerQueries_notLoaded_throwsException() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.answerQueries(Collections.emptyList(), true);
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void answerQueries_nullQuery_throwsException() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(new KnowledgeBase())) {
+			reasoner.reason();
+			reasoner.answerQueries(Collections.singletonList(null), true);
+		}
+	}
+
+	@Test
+	public void answerQueryPage_returnsAllAnswersOnce() throws IOException {
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final KnowledgeBase kb = new KnowledgeBase();
+		for (int i = 0; i < 10; i++) {
+			kb.addStatement(Expressions.makeFact("p", Expressions.makeAbstractConstant("c" + i)));
+		}
+		final PositiveLiteral query = Expressions.makePositiveLiteral("p", x);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final List<List<Term>> pagedResults = new ArrayList<>();
+			String pageToken = null;
+			do {
+				final QueryResultPage page = reasoner.answerQueryPage(query, true, 3, pageToken);
+				assertEquals(pagedResults.size(), page.getOffset());
+				assertTrue(page.getResults().size() <= 3);
+				page.getResults().forEach(result -> pagedResults.add(result.getTerms()));
+				pageToken = page.getNextPageToken();
+			} while (pageToken != null);
+
+			assertEquals(10, pagedResults.size());
+			assertEquals(QueryResultsUtils.collectQueryResults(reasoner.answerQuery(query, true)),
+					new HashSet<>(pagedResults));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void answerQueryPage_tokenExpiresOnReasoning() throws IOException {
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(Expressions.makeFact("p", Expressions.makeAbstractConstant("c")),
+				Expressions.makeFact("p", Expressions.makeAbstractConstant("d")));
+		final PositiveLiteral query = Expressions.makePositiveLiteral("p", x);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final QueryResultPage page = reasoner.answerQueryPage(query, true, 1, null);
+			kb.addStatement(Expressions.makeFact("p", Expressions.makeAbstractConstant("e")));
+			reasoner.reason();
+			reasoner.answerQueryPage(query, true, 1, page.getNextPageToken());
+		}
+	}
+
+	@Test
+	public void matches_checksConstantsAndRepeatedVariables() {
+		final Constant constantC = Expressions.makeAbstractConstant("c");
+		final Constant constantD = Expressions.makeAbstractConstant("d");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+
+		final PositiveLiteral pXYXc = Expressions.makePositiveLiteral("p", x, y, x, constantC);
+		assertTrue(VLogReasoner.matches(pXYXc, Arrays.asList(constantD, constantC, constantD, constantC)));
+		assertFalse(VLogReasoner.matches(pXYXc, Arrays.asList(constantD, constantC, constantC, constantC)));
+		assertFalse(VLogReasoner.matches(pXYXc, Arrays.asList(constantD, constantC, constantD, constantD)));
+	}
+
 }
@@ -0,0 +1,132 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+
+public class BinaryFactFileDataSourceTest {
+
+	@Test
+	public void getData_agreesWithInMemoryDataSource() throws IOException {
+		final File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			final InMemoryDataSource expected = new InMemoryDataSource(2, 1);
+			try (BinaryFactFileWriter writer = new BinaryFactFileWriter(file.getPath(), 2)) {
+				for (int i = 0; i < 40; i++) {
+					expected.addTuple("c" + i, "http://example.org/d" + (i % 3));
+					writer.addTuple("c" + i, "http://example.org/d" + (i % 3));
+				}
+				assertEquals(40, writer.getSize());
+			}
+
+			final BinaryFactFileDataSource dataSource = new BinaryFactFileDataSource(file.getPath());
+			assertEquals(2, dataSource.getArity());
+			assertEquals(40, dataSource.getSize());
+			assertArrayEquals(expected.getData(), dataSource.getData());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void getData_termsAgreeWithConverter() throws IOException {
+		final Fact fact1 = Expressions.makeFact("p", Expressions.makeAbstractConstant("http://example.org/c"),
+				Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER));
+		final Fact fact2 = Expressions.makeFact("p", Expressions.makeLanguageStringConstant("Straße", "de"),
+				new NamedNullImpl("n"));
+		final File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			try (BinaryFactFileWriter writer = new BinaryFactFileWriter(file.getPath(), 2)) {
+				writer.addTuple(fact1.getArguments());
+				writer.addTuple(fact2.getArguments());
+			}
+
+			assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(Arrays.asList(fact1, fact2)),
+					new BinaryFactFileDataSource(file.getPath()).getData());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void getData_emptyFile_succeeds() throws IOException {
+		final File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			new BinaryFactFileWriter(file.getPath(), 3).close();
+
+			final BinaryFactFileDataSource dataSource = new BinaryFactFileDataSource(file.getPath());
+			assertEquals(3, (int) dataSource.getRequiredArity().get());
+			assertEquals(0, dataSource.getData().length);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void getSyntacticRepresentation_succeeds() throws IOException {
+		final File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			new BinaryFactFileWriter(file.getPath(), 1).close();
+
+			assertEquals("load-binary(\"" + file.getPath() + "\")",
+					new BinaryFactFileDataSource(file.getPath()).getSyntacticRepresentation());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_invalidFile_throwsException() throws IOException {
+		final File file = File.createTempFile("facts", ".csv");
+		try {
+			try (OutputStream stream = new FileOutputStream(file)) {
+				stream.write("c,d\nd,e\nf,g\nh,i\nj,k\n".getBytes());
+			}
+			new BinaryFactFileDataSource(file.getPath());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addTuple_wrongArity_throwsException() throws IOException {
+		final File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try (BinaryFactFileWriter writer = new BinaryFactFileWriter(file.getPath(), 2)) {
+			writer.addTuple("c");
+		} finally {
+			file.delete();
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class BinarySnapshotTest {
+
+	final Term iri = Expressions.makeAbstractConstant("http://example.org/c");
+	final Term relative = Expressions.makeAbstractConstant("c");
+	final Term number = Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER);
+	final Term string = Expressions.makeLanguageStringConstant("chat", "fr");
+	final Term namedNull = new NamedNullImpl("n");
+
+	@Test
+	public void read_factsAsColumnarDataSources() throws IOException, RulewerkException {
+		final Fact fact1 = Expressions.makeFact("p", this.iri, this.relative, this.number);
+		final Fact fact2 = Expressions.makeFact("p", this.string, this.namedNull, this.iri);
+		final Fact fact3 = Expressions.makeFact("q", this.namedNull);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(fact1, fact2, fact3);
+
+		final KnowledgeBase result = roundTrip(kb, new StringBuilder());
+
+		final List<DataSourceDeclaration> declarations = result.getDataSourceDeclarations();
+		assertEquals(2, declarations.size());
+		assertTrue(result.getFacts().isEmpty());
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(Arrays.asList(fact1, fact2)),
+				getData(result, fact1));
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(Arrays.asList(fact3)), getData(result, fact3));
+	}
+
+	@Test
+	public void read_inMemoryDataSources() throws IOException, RulewerkException {
+		final ColumnarInMemoryDataSource dataSource = new ColumnarInMemoryDataSource(2, 0);
+		dataSource.addTuple("http://example.org/c", "d");
+		dataSource.addTuple("\"1\"^^<" + PrefixDeclarationRegistry.XSD_INTEGER + ">", "http://example.org/c");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("p", 2), dataSource));
+
+		final KnowledgeBase result = roundTrip(kb, new StringBuilder());
+
+		assertEquals(1, result.getDataSourceDeclarations().size());
+		final InMemoryDataSource resultDataSource = (InMemoryDataSource) result.getDataSourceDeclarations().get(0)
+				.getDataSource();
+		assertArrayEquals(dataSource.getData(), resultDataSource.getData());
+	}
+
+	@Test
+	public void read_largePredicateSpansSeveralBlocks() throws IOException, RulewerkException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		final List<Fact> facts = new ArrayList<>();
+		for (int i = 0; i < BinarySnapshotWriter.BLOCK_SIZE + 100; i++) {
+			facts.add(Expressions.makeFact("p", Expressions.makeAbstractConstant("c" + i), this.iri));
+		}
+		kb.addStatements(facts);
+
+		final KnowledgeBase result = roundTrip(kb, new StringBuilder());
+
+		assertEquals(1, result.getDataSourceDeclarations().size());
+		assertEquals(facts.size(), getData(result, facts.get(0)).length);
+	}
+
+	@Test
+	public void read_declarationsPassedToParser() throws IOException, RulewerkException {
+		final Term x = Expressions.makeUniversalVariable("X");
+		final Rule rule = Expressions.makeRule(Expressions.makePositiveLiteral("q", x),
+				Expressions.makePositiveLiteral("p", x));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(rule, Expressions.makeFact("p", this.iri));
+		final StringBuilder parsed = new StringBuilder();
+
+		roundTrip(kb, parsed);
+
+		assertEquals(Serializer.getString(rule) + "\n", parsed.toString());
+	}
+
+	@Test
+	public void read_alternatingPredicates() throws IOException, RulewerkException {
+		final List<Fact> factsP = new ArrayList<>();
+		final List<Fact> factsQ = new ArrayList<>();
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		final BinarySnapshotWriter writer = new BinarySnapshotWriter(stream, "");
+		for (int i = 0; i < 10; i++) {
+			final Term term = Expressions.makeAbstractConstant("c" + i % 4);
+			factsP.add(Expressions.makeFact("p", term, this.iri));
+			factsQ.add(Expressions.makeFact("q", this.iri, term));
+			writer.addTuple(factsP.get(i).getPredicate(), factsP.get(i).getArguments());
+			writer.addTuple(factsQ.get(i).getPredicate(), factsQ.get(i).getArguments());
+		}
+		writer.finish();
+		final KnowledgeBase result = new KnowledgeBase();
+
+		BinarySnapshot.read(new ByteArrayInputStream(stream.toByteArray()), result, (s, target) -> {
+		});
+
+		assertEquals(2, result.getDataSourceDeclarations().size());
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(factsP), getData(result, factsP.get(0)));
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(factsQ), getData(result, factsQ.get(0)));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_invalidLength_throwsException() throws IOException, RulewerkException {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(BinarySnapshot.MAGIC);
+		stream.write(BinarySnapshot.VERSION);
+		// declarations of 2^31 - 1 bytes, followed by only a few bytes
+		stream.write(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'p', '(' });
+
+		BinarySnapshot.read(new ByteArrayInputStream(stream.toByteArray()), new KnowledgeBase(), (s, kb) -> {
+		});
+	}
+
+	@Test(expected = IOException.class)
+	public void read_invalidInput_throwsException() throws IOException, RulewerkException {
+		final InputStream stream = new ByteArrayInputStream("p(c) .".getBytes(StandardCharsets.UTF_8));
+		BinarySnapshot.read(stream, new KnowledgeBase(), (s, kb) -> {
+		});
+	}
+
+	@Test(expected = IOException.class)
+	public void read_truncatedInput_throwsException() throws IOException, RulewerkException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact("p", this.iri));
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		BinarySnapshot.write(kb, stream);
+		final byte[] bytes = stream.toByteArray();
+
+		BinarySnapshot.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 2)), new KnowledgeBase(),
+				(s, result) -> {
+				});
+	}
+
+	private static KnowledgeBase roundTrip(final KnowledgeBase kb, final StringBuilder parsed)
+			throws IOException, RulewerkException {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		BinarySnapshot.write(kb, stream);
+		final KnowledgeBase result = new KnowledgeBase();
+		BinarySnapshot.read(new ByteArrayInputStream(stream.toByteArray()), result,
+				(s, target) -> parsed.append(readString(s)));
+		return result;
+	}
+
+	private static String readString(final InputStream stream) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int b;
+		while ((b = stream.read()) >= 0) {
+			bytes.write(b);
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String[][] getData(final KnowledgeBase kb, final Fact fact) {
+		final DataSourceDeclaration declaration = kb.getDataSourceDeclarations(fact.getPredicate()).iterator()
+				.next();
+		return ((InMemoryDataSource) declaration.getDataSource()).getData();
+	}
+
+}
@@ -0,0 +1,217 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class CachingSparqlQueryResultDataSourceTest {
+
+	private static final String RESULTS = "?a\t?b\n<http://example.org/c>\t\"x\"@en\n_:b1\t42\n\t\"y\"\n"
+			+ "\"z\"\t\"1.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>\n";
+
+	private HttpServer server;
+	private final List<String> queries = new ArrayList<>();
+	private int responseCode = 200;
+	private File directory;
+	private URL endpoint;
+
+	@Before
+	public void startEndpoint() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/sparql", exchange -> {
+			this.queries.add(URLDecoder.decode(exchange.getRequestURI().getRawQuery(), "UTF-8"));
+			final byte[] response = RESULTS.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(this.responseCode, response.length);
+			try (OutputStream stream = exchange.getResponseBody()) {
+				stream.write(response);
+			}
+		});
+		this.server.start();
+		this.endpoint = new URL("http://localhost:" + this.server.getAddress().getPort() + "/sparql");
+		this.directory = Files.createTempDirectory("sparql-cache").toFile();
+	}
+
+	@After
+	public void stopEndpoint() {
+		this.server.stop(0);
+		for (final File file : this.directory.listFiles()) {
+			file.delete();
+		}
+		this.directory.delete();
+	}
+
+	@Test
+	public void getData_convertsResultsToVLogNames() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		final CachingSparqlQueryResultDataSource dataSource = new CachingSparqlQueryResultDataSource(
+				new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b"), cache);
+
+		final String[][] expected = { { "<http://example.org/c>", "\"x\"@en" },
+				{ "<_:b1>", "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>" },
+				{ "\"z\"^^<http://www.w3.org/2001/XMLSchema#string>",
+						"\"1.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>" } };
+		assertArrayEquals(expected, dataSource.getData());
+		assertEquals(1, this.queries.size());
+		assertEquals("query=SELECT ?a ?b WHERE {?a ?p ?b}", this.queries.get(0));
+	}
+
+	@Test
+	public void getData_repeated_usesCache() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		final SparqlQueryResultDataSource sparqlDataSource = new SparqlQueryResultDataSource(this.endpoint, "a,b",
+				"?a ?p ?b");
+
+		final String[][] data = new CachingSparqlQueryResultDataSource(sparqlDataSource, cache).getData();
+		assertArrayEquals(data, new CachingSparqlQueryResultDataSource(sparqlDataSource, cache).getData());
+		assertEquals(1, this.queries.size());
+		assertNotNull(cache.getFile(sparqlDataSource));
+	}
+
+	@Test
+	public void getData_expired_fetchesAgain() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		final SparqlQueryResultDataSource sparqlDataSource = new SparqlQueryResultDataSource(this.endpoint, "a,b",
+				"?a ?p ?b");
+		final CachingSparqlQueryResultDataSource dataSource = new CachingSparqlQueryResultDataSource(
+				sparqlDataSource, cache);
+
+		dataSource.getData();
+		final File file = cache.getFile(sparqlDataSource);
+		file.setLastModified(System.currentTimeMillis() - 61000);
+		assertNull(cache.getFile(sparqlDataSource));
+
+		dataSource.getData();
+		assertEquals(2, this.queries.size());
+	}
+
+	@Test
+	public void put_exceedingMaxSize_evictsOldestResults() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1);
+		final SparqlQueryResultDataSource first = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b");
+		final SparqlQueryResultDataSource second = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?q ?b");
+
+		new CachingSparqlQueryResultDataSource(first, cache).getData();
+		assertNotNull(cache.getFile(first));
+		new CachingSparqlQueryResultDataSource(second, cache).getData();
+		assertNull(cache.getFile(first));
+		assertNotNull(cache.getFile(second));
+	}
+
+	@Test
+	public void getData_otherQueryBeingFetched_doesNotWait() throws Exception {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		final SparqlQueryResultDataSource first = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b");
+		final SparqlQueryResultDataSource second = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?q ?b");
+		assertSame(cache.getLock(first),
+				cache.getLock(new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b")));
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		cache.getLock(first).lock();
+		try {
+			final Future<String[][]> data = executor
+					.submit(() -> new CachingSparqlQueryResultDataSource(second, cache).getData());
+			assertEquals(3, data.get(10, TimeUnit.SECONDS).length);
+		} finally {
+			cache.getLock(first).unlock();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void put_exceedingMaxSize_keepsResultsBeingRead() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1);
+		final SparqlQueryResultDataSource first = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b");
+		final SparqlQueryResultDataSource second = new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?q ?b");
+
+		new CachingSparqlQueryResultDataSource(first, cache).getData();
+		cache.getLock(first).lock();
+		try {
+			final File file = cache.getFile(first);
+			new CachingSparqlQueryResultDataSource(second, cache).getData();
+			assertTrue(file.isFile());
+		} finally {
+			cache.getLock(first).unlock();
+		}
+		new CachingSparqlQueryResultDataSource(second, cache).getData();
+		assertEquals(2, this.queries.size());
+	}
+
+	@Test
+	public void put_oldTemporaryFile_countsAgeFromStoring() throws IOException {
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		final SparqlQueryResultDataSource sparqlDataSource = new SparqlQueryResultDataSource(this.endpoint, "a,b",
+				"?a ?p ?b");
+		final File temporaryFile = cache.createTemporaryFile();
+		try (BinaryFactFileWriter writer = new BinaryFactFileWriter(temporaryFile.getPath(), 2)) {
+			writer.addTuple("a", "b");
+		}
+		temporaryFile.setLastModified(System.currentTimeMillis() - 61000);
+
+		cache.put(sparqlDataSource, temporaryFile);
+
+		assertNotNull(cache.getFile(sparqlDataSource));
+	}
+
+	@Test(expected = UncheckedIOException.class)
+	public void getData_httpError_throwsException() throws IOException {
+		this.responseCode = 500;
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		new CachingSparqlQueryResultDataSource(new SparqlQueryResultDataSource(this.endpoint, "a,b", "?a ?p ?b"),
+				cache).getData();
+	}
+
+	@Test
+	public void getSyntacticRepresentation_isThatOfSparqlDataSource() throws IOException {
+		final SparqlQueryResultDataSource sparqlDataSource = new SparqlQueryResultDataSource(this.endpoint, "a,b",
+				"?a ?p ?b");
+		final SparqlResultCache cache = new SparqlResultCache(this.directory.getPath(), 60, 1 << 20);
+		assertEquals(sparqlDataSource.getSyntacticRepresentation(),
+				new CachingSparqlQueryResultDataSource(sparqlDataSource, cache).getSyntacticRepresentation());
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ColumnarInMemoryDataSourceTest {
+
+	@Test
+	public void getData_agreesWithInMemoryDataSource() {
+		final InMemoryDataSource expected = new InMemoryDataSource(2, 1);
+		final ColumnarInMemoryDataSource columnar = new ColumnarInMemoryDataSource(2, 1);
+		for (int i = 0; i < 40; i++) {
+			expected.addTuple("c" + i, "http://example.org/d" + (i % 3));
+			columnar.addTuple("c" + i, "http://example.org/d" + (i % 3));
+		}
+
+		assertArrayEquals(expected.getData(), columnar.getData());
+		assertEquals(40, columnar.getSize());
+		assertEquals(43, columnar.getNameCount());
+	}
+
+	@Test
+	public void getData_sharesNameStrings() {
+		final ColumnarInMemoryDataSource source = new ColumnarInMemoryDataSource(2, 0);
+		source.addTuple("http://example.org/c", "d");
+		source.addTuple("d", "http://example.org/c");
+
+		final String[][] data = source.getData();
+		assertEquals("<http://example.org/c>", data[0][0]);
+		assertSame(data[0][0], data[1][1]);
+		assertSame(data[0][1], data[1][0]);
+	}
+
+	@Test
+	public void getData_isNotRetained() {
+		final ColumnarInMemoryDataSource source = new ColumnarInMemoryDataSource(1, 4);
+		source.addTuple("c");
+		final String[][] data = source.getData();
+		assertNotSame(data, source.getData());
+		assertArrayEquals(data, source.getData());
+
+		source.addTuple("d");
+		assertEquals(2, source.getData().length);
+	}
+
+	@Test
+	public void addTupleIds_succeeds() {
+		final ColumnarInMemoryDataSource source = new ColumnarInMemoryDataSource(2, 0);
+		final int c = source.getNameId("c");
+		final int d = source.getNameId("d");
+		assertEquals(c, source.getNameId("c"));
+
+		source.addTupleIds(c, d);
+		source.addTuple("d", "c");
+		assertEquals(d, source.getNameId(0, 1));
+		assertEquals(d, source.getNameId(1, 0));
+		assertArrayEquals(new String[][] { { "c", "d" }, { "d", "c" } }, source.getData());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addTupleIds_unknownId_fails() {
+		final ColumnarInMemoryDataSource source = new ColumnarInMemoryDataSource(1, 0);
+		source.addTupleIds(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addTuple_wrongArity_fails() {
+		final ColumnarInMemoryDataSource source = new ColumnarInMemoryDataSource(2, 0);
+		source.addTuple("c");
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class CsvDirectoryDataSourceTest {
+
+	@Test
+	public void getFiles_glob_returnsMatchingFilesInOrder() throws IOException {
+		final CsvDirectoryDataSource dataSource = new CsvDirectoryDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + "unaryFacts*.csv*");
+		assertEquals(Arrays.asList(new File(FileDataSourceTestUtils.INPUT_FOLDER + "unaryFacts.csv"),
+				new File(FileDataSourceTestUtils.INPUT_FOLDER + "unaryFactsCD.csv"),
+				new File(FileDataSourceTestUtils.INPUT_FOLDER + "unaryFactsZipped.csv.gz")), dataSource.getFiles());
+	}
+
+	@Test
+	public void getFiles_directory_returnsCsvFiles() throws IOException {
+		final File directory = Files.createTempDirectory("shards").toFile();
+		try {
+			new File(directory, "shard2.csv.gz").createNewFile();
+			new File(directory, "shard1.csv").createNewFile();
+			new File(directory, "notes.txt").createNewFile();
+
+			final CsvDirectoryDataSource dataSource = new CsvDirectoryDataSource(directory.getPath());
+			assertEquals(Arrays.asList(new File(directory, "shard1.csv"), new File(directory, "shard2.csv.gz")),
+					dataSource.getFiles());
+		} finally {
+			for (final File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void getFiles_nonexistingDirectory_throwsException() throws IOException {
+		new CsvDirectoryDataSource("nonexistingDirectory/*.csv").getFiles();
+	}
+
+	@Test
+	public void getSyntacticRepresentation_succeeds() {
+		assertEquals("load-csv-dir(\"data/edges/*.csv.gz\")",
+				new CsvDirectoryDataSource("data/edges/*.csv.gz").getSyntacticRepresentation());
+	}
+
+	@Test
+	public void equals_comparesPaths() {
+		assertEquals(new CsvDirectoryDataSource("data/*.csv"), new CsvDirectoryDataSource("data/*.csv"));
+		assertEquals(new CsvDirectoryDataSource("data/*.csv").hashCode(),
+				new CsvDirectoryDataSource("data/*.csv").hashCode());
+		assertNotEquals(new CsvDirectoryDataSource("data/*.csv"), new CsvDirectoryDataSource("data/*.csv.gz"));
+	}
+
+}
@@ -0,0 +1,122 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class CsvFileParserTest {
+
+	private static final Predicate unaryPredicate = Expressions.makePredicate("p", 1);
+	private static final Predicate binaryPredicate = Expressions.makePredicate("q", 2);
+
+	@Test
+	public void parse_csvFile_succeeds() throws IOException {
+		final File file = new File(FileDataSourceTestUtils.INPUT_FOLDER + "binaryFacts.csv");
+		final String[][] tuples = new CsvFileParser(2, CsvFileParser.DEFAULT_CHUNK_SIZE)
+				.parse(Collections.singletonList(file), binaryPredicate, null);
+		assertArrayEquals(new String[][] { { "c1", "c2" }, { "c3", "c4" } }, tuples);
+	}
+
+	@Test
+	public void parse_gzippedAndEmptyFiles_succeeds() throws IOException {
+		final File zipped = new File(FileDataSourceTestUtils.INPUT_FOLDER + "unaryFactsZipped.csv.gz");
+		final File empty = new File(FileDataSourceTestUtils.INPUT_FOLDER + "empty.csv");
+		final String[][] tuples = new CsvFileParser(2, CsvFileParser.DEFAULT_CHUNK_SIZE)
+				.parse(Arrays.asList(empty, zipped, empty), unaryPredicate, null);
+		assertArrayEquals(new String[][] { { "c1" }, { "c2" } }, tuples);
+	}
+
+	@Test
+	public void parse_smallChunks_preservesOrderAndSharesNames() throws IOException {
+		final StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			content.append("a").append(i).append(",http://example.org/b").append(i % 7);
+			content.append(i % 2 == 0 ? "\n" : "\r\n");
+			if (i % 100 == 0) {
+				content.append("\n");
+			}
+		}
+		final File file = File.createTempFile("facts", ".csv");
+		try {
+			try (OutputStream stream = new FileOutputStream(file)) {
+				stream.write(content.toString().getBytes(StandardCharsets.UTF_8));
+			}
+			final CsvFileParser parser = new CsvFileParser(3, 8);
+			final String[][] tuples = parser.parse(Arrays.asList(file, file), binaryPredicate, null);
+
+			assertEquals(2000, tuples.length);
+			assertEquals(2000, parser.getParsedTuples());
+			assertEquals(2 * file.length(), parser.getParsedBytes());
+			for (int i = 0; i < 2000; i++) {
+				assertArrayEquals(new String[] { "a" + (i % 1000), "http://example.org/b" + (i % 1000 % 7) },
+						tuples[i]);
+			}
+			assertSame(tuples[0][1], tuples[7][1]);
+			assertSame(tuples[0][0], tuples[1000][0]);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void parse_nonAsciiNames_succeeds() throws IOException {
+		final File file = File.createTempFile("facts", ".csv");
+		try {
+			try (OutputStream stream = new FileOutputStream(file)) {
+				stream.write("Straße,Ü\nÜ,Straße".getBytes(StandardCharsets.UTF_8));
+			}
+			final String[][] tuples = new CsvFileParser(1, 4).parse(Collections.singletonList(file),
+					binaryPredicate, null);
+			assertArrayEquals(new String[][] { { "Straße", "Ü" }, { "Ü", "Straße" } }, tuples);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IncompatiblePredicateArityException.class)
+	public void parse_wrongArity_throwsException() throws IOException {
+		final File file = new File(FileDataSourceTestUtils.INPUT_FOLDER + "binaryFacts.csv");
+		new CsvFileParser(1, CsvFileParser.DEFAULT_CHUNK_SIZE).parse(Collections.singletonList(file), unaryPredicate,
+				null);
+	}
+
+	@Test(expected = IOException.class)
+	public void parse_nonexistingFile_throwsException() throws IOException {
+		new CsvFileParser(1, CsvFileParser.DEFAULT_CHUNK_SIZE)
+				.parse(Collections.singletonList(new File("nonexistingFile.csv")), unaryPredicate, null);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class PredicateDependencyGraphTest {
+
+	final Variable x = Expressions.makeUniversalVariable("x");
+	final Predicate p = Expressions.makePredicate("p", 1);
+	final Predicate q = Expressions.makePredicate("q", 1);
+	final Predicate r = Expressions.makePredicate("r", 1);
+	final Predicate s = Expressions.makePredicate("s", 1);
+
+	// q(x) :- p(x) . r(x) :- q(x), ~s(x) . q(x) :- r(x) .
+	final PredicateDependencyGraph graph = new PredicateDependencyGraph(Arrays.asList(
+			Expressions.makeRule(Expressions.makePositiveLiteral(q, x), Expressions.makePositiveLiteral(p, x)),
+			Expressions.makeRule(Expressions.makePositiveLiteral(r, x), Expressions.makePositiveLiteral(q, x),
+					Expressions.makeNegativeLiteral(s, x)),
+			Expressions.makeRule(Expressions.makePositiveLiteral(q, x), Expressions.makePositiveLiteral(r, x))));
+
+	@Test
+	public void getAffectedPredicates_followsRulesTransitively() {
+		assertEquals(new HashSet<>(Arrays.asList(p, q, r)), graph.getAffectedPredicates(Arrays.asList(p)));
+		assertEquals(new HashSet<>(Arrays.asList(q, r)), graph.getAffectedPredicates(Arrays.asList(r)));
+		assertEquals(new HashSet<>(Arrays.asList(s, q, r)), graph.getAffectedPredicates(Arrays.asList(s)));
+	}
+
+	@Test
+	public void getAffectedPredicates_unusedPredicate_onlyItself() {
+		final Predicate t = Expressions.makePredicate("t", 1);
+		assertEquals(Collections.singleton(t), graph.getAffectedPredicates(Arrays.asList(t)));
+	}
+
+	@Test
+	public void removeRule_keepsDependenciesOfOtherRules() {
+		final Rule negatedRule = Expressions.makeRule(Expressions.makePositiveLiteral(r, x),
+				Expressions.makePositiveLiteral(q, x), Expressions.makeNegativeLiteral(s, x));
+		graph.addRule(
+				Expressions.makeRule(Expressions.makePositiveLiteral(r, x), Expressions.makePositiveLiteral(s, x)));
+		graph.removeRule(negatedRule);
+
+		assertFalse(graph.isUsedNegatively(Collections.singleton(s)));
+		assertEquals(new HashSet<>(Arrays.asList(s, q, r)), graph.getAffectedPredicates(Arrays.asList(s)));
+		assertEquals(Collections.singleton(q), graph.getAffectedPredicates(Arrays.asList(q)));
+		assertEquals(new HashSet<>(Arrays.asList(p, q)), graph.getAffectedPredicates(Arrays.asList(p)));
+	}
+
+	@Test
+	public void isUsedNegatively_succeeds() {
+		assertTrue(graph.isUsedNegatively(Collections.singleton(s)));
+		assertFalse(graph.isUsedNegatively(graph.getAffectedPredicates(Arrays.asList(p))));
+	}
+
+}
@@ -119,7 +119,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -138,7 +138,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -164,13 +164,13 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -197,13 +197,13 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h_c_d_e_f, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d_e_f, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -259,7 +259,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -289,7 +289,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -659,7 +659,7 @@ public class QueryAnsweringCorrectnessTest {
 			kb.removeStatements(ruleQxPx);
 			kb.addStatement(factPd);
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 		}
 	}
@@ -692,4 +692,95 @@ public class QueryAnsweringCorrectnessTest {
 		}
 	}
 
+	@Test
+	public void testAddFactsUsedUnderNegation() throws IOException {
+		final Predicate predR = Expressions.makePredicate("predR", 1);
+		final Rule ruleRxPxNotQx = Expressions.makeRule(Expressions.makePositiveLiteral(predR, x), ruleBodyPx,
+				Expressions.makeNegativeLiteral(predQ, x));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleRxPxNotQx, factPc);
+
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			kb.addStatement(factPd);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+
+			kb.addStatement(factQg);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(predR, x), true)) {
+				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+			}
+
+			reasoner.reason();
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
+				assertEquals(new HashSet<>(Arrays.asList(Collections.singletonList(c), Collections.singletonList(d))),
+						QueryResultsUtils.collectQueryResults(resultIterator));
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void testAddFactsAfterRemovingRuleWithNegation() throws IOException {
+		final Predicate predR = Expressions.makePredicate("predR", 1);
+		final Rule ruleRxPxNotQx = Expressions.makeRule(Expressions.makePositiveLiteral(predR, x), ruleBodyPx,
+				Expressions.makeNegativeLiteral(predQ, x));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleRxPxNotQx, factPc);
+
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			kb.removeStatement(ruleRxPxNotQx);
+			kb.addStatement(factQg);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(predR, x), true)) {
+				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void testCorrectnessOfUnaffectedPredicates() throws IOException {
+		final Predicate predR = Expressions.makePredicate("predR", 1);
+		final PositiveLiteral queryRx = Expressions.makePositiveLiteral(predR, x);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc, Expressions.makeFact(predR, c));
+
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			kb.addStatement(factPd);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(queryRx, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
+			}
+
+			kb.removeStatement(ruleQxPx);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(queryRx, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
+			}
+		}
+	}
+
 }
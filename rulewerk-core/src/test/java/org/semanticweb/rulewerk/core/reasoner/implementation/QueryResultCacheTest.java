@@ -0,0 +1,203 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class QueryResultCacheTest {
+
+	final Variable x = Expressions.makeUniversalVariable("x");
+	final Variable y = Expressions.makeUniversalVariable("y");
+	final Constant c = Expressions.makeAbstractConstant("c");
+	final Constant d = Expressions.makeAbstractConstant("d");
+	final QueryResult resultC = new QueryResultImpl(Arrays.asList(this.c));
+	final QueryResult resultD = new QueryResultImpl(Arrays.asList(this.d));
+
+	private static QueryResultIterator iterator(final QueryResult... results) {
+		final Iterator<QueryResult> iterator = Arrays.asList(results).iterator();
+		return new QueryResultIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public QueryResult next() {
+				return iterator.next();
+			}
+
+			@Override
+			public Correctness getCorrectness() {
+				return Correctness.SOUND_AND_COMPLETE;
+			}
+
+			@Override
+			public void close() {
+				// nothing to do
+			}
+		};
+	}
+
+	@Test
+	public void getKey_renamedVariables_equal() {
+		final PositiveLiteral pxyx = Expressions.makePositiveLiteral("p", this.x, this.y, this.x, this.c);
+		final PositiveLiteral pyxy = Expressions.makePositiveLiteral("p", this.y, this.x, this.y, this.c);
+		final PositiveLiteral pxxy = Expressions.makePositiveLiteral("p", this.x, this.x, this.y, this.c);
+
+		assertEquals(QueryResultCache.getKey(pxyx, true, false), QueryResultCache.getKey(pyxy, true, false));
+		assertEquals(QueryResultCache.getKey(pxyx, true, false).hashCode(),
+				QueryResultCache.getKey(pyxy, true, false).hashCode());
+		assertNotEquals(QueryResultCache.getKey(pxyx, true, false), QueryResultCache.getKey(pxxy, true, false));
+		assertNotEquals(QueryResultCache.getKey(pxyx, true, false), QueryResultCache.getKey(pxyx, false, false));
+		assertNotEquals(QueryResultCache.getKey(pxyx, true, false), QueryResultCache.getKey(pxyx, true, true));
+	}
+
+	@Test
+	public void putResults_smallResult_cached() {
+		final QueryResultCache cache = new QueryResultCache(2);
+		final QueryResultCache.Key key = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+				false);
+		assertNull(cache.getResults(key));
+
+		final QueryResultIterator results = cache.putResults(key, iterator(this.resultC, this.resultD));
+		assertEquals(this.resultC, results.next());
+		assertEquals(this.resultD, results.next());
+		assertFalse(results.hasNext());
+
+		final QueryResultIterator cachedResults = cache.getResults(key);
+		assertEquals(this.resultC, cachedResults.next());
+		assertEquals(this.resultD, cachedResults.next());
+		assertFalse(cachedResults.hasNext());
+		assertEquals(Correctness.SOUND_AND_COMPLETE, cachedResults.getCorrectness());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void putResults_largeResult_notCached() {
+		final QueryResultCache cache = new QueryResultCache(1);
+		final QueryResultCache.Key key = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+				false);
+
+		final QueryResultIterator results = cache.putResults(key, iterator(this.resultC, this.resultD));
+		assertEquals(this.resultC, results.next());
+		assertEquals(this.resultD, results.next());
+		assertFalse(results.hasNext());
+		assertNull(cache.getResults(key));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void putResults_partiallyRead_notCachedAndNotReadAhead() {
+		final QueryResultCache cache = new QueryResultCache(10);
+		final QueryResultCache.Key key = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+				false);
+		final QueryResultIterator answers = iterator(this.resultC, this.resultD);
+
+		final QueryResultIterator results = cache.putResults(key, answers);
+		assertEquals(this.resultC, results.next());
+		assertTrue(answers.hasNext());
+		results.close();
+		assertNull(cache.getResults(key));
+	}
+
+	@Test
+	public void putResults_clearedWhileReading_notCached() {
+		final QueryResultCache cache = new QueryResultCache(10);
+		final QueryResultCache.Key key = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+				false);
+
+		final QueryResultIterator results = cache.putResults(key, iterator(this.resultC));
+		assertEquals(this.resultC, results.next());
+		cache.clear();
+		assertFalse(results.hasNext());
+		assertNull(cache.getResults(key));
+	}
+
+	@Test
+	public void putCount_full_evictsLeastRecentlyUsed() {
+		final QueryResultCache cache = new QueryResultCache(2);
+		final QueryResultCache.Key keyP = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+				true);
+		final QueryResultCache.Key keyQ = QueryResultCache.getKey(Expressions.makePositiveLiteral("q", this.x), true,
+				true);
+		final QueryResultCache.Key keyR = QueryResultCache.getKey(Expressions.makePositiveLiteral("r", this.x), true,
+				true);
+
+		cache.putCount(keyP, new QueryAnswerCountImpl(Correctness.SOUND_AND_COMPLETE, 5));
+		cache.putCount(keyQ, new QueryAnswerCountImpl(Correctness.SOUND_AND_COMPLETE, 6));
+		assertEquals(5, cache.getCount(keyP).getCount());
+		cache.putCount(keyR, new QueryAnswerCountImpl(Correctness.SOUND_AND_COMPLETE, 7));
+
+		assertNull(cache.getCount(keyQ));
+		assertEquals(5, cache.getCount(keyP).getCount());
+		assertEquals(7, cache.getCount(keyR).getCount());
+		assertEquals(2, cache.getSize());
+	}
+
+	@Test
+	public void reasoner_changesAndReset_clearCache() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact("p", this.c));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setQueryResultCacheSize(10);
+			reasoner.reason();
+			try (QueryResultIterator results = reasoner.answerQuery(Expressions.makePositiveLiteral("p", this.x),
+					true)) {
+				results.forEachRemaining(result -> {
+				});
+			}
+			reasoner.answerQuery(Expressions.makePositiveLiteral("p", this.y), true).close();
+			assertEquals(1, reasoner.getQueryResultCacheHits());
+			assertEquals(1, reasoner.getQueryResultCacheMisses());
+
+			kb.addStatement(Expressions.makeFact("p", this.d));
+			reasoner.answerQuery(Expressions.makePositiveLiteral("p", this.x), true).close();
+			assertEquals(2, reasoner.getQueryResultCacheMisses());
+
+			reasoner.resetReasoner();
+			reasoner.reason();
+			reasoner.countQueryAnswers(Expressions.makePositiveLiteral("p", this.x), true);
+			assertEquals(3, reasoner.getQueryResultCacheMisses());
+			assertEquals(1, reasoner.getQueryResultCacheHits());
+		}
+	}
+
+}
@@ -0,0 +1,190 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultPage;
+
+public class QueryResultPagerTest {
+
+	final Variable x = Expressions.makeUniversalVariable("x");
+	final QueryResultCache.Key keyP = QueryResultCache.getKey(Expressions.makePositiveLiteral("p", this.x), true,
+			false);
+	final QueryResultCache.Key keyQ = QueryResultCache.getKey(Expressions.makePositiveLiteral("q", this.x), true,
+			false);
+
+	int evaluations = 0;
+
+	final Function<QueryResultCache.Key, QueryResultIterator> evaluator = key -> {
+		this.evaluations++;
+		return new ListQueryResultIterator(results(0, 5), Correctness.SOUND_AND_COMPLETE);
+	};
+
+	private static List<QueryResult> results(final int from, final int to) {
+		final List<QueryResult> results = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			results.add(new QueryResultImpl(Arrays.asList(Expressions.makeAbstractConstant("c" + i))));
+		}
+		return results;
+	}
+
+	@Test
+	public void pagesContinueEvaluation() {
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+
+		final QueryResultPage page1 = pager.getPage(this.keyP, 2, null, this.evaluator);
+		assertEquals(results(0, 2), page1.getResults());
+		assertEquals(0, page1.getOffset());
+		assertNotNull(page1.getNextPageToken());
+		assertEquals(1, pager.getSuspendedQueryCount());
+
+		final QueryResultPage page2 = pager.getPage(this.keyP, 2, page1.getNextPageToken(), this.evaluator);
+		assertEquals(results(2, 4), page2.getResults());
+		assertEquals(2, page2.getOffset());
+
+		final QueryResultPage page3 = pager.getPage(this.keyP, 2, page2.getNextPageToken(), this.evaluator);
+		assertEquals(results(4, 5), page3.getResults());
+		assertEquals(Correctness.SOUND_AND_COMPLETE, page3.getCorrectness());
+		assertNull(page3.getNextPageToken());
+
+		assertEquals(1, this.evaluations);
+		assertEquals(0, pager.getSuspendedQueryCount());
+	}
+
+	@Test
+	public void evictedTokensRejected() {
+		final QueryResultPager pager = new QueryResultPager(1, QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+
+		final QueryResultPage pageP = pager.getPage(this.keyP, 3, null, this.evaluator);
+		pager.getPage(this.keyQ, 3, null, this.evaluator);
+		assertEquals(1, pager.getSuspendedQueryCount());
+
+		assertRejected(pager, this.keyP, pageP.getNextPageToken());
+		assertEquals(2, this.evaluations);
+	}
+
+	@Test
+	public void expiredTokensRejected() {
+		final long[] now = { 0 };
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES, 1000,
+				() -> now[0]);
+
+		final QueryResultPage pageP = pager.getPage(this.keyP, 1, null, this.evaluator);
+		now[0] = TimeUnit.MILLISECONDS.toNanos(500);
+		final QueryResultPage pageQ = pager.getPage(this.keyQ, 1, null, this.evaluator);
+		now[0] = TimeUnit.MILLISECONDS.toNanos(1200);
+
+		assertRejected(pager, this.keyP, pageP.getNextPageToken());
+		assertEquals(1, pager.getSuspendedQueryCount());
+		assertEquals(results(1, 2),
+				pager.getPage(this.keyQ, 1, pageQ.getNextPageToken(), this.evaluator).getResults());
+	}
+
+	@Test
+	public void loweringLimits_closesSuspendedQueries() {
+		final long[] now = { 0 };
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS, () -> now[0]);
+		final QueryResultPage pageP = pager.getPage(this.keyP, 1, null, this.evaluator);
+		final QueryResultPage pageQ = pager.getPage(this.keyQ, 1, null, this.evaluator);
+
+		pager.setMaxSuspendedQueries(1);
+		assertEquals(1, pager.getSuspendedQueryCount());
+		assertRejected(pager, this.keyP, pageP.getNextPageToken());
+
+		pager.setTimeToLiveMillis(1000);
+		assertEquals(1000, pager.getTimeToLiveMillis());
+		now[0] = TimeUnit.MILLISECONDS.toNanos(1200);
+		assertRejected(pager, this.keyQ, pageQ.getNextPageToken());
+		assertEquals(0, pager.getSuspendedQueryCount());
+	}
+
+	@Test
+	public void usedTokensRejected() {
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+
+		final QueryResultPage page = pager.getPage(this.keyP, 1, null, this.evaluator);
+		pager.getPage(this.keyP, 1, page.getNextPageToken(), this.evaluator);
+		assertRejected(pager, this.keyP, page.getNextPageToken());
+	}
+
+	@Test
+	public void tokensOfOtherQueriesRejected() {
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+
+		final QueryResultPage pageP = pager.getPage(this.keyP, 1, null, this.evaluator);
+		assertRejected(pager, this.keyQ, pageP.getNextPageToken());
+		assertEquals(results(1, 2),
+				pager.getPage(this.keyP, 1, pageP.getNextPageToken(), this.evaluator).getResults());
+	}
+
+	private void assertRejected(final QueryResultPager pager, final QueryResultCache.Key key, final String pageToken) {
+		try {
+			pager.getPage(key, 1, pageToken, this.evaluator);
+			fail("Page token should have been rejected.");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidatedTokensRejected() {
+		final QueryResultPager pager = new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS);
+
+		final QueryResultPage page = pager.getPage(this.keyP, 2, null, this.evaluator);
+		pager.invalidate();
+		assertEquals(0, pager.getSuspendedQueryCount());
+		pager.getPage(this.keyP, 2, page.getNextPageToken(), this.evaluator);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void malformedTokensRejected() {
+		new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS).getPage(this.keyP, 2, "0-0-x-1", this.evaluator);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nonPositivePageSizeRejected() {
+		new QueryResultPager(QueryResultPager.DEFAULT_MAX_SUSPENDED_QUERIES,
+				QueryResultPager.DEFAULT_TIME_TO_LIVE_MILLIS).getPage(this.keyP, 0, null, this.evaluator);
+	}
+
+}
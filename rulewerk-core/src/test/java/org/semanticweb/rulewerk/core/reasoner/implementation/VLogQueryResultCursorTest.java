@@ -0,0 +1,113 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+
+import karmaresearch.vlog.TermQueryResultIterator;
+
+public class VLogQueryResultCursorTest {
+
+	final karmaresearch.vlog.Term iri = new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT,
+			"<http://example.org/c>");
+	final karmaresearch.vlog.Term relative = new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT,
+			"c");
+	final karmaresearch.vlog.Term langString = new karmaresearch.vlog.Term(
+			karmaresearch.vlog.Term.TermType.CONSTANT, "\"Test\"@en");
+	final karmaresearch.vlog.Term blank = new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.BLANK,
+			"_123");
+
+	@Test
+	public void rowsReadByPosition() {
+		final TermQueryResultIterator vLogResults = mock(TermQueryResultIterator.class);
+		when(vLogResults.hasNext()).thenReturn(true, true, false);
+		when(vLogResults.next()).thenReturn(new karmaresearch.vlog.Term[] { this.iri, this.blank },
+				new karmaresearch.vlog.Term[] { this.relative, this.langString });
+
+		try (VLogQueryResultCursor cursor = new VLogQueryResultCursor(vLogResults, Correctness.SOUND_AND_COMPLETE,
+				new VLogTermDictionary())) {
+			assertTrue(cursor.advance());
+			assertEquals(2, cursor.getArity());
+			assertEquals(TermType.ABSTRACT_CONSTANT, cursor.getTermType(0));
+			assertEquals("http://example.org/c", cursor.getTermName(0));
+			assertEquals(TermType.NAMED_NULL, cursor.getTermType(1));
+			assertEquals("_123", cursor.getTermName(1));
+			assertEquals(Expressions.makeAbstractConstant("http://example.org/c"), cursor.getTerm(0));
+
+			assertTrue(cursor.advance());
+			assertEquals("c", cursor.getTermName(0));
+			assertEquals(TermType.LANGSTRING_CONSTANT, cursor.getTermType(1));
+			assertEquals("\"Test\"@en", cursor.getTermName(1));
+			assertEquals(Expressions.makeLanguageStringConstant("Test", "en"), cursor.getTerm(1));
+
+			assertFalse(cursor.advance());
+		}
+		verify(vLogResults).close();
+	}
+
+	@Test
+	public void knownConstantNamesReused() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final Term constant = Expressions.makeAbstractConstant("http://example.org/c");
+		final karmaresearch.vlog.Term vLogTerm = new karmaresearch.vlog.Term(
+				karmaresearch.vlog.Term.TermType.CONSTANT, dictionary.getVLogName(dictionary.getId(constant)));
+		final TermQueryResultIterator vLogResults = mock(TermQueryResultIterator.class);
+		when(vLogResults.hasNext()).thenReturn(true, false);
+		when(vLogResults.next()).thenReturn(new karmaresearch.vlog.Term[] { vLogTerm });
+
+		try (VLogQueryResultCursor cursor = new VLogQueryResultCursor(vLogResults, Correctness.SOUND_AND_COMPLETE,
+				dictionary)) {
+			assertTrue(cursor.advance());
+			assertSame(constant.getName(), cursor.getTermName(0));
+			assertSame(constant, cursor.getTerm(0));
+		}
+	}
+
+	@Test
+	public void emptyCursor() {
+		try (VLogQueryResultCursor cursor = new VLogQueryResultCursor(null, Correctness.SOUND_AND_COMPLETE,
+				new VLogTermDictionary())) {
+			assertFalse(cursor.advance());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, cursor.getCorrectness());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void termsNotAccessibleBeforeAdvance() {
+		try (VLogQueryResultCursor cursor = new VLogQueryResultCursor(null, Correctness.SOUND_AND_COMPLETE,
+				new VLogTermDictionary())) {
+			cursor.getArity();
+		}
+	}
+
+}
@@ -2,6 +2,7 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /*
  * #%L
@@ -33,9 +34,11 @@ import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
@@ -105,4 +108,87 @@ public class VLogReasonerBasics {
 		}
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void setLoadingParallelism_notPositive_fails() {
+		try (final Reasoner reasoner = Reasoner.getInstance();) {
+			reasoner.setLoadingParallelism(0);
+		}
+	}
+
+	@Test
+	public void testSimpleInferenceWithParallelLoading() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleBxAx, ruleCxBx, factAc, factAd, Expressions.makeFact("D", constantC));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setLoadingParallelism(2);
+			reasoner.reason();
+
+			final Set<List<Term>> expectedResults = new HashSet<>(
+					Arrays.asList(Arrays.asList(constantC), Arrays.asList(constantD)));
+			assertEquals(expectedResults, QueryResultsUtils.collectQueryResults(reasoner.answerQuery(atomCx, true)));
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(constantC))), QueryResultsUtils
+					.collectQueryResults(reasoner.answerQuery(Expressions.makePositiveLiteral("D", x), true)));
+		}
+	}
+
+	@Test
+	public void mergeDataSources_withoutRules_loadsPredicateDirectly() {
+		final InMemoryDataSource dataSource = new InMemoryDataSource(1, 1);
+		dataSource.addTuple("e");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(factAc, new DataSourceDeclarationImpl(factAc.getPredicate(), dataSource));
+
+		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(kb);
+		assertEquals(2, vLogKB.getRules().size());
+		vLogKB.mergeDataSources(false);
+
+		final Predicate predicateA = factAc.getPredicate();
+		assertTrue(vLogKB.getRules().isEmpty());
+		assertTrue(vLogKB.getAliasesForEdbPredicates().isEmpty());
+		assertEquals(2, vLogKB.getMergedEdbPredicates().get(predicateA).size());
+		assertEquals(Arrays.asList(factAc), vLogKB.getMergedEdbFacts().get(predicateA));
+		assertFalse(vLogKB.getDirectEdbFacts().containsKey(predicateA));
+	}
+
+	@Test
+	public void mergeDataSources_withRules_addsSingleCopyRule() throws IOException {
+		final CsvFileDataSource dataSource = new CsvFileDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + "unaryFacts.csv");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleBxAx, factAc, Expressions.makeFact("B", constantD),
+				new DataSourceDeclarationImpl(atomBx.getPredicate(), dataSource));
+
+		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(kb);
+		vLogKB.mergeDataSources(false);
+		assertEquals(3, vLogKB.getRules().size());
+		assertTrue(vLogKB.getMergedEdbPredicates().isEmpty());
+
+		vLogKB.mergeDataSources(true);
+		final Predicate mergedB = Expressions.makePredicate("B##EDB", 1);
+		final Variable x1 = Expressions.makeUniversalVariable("X1");
+		final Rule copyRule = Expressions.makeRule(Expressions.makePositiveLiteral("B", x1),
+				Expressions.makePositiveLiteral(mergedB, x1));
+		assertEquals(new HashSet<>(Arrays.asList(ruleBxAx, copyRule)), vLogKB.getRules());
+		assertEquals(2, vLogKB.getMergedEdbPredicates().get(mergedB).size());
+	}
+
+	@Test
+	public void testSimpleInferenceWithMergedDataSources() throws IOException {
+		final InMemoryDataSource dataSource = new InMemoryDataSource(1, 1);
+		dataSource.addTuple("e");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleBxAx, factAc, factAd, new DataSourceDeclarationImpl(factAc.getPredicate(), dataSource));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setMergingDataSources(true);
+			reasoner.reason();
+
+			final Set<List<Term>> expectedResults = new HashSet<>(Arrays.asList(Arrays.asList(constantC),
+					Arrays.asList(constantD), Arrays.asList(Expressions.makeAbstractConstant("e"))));
+			assertEquals(expectedResults, QueryResultsUtils.collectQueryResults(reasoner.answerQuery(atomBx, true)));
+			assertEquals(expectedResults, QueryResultsUtils.collectQueryResults(reasoner.answerQuery(atomAx, true)));
+		}
+	}
+
 }
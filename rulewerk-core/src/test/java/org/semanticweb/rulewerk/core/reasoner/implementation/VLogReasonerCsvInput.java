@@ -34,6 +34,7 @@ import org.mockito.internal.util.collections.Sets;
 import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
 import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Term;
@@ -74,12 +75,34 @@ public class VLogReasonerCsvInput {
 				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.zippedUnaryCsvFileRoot + ".csv.gz"));
 	}
 
+	@Test
+	public void testLoadUnaryFactsFromCsvFileParsedInJava() throws IOException {
+		testLoadUnaryFactsFromSingleCsvDataSource(new CsvFileDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.unzippedUnaryCsvFileRoot + ".csv"), 2);
+		testLoadUnaryFactsFromSingleCsvDataSource(new CsvFileDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.zippedUnaryCsvFileRoot + ".csv.gz"), 2);
+	}
+
+	@Test
+	public void testLoadUnaryFactsFromCsvDirectory() throws IOException {
+		testLoadUnaryFactsFromSingleCsvDataSource(new CsvDirectoryDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + "{" + FileDataSourceTestUtils.unzippedUnaryCsvFileRoot + ","
+						+ FileDataSourceTestUtils.zippedUnaryCsvFileRoot + "}.csv*"),
+				null);
+	}
+
 	private void testLoadUnaryFactsFromSingleCsvDataSource(final FileDataSource fileDataSource) throws IOException {
+		testLoadUnaryFactsFromSingleCsvDataSource(fileDataSource, null);
+	}
+
+	private void testLoadUnaryFactsFromSingleCsvDataSource(final DataSource dataSource,
+			final Integer csvParsingThreads) throws IOException {
 		final KnowledgeBase kb = new KnowledgeBase();
-		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate1, fileDataSource));
-		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate2, fileDataSource));
+		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate1, dataSource));
+		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate2, dataSource));
 
 		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setCsvParsingThreads(csvParsingThreads);
 			reasoner.load();
 
 			final QueryResultIterator queryResultIterator1 = reasoner
@@ -128,4 +151,17 @@ public class VLogReasonerCsvInput {
 		}
 	}
 
+	@Test(expected = IncompatiblePredicateArityException.class)
+	public void testLoadCsvFileWrongArityParsedInJava() throws IOException {
+		final FileDataSource fileDataSource = new CsvFileDataSource(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.binaryCsvFileNameRoot + ".csv");
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate1, fileDataSource));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setCsvParsingThreads(1);
+			reasoner.load();
+		}
+	}
+
 }
@@ -118,7 +118,7 @@ public class VLogReasonerStateTest {
 			reasoner.getKnowledgeBase().addStatement(factPd);
 
 			try (final QueryResultIterator queryResult = reasoner.answerQuery(query, true)) {
-				assertEquals(Correctness.INCORRECT, queryResult.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, queryResult.getCorrectness());
 				assertEquals(expectedAnswersC, QueryResultsUtils.collectQueryResults(queryResult));
 			}
 
@@ -285,6 +285,23 @@ public class VLogReasonerStateTest {
 		}
 	}
 
+	@Test
+	public void testTermDictionaryOnlyHoldsLoadedTerms() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(factPc, factPd);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.load();
+			assertEquals(2, reasoner.termDictionary.getTermDictionary().size());
+
+			kb.removeStatement(factPd);
+			reasoner.load();
+			assertEquals(1, reasoner.termDictionary.getTermDictionary().size());
+
+			reasoner.resetReasoner();
+			assertEquals(0, reasoner.termDictionary.getTermDictionary().size());
+		}
+	}
+
 	@Test
 	public void testSuccessiveCloseAfterLoad() throws IOException {
 		final KnowledgeBase kb = new KnowledgeBase();
@@ -3,18 +3,24 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.Constant;
@@ -27,6 +33,7 @@ import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.OutputFiles;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
 /*-
@@ -122,7 +129,91 @@ public class VLogReasonerWriteInferencesTest {
 		assertTrue("the base declaration is present", getInferences().contains("@base <http://example.org/> ."));
 	}
 
+	@Test
+	public void writeInferencesToDirectory_example_writesAllInferences() throws IOException {
+		final File directory = Files.createTempDirectory("inferences").toFile();
+		try {
+			try (final Reasoner reasoner = new VLogReasoner(kb)) {
+				reasoner.reason();
+				reasoner.writeInferencesToDirectory(directory.getPath(), 2, false);
+			}
+
+			final List<String> manifest = Files
+					.readAllLines(new File(directory, OutputFiles.MANIFEST_FILE_NAME).toPath());
+			final Set<String> inferences = new HashSet<>();
+			long factCount = 0;
+			for (final String line : manifest) {
+				final String[] fields = line.split("\t");
+				assertEquals(4, fields.length);
+				final List<String> facts = Files.readAllLines(new File(directory, fields[0]).toPath());
+				assertEquals(Long.parseLong(fields[3]), facts.size());
+				factCount += facts.size();
+				inferences.addAll(facts);
+			}
+			assertEquals(10, factCount);
+			assertEquals(new HashSet<>(getInferences()), inferences);
+		} finally {
+			for (final File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void writeInferencesToDirectory_failingFile_leavesNoManifest() throws IOException {
+		final File directory = Files.createTempDirectory("inferences").toFile();
+		final File manifestFile = new File(directory, OutputFiles.MANIFEST_FILE_NAME);
+		// a directory in place of the first file makes writing it fail
+		final File blockingDirectory = new File(directory, "predicate00000.rls");
+		try {
+			Files.write(manifestFile.toPath(), Arrays.asList("stale"));
+			assertTrue(blockingDirectory.mkdir());
+			try (final Reasoner reasoner = new VLogReasoner(kb)) {
+				reasoner.reason();
+				reasoner.writeInferencesToDirectory(directory.getPath(), 2, false);
+				fail("writing into a directory should fail");
+			} catch (final IOException e) {
+				// expected
+			}
+
+			assertFalse(manifestFile.exists());
+			assertFalse(new File(directory, OutputFiles.MANIFEST_FILE_NAME + ".tmp").exists());
+		} finally {
+			blockingDirectory.delete();
+			for (final File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void writeInferencesSnapshot_example_reloadsAllInferences() throws IOException, RulewerkException {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.writeInferencesSnapshot(stream);
+		}
+		final KnowledgeBase reloaded = new KnowledgeBase();
+		BinarySnapshot.read(new ByteArrayInputStream(stream.toByteArray()), reloaded, (s, target) -> {
+		});
+
+		final List<String> inferences = getInferences(reloaded);
+		assertEquals(10, inferences.size());
+		for (final String inference : getInferences()) {
+			// named nulls are reloaded as constants
+			if (!inference.contains("_:")) {
+				assertTrue(inferences.contains(inference));
+			}
+		}
+	}
+
 	private List<String> getInferences() throws IOException {
+		return getInferences(kb);
+	}
+
+	private List<String> getInferences(final KnowledgeBase kb) throws IOException {
 		try (final Reasoner reasoner = new VLogReasoner(kb)) {
 			reasoner.reason();
 			ByteArrayOutputStream stream = new ByteArrayOutputStream();
@@ -0,0 +1,114 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+
+public class VLogTermDictionaryTest {
+
+	final Term iri = Expressions.makeAbstractConstant("http://example.org/c");
+	final Term relative = Expressions.makeAbstractConstant("c");
+	final Term number = Expressions.makeDatatypeConstant("1", PrefixDeclarationRegistry.XSD_INTEGER);
+
+	@Test
+	public void factTuplesUseVLogNames() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final Fact fact = Expressions.makeFact("p", this.iri, this.relative, this.number, this.iri);
+
+		final String[] tuple = dictionary.toVLogFactTuple(dictionary.toIdTuple(fact));
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuple(fact), tuple);
+		assertSame(tuple[0], tuple[3]);
+	}
+
+	@Test
+	public void factTuplesAgreeWithConverter() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final Fact fact1 = Expressions.makeFact("p", this.iri, this.relative);
+		final Fact fact2 = Expressions.makeFact("p", this.relative, this.number);
+
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(Arrays.asList(fact1, fact2)),
+				ModelToVLogConverter.toVLogFactTuples(Arrays.asList(fact1, fact2), dictionary));
+	}
+
+	@Test
+	public void knownConstantsDecodedByLookup() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final long id = dictionary.getId(this.iri);
+		final String vLogName = dictionary.getVLogName(id);
+
+		final karmaresearch.vlog.Term vLogTerm = new karmaresearch.vlog.Term(
+				karmaresearch.vlog.Term.TermType.CONSTANT, vLogName);
+		assertSame(this.iri, dictionary.toTerm(vLogTerm));
+	}
+
+	@Test
+	public void unknownConstantsDecodedByParsing() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final karmaresearch.vlog.Term vLogTerm = new karmaresearch.vlog.Term(
+				karmaresearch.vlog.Term.TermType.CONSTANT, "<http://example.org/c>");
+
+		assertEquals(this.iri, dictionary.toTerm(vLogTerm));
+		assertEquals(0, dictionary.getTermDictionary().size());
+	}
+
+	@Test
+	public void preparedFactTuplesAgreeWithSerialConversion() {
+		final VLogTermDictionary dictionary = new VLogTermDictionary();
+		final List<Fact> facts1 = Arrays.asList(Expressions.makeFact("p", this.iri, this.relative),
+				Expressions.makeFact("p", this.relative, this.number));
+		final List<Fact> facts2 = Arrays.asList(Expressions.makeFact("q", this.number, new NamedNullImpl("n")));
+		dictionary.getVLogName(dictionary.getId(this.relative));
+
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			dictionary.prepareVLogNames(Arrays.asList(facts1, facts2), pool);
+		} finally {
+			pool.shutdown();
+		}
+
+		final String[][] tuples = dictionary.findVLogFactTuples(facts1);
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(facts1), tuples);
+		assertSame(tuples[0][1], tuples[1][0]);
+		assertArrayEquals(ModelToVLogConverter.toVLogFactTuples(facts2), dictionary.findVLogFactTuples(facts2));
+		assertSame(this.number, dictionary.findConstant(tuples[1][1]));
+		assertEquals(4, dictionary.getTermDictionary().size());
+	}
+
+	@Test(expected = RulewerkRuntimeException.class)
+	public void variablesRejected() {
+		new VLogTermDictionary().getId(Expressions.makeUniversalVariable("X"));
+	}
+
+}
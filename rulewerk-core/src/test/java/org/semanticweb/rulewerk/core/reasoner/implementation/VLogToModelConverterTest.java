@@ -24,6 +24,8 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
 import org.semanticweb.rulewerk.core.model.implementation.DatatypeConstantImpl;
@@ -32,6 +34,14 @@ import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
 
 public class VLogToModelConverterTest {
 
+	private static final karmaresearch.vlog.Term[] VLOG_TERMS = {
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "c"),
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "<http://example.org/test>"),
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "\"a\"^^<http://example.org/test>"),
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "\"Test\"@en"),
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "\""),
+			new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.BLANK, "_123") };
+
 	@Test
 	public void testAbstractConstantConversion() {
 		final karmaresearch.vlog.Term vLogTerm = new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "c");
@@ -91,4 +101,42 @@ public class VLogToModelConverterTest {
 		assertEquals(constName, convertedTerm.getName());
 	}
 
+	@Test
+	public void testTermTypesAgreeWithConversion() {
+		for (final karmaresearch.vlog.Term vLogTerm : VLOG_TERMS) {
+			assertEquals(VLogToModelConverter.toTerm(vLogTerm).getType(), VLogToModelConverter.getTermType(vLogTerm));
+		}
+	}
+
+	@Test
+	public void testLazyConversionAgreesWithConversion() {
+		for (final karmaresearch.vlog.Term vLogTerm : VLOG_TERMS) {
+			final Term term = VLogToModelConverter.toTerm(vLogTerm);
+			final Term lazyTerm = VLogToModelConverter.toLazyTerm(vLogTerm);
+			assertEquals(term, lazyTerm);
+			assertEquals(lazyTerm, term);
+			assertEquals(term.hashCode(), lazyTerm.hashCode());
+			assertEquals(term.getType(), lazyTerm.getType());
+			assertEquals(term.getName(), lazyTerm.getName());
+			assertEquals(term.toString(), lazyTerm.toString());
+		}
+	}
+
+	@Test
+	public void testLazyDatatypeConstantDecoding() {
+		final karmaresearch.vlog.Term vLogTerm = new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT,
+				"\"a\"^^<http://example.org/test>");
+		final DatatypeConstant constant = (DatatypeConstant) VLogToModelConverter.toLazyTerm(vLogTerm);
+		assertEquals("http://example.org/test", constant.getDatatype());
+		assertEquals("a", constant.getLexicalValue());
+	}
+
+	@Test
+	public void testLazyLanguageStringDecoding() {
+		final LanguageStringConstant constant = (LanguageStringConstant) VLogToModelConverter.toLazyTerm(
+				new karmaresearch.vlog.Term(karmaresearch.vlog.Term.TermType.CONSTANT, "\"Test\"@en"));
+		assertEquals("en", constant.getLanguageTag());
+		assertEquals("Test", constant.getString());
+	}
+
 }
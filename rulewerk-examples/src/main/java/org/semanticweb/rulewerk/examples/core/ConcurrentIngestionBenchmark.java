@@ -0,0 +1,121 @@
+package org.semanticweb.rulewerk.examples.core;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.ConcurrentKnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * This example measures how adding facts to a {@link ConcurrentKnowledgeBase}
+ * scales with the number of threads that produce facts, compared to a single
+ * thread that produces and adds all facts to a {@link KnowledgeBase}. Each
+ * thread creates its share of the facts and adds them in batches. The facts
+ * are spread over {@value #PREDICATES} predicates, so that threads can add
+ * facts of different predicates at the same time. A quarter of the facts is
+ * produced twice, to exercise deduplication.
+ *
+ * The number of facts and the batch size can be given as arguments.
+ */
+public class ConcurrentIngestionBenchmark {
+
+	private static final int RUNS = 3;
+	private static final int PREDICATES = 16;
+
+	public static void main(final String[] args) throws InterruptedException, ExecutionException {
+		final int factCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		final int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		System.out.println(
+				"Adding " + factCount + " facts in batches of " + batchSize + " (best of " + RUNS + " runs):");
+
+		long serialTime = Long.MAX_VALUE;
+		for (int run = 0; run < RUNS; run++) {
+			final KnowledgeBase kb = new KnowledgeBase();
+			final long start = System.nanoTime();
+			ingest(kb, 0, factCount, batchSize);
+			serialTime = Math.min(serialTime, (System.nanoTime() - start) / 1000000);
+		}
+		System.out.println(" - single thread, KnowledgeBase: " + serialTime + " ms");
+
+		final int processors = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= processors; threads *= 2) {
+			long bestTime = Long.MAX_VALUE;
+			int size = 0;
+			for (int run = 0; run < RUNS; run++) {
+				final ConcurrentKnowledgeBase kb = new ConcurrentKnowledgeBase();
+				final long start = System.nanoTime();
+				ingestConcurrently(kb, threads, factCount, batchSize);
+				bestTime = Math.min(bestTime, (System.nanoTime() - start) / 1000000);
+				size = kb.getFacts().size();
+			}
+			System.out.printf(" - %3d thread(s), ConcurrentKnowledgeBase: %6d ms (speedup %.2f, %d distinct facts)%n",
+					threads, bestTime, (double) serialTime / bestTime, size);
+		}
+	}
+
+	private static void ingestConcurrently(final KnowledgeBase kb, final int threads, final int factCount,
+			final int batchSize) throws InterruptedException, ExecutionException {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			final int share = factCount / threads;
+			for (int thread = 0; thread < threads; thread++) {
+				final int from = thread * share;
+				final int to = thread == threads - 1 ? factCount : from + share;
+				futures.add(executor.submit(() -> ingest(kb, from, to, batchSize)));
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Creates the facts with numbers {@code from} (inclusive) to {@code to}
+	 * (exclusive) and adds them in batches.
+	 */
+	private static void ingest(final KnowledgeBase kb, final int from, final int to, final int batchSize) {
+		final List<Fact> batch = new ArrayList<>(batchSize);
+		for (int i = from; i < to; i++) {
+			// every fourth fact repeats the previous fact
+			final int n = i % 4 == 3 ? i - 1 : i;
+			batch.add(Expressions.makeFact("edge" + n % PREDICATES,
+					Expressions.makeAbstractConstant("http://example.org/a" + n),
+					Expressions.makeAbstractConstant("http://example.org/b" + (n % 1000))));
+			if (batch.size() == batchSize) {
+				kb.addStatements(batch);
+				batch.clear();
+			}
+		}
+		kb.addStatements(batch);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.semanticweb.rulewerk.examples.core;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.core.reasoner.implementation.VLogReasoner;
+
+/**
+ * This example measures how loading a knowledge base with many facts scales
+ * with the number of threads that convert facts for the reasoner (see
+ * {@link Reasoner#setLoadingParallelism(Integer)}). The knowledge base consists
+ * of generated facts for several binary predicates and has no rules, so that
+ * the measured time is dominated by loading.
+ *
+ * The number of predicates and facts per predicate can be given as arguments.
+ */
+public class ParallelLoadingBenchmark {
+
+	private static final int RUNS = 3;
+
+	public static void main(final String[] args) throws IOException {
+		final int predicateCount = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		final int factsPerPredicate = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+		final KnowledgeBase kb = new KnowledgeBase();
+		for (int p = 0; p < predicateCount; p++) {
+			final List<Fact> facts = new ArrayList<>(factsPerPredicate);
+			for (int i = 0; i < factsPerPredicate; i++) {
+				facts.add(Expressions.makeFact("p" + p, Expressions.makeAbstractConstant("http://example.org/a" + i),
+						Expressions.makeAbstractConstant("http://example.org/b" + (i % 1000))));
+			}
+			kb.addStatements(facts);
+		}
+		System.out.println("Loading " + predicateCount * factsPerPredicate + " facts of " + predicateCount
+				+ " predicates (best of " + RUNS + " runs):");
+
+		final long serialTime = measureLoading(kb, null);
+		System.out.println(" - serial conversion: " + serialTime + " ms");
+		final int processors = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= processors; threads *= 2) {
+			final long time = measureLoading(kb, threads);
+			System.out.printf(" - %3d thread(s): %6d ms (speedup %.2f)%n", threads, time,
+					(double) serialTime / time);
+		}
+	}
+
+	private static long measureLoading(final KnowledgeBase kb, final Integer threads) throws IOException {
+		long bestTime = Long.MAX_VALUE;
+		for (int run = 0; run < RUNS; run++) {
+			try (final Reasoner reasoner = new VLogReasoner(kb)) {
+				reasoner.setLoadingParallelism(threads);
+				final long start = System.nanoTime();
+				reasoner.reason();
+				bestTime = Math.min(bestTime, (System.nanoTime() - start) / 1000000);
+			}
+		}
+		return bestTime;
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.semanticweb.rulewerk.examples.core;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map.Entry;
+
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+
+/**
+ * This example measures how abbreviating IRIs with
+ * {@link MergingPrefixDeclarationRegistry#unresolveAbsoluteIri(String)}, as
+ * done when writing inferences, scales with the number of declared prefixes.
+ * For comparison, it also measures a naive abbreviation that checks every
+ * prefix in turn.
+ *
+ * The number of IRIs to abbreviate can be given as argument.
+ */
+public class PrefixUnresolutionBenchmark {
+
+	private static final int[] PREFIX_COUNTS = { 10, 100, 1000 };
+
+	private static final int RUNS = 3;
+
+	public static void main(final String[] args) {
+		final int iriCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		System.out.println("Abbreviating " + iriCount + " IRIs (best of " + RUNS + " runs):");
+
+		for (final int prefixCount : PREFIX_COUNTS) {
+			final MergingPrefixDeclarationRegistry registry = new MergingPrefixDeclarationRegistry();
+			for (int i = 0; i < prefixCount; i++) {
+				registry.setPrefixIri("p" + i + ":", "http://example.org/ontology" + i + "/");
+			}
+			// half of the IRIs match some prefix, the others match none
+			final String[] iris = new String[1000];
+			for (int i = 0; i < iris.length; i++) {
+				iris[i] = (i % 2 == 0 ? "http://example.org/ontology" + (i % prefixCount) + "/"
+						: "http://example.com/other/") + "Entity" + i;
+			}
+
+			long trieTime = Long.MAX_VALUE;
+			long scanTime = Long.MAX_VALUE;
+			long checksum = 0;
+			for (int run = 0; run < RUNS; run++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < iriCount; i++) {
+					checksum += registry.unresolveAbsoluteIri(iris[i % iris.length]).length();
+				}
+				trieTime = Math.min(trieTime, (System.nanoTime() - start) / 1000000);
+
+				start = System.nanoTime();
+				for (int i = 0; i < iriCount; i++) {
+					checksum -= unresolveByScan(registry, iris[i % iris.length]).length();
+				}
+				scanTime = Math.min(scanTime, (System.nanoTime() - start) / 1000000);
+			}
+			System.out.printf(" - %4d prefixes: %6d ms (scanning all prefixes: %6d ms)%s%n", prefixCount, trieTime,
+					scanTime, checksum == 0 ? "" : ", results differ!");
+		}
+	}
+
+	private static String unresolveByScan(final MergingPrefixDeclarationRegistry registry, final String iri) {
+		String prefixName = null;
+		String prefixIri = "";
+		for (final Entry<String, String> prefix : (Iterable<Entry<String, String>>) registry::iterator) {
+			if (prefix.getValue().length() > prefixIri.length() && prefix.getValue().length() < iri.length()
+					&& iri.startsWith(prefix.getValue())) {
+				prefixName = prefix.getKey();
+				prefixIri = prefix.getValue();
+			}
+		}
+		return prefixName == null ? iri : prefixName + iri.substring(prefixIri.length());
+	}
+
+}
@@ -0,0 +1,149 @@
+package org.semanticweb.rulewerk.examples.core;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.examples.ExamplesUtils;
+
+/**
+ * This example compares the heap footprint of knowledge bases that hold the
+ * facts of the example data sets (DOID triples, bicycle and wheel CSV files),
+ * with and without interning of constants and predicates (see
+ * {@link Expressions#setInterning(boolean)}).
+ *
+ * The data is read in Java (rather than by the reasoner) to obtain
+ * {@link Fact} objects. Measurements are approximate, since they rely on the
+ * garbage collector.
+ */
+public class TermInterningExample {
+
+	private static final String[] CSV_FILES = { "bicycleEDB.csv.gz", "wheelEDB.csv.gz", "hasPartEDB.csv.gz" };
+
+	public static void main(final String[] args) throws IOException {
+		System.out.println("Heap footprint of example data sets:");
+		for (final boolean interning : new boolean[] { false, true }) {
+			Expressions.setInterning(interning);
+
+			final long before = usedMemory();
+			final KnowledgeBase kb = new KnowledgeBase();
+			loadTriples(ExamplesUtils.INPUT_FOLDER + "doid.nt.gz", kb);
+			for (final String csvFile : CSV_FILES) {
+				loadCsv(ExamplesUtils.INPUT_FOLDER + csvFile, kb);
+			}
+			final long after = usedMemory();
+
+			System.out.println(" - interning " + (interning ? "enabled: " : "disabled:") + " "
+					+ kb.getFacts().size() + " facts, " + (after - before) / (1024 * 1024) + " MiB");
+		}
+		Expressions.setInterning(false);
+	}
+
+	/**
+	 * Adds the triples of a (gzipped) N-Triples file as facts of the form
+	 * {@code triple(subject, predicate, object)}. Only the features of N-Triples
+	 * that are used in the example data are supported.
+	 */
+	static void loadTriples(final String filePath, final KnowledgeBase kb) throws IOException {
+		try (BufferedReader reader = openGzipFile(filePath)) {
+			final List<Fact> facts = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty() || line.charAt(0) == '#') {
+					continue;
+				}
+				final int subjectEnd = line.indexOf(' ');
+				final int predicateEnd = line.indexOf(' ', subjectEnd + 1);
+				final int objectEnd = line.lastIndexOf(" .");
+				facts.add(Expressions.makeFact("triple", toTerm(line.substring(0, subjectEnd)),
+						toTerm(line.substring(subjectEnd + 1, predicateEnd)),
+						toTerm(line.substring(predicateEnd + 1, objectEnd))));
+			}
+			kb.addStatements(facts);
+		}
+	}
+
+	/**
+	 * Adds the rows of a (gzipped) CSV file as facts of a predicate named after the
+	 * file. Quoting is not supported.
+	 */
+	static void loadCsv(final String filePath, final KnowledgeBase kb) throws IOException {
+		final String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+		final String predicateName = fileName.substring(0, fileName.indexOf('.'));
+		try (BufferedReader reader = openGzipFile(filePath)) {
+			final List<Fact> facts = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final String[] fields = line.split(",");
+				final Term[] terms = new Term[fields.length];
+				for (int i = 0; i < fields.length; i++) {
+					terms[i] = Expressions.makeAbstractConstant(fields[i].trim());
+				}
+				facts.add(Expressions.makeFact(predicateName, terms));
+			}
+			kb.addStatements(facts);
+		}
+	}
+
+	private static Term toTerm(final String ntriplesTerm) {
+		if (ntriplesTerm.charAt(0) == '<') {
+			return Expressions.makeAbstractConstant(ntriplesTerm.substring(1, ntriplesTerm.length() - 1));
+		} else if (ntriplesTerm.startsWith("_:")) {
+			return Expressions.makeAbstractConstant(ntriplesTerm);
+		}
+		final int closingQuote = ntriplesTerm.lastIndexOf('"');
+		final String lexicalValue = ntriplesTerm.substring(1, closingQuote);
+		final String suffix = ntriplesTerm.substring(closingQuote + 1);
+		if (suffix.startsWith("@")) {
+			return Expressions.makeLanguageStringConstant(lexicalValue, suffix.substring(1));
+		} else if (suffix.startsWith("^^<")) {
+			return Expressions.makeDatatypeConstant(lexicalValue, suffix.substring(3, suffix.length() - 1));
+		} else {
+			return Expressions.makeDatatypeConstant(lexicalValue, PrefixDeclarationRegistry.XSD_STRING);
+		}
+	}
+
+	private static BufferedReader openGzipFile(final String filePath) throws IOException {
+		return new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(new FileInputStream(filePath)), StandardCharsets.UTF_8));
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
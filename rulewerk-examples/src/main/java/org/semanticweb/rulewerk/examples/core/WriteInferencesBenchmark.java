@@ -0,0 +1,89 @@
+package org.semanticweb.rulewerk.examples.core;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+import org.semanticweb.rulewerk.core.reasoner.implementation.VLogReasoner;
+
+/**
+ * This example measures the throughput of exporting all inferences with
+ * {@link Reasoner#writeInferences(String)}, for plain and gzip-compressed files
+ * and several output buffer sizes (see
+ * {@link Reasoner#setOutputBufferSize(int)}). The knowledge base consists of
+ * generated {@code edge} facts and one rule that copies them, so that the
+ * materialisation contains twice as many facts as the knowledge base.
+ *
+ * The number of generated facts can be given as argument, e.g., 50000000 for a
+ * materialisation of 100M facts (which needs a large heap).
+ */
+public class WriteInferencesBenchmark {
+
+	private static final int[] BUFFER_SIZES = { 8 * 1024, 64 * 1024, 1024 * 1024 };
+
+	public static void main(final String[] args) throws IOException {
+		final int factCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		final KnowledgeBase kb = new KnowledgeBase();
+		final List<Fact> facts = new ArrayList<>(factCount);
+		for (int i = 0; i < factCount; i++) {
+			facts.add(Expressions.makeFact("edge", Expressions.makeAbstractConstant("http://example.org/a" + i),
+					Expressions.makeAbstractConstant("http://example.org/b" + (i % 1000))));
+		}
+		kb.addStatements(facts);
+		facts.clear();
+		final UniversalVariable x = Expressions.makeUniversalVariable("X");
+		final UniversalVariable y = Expressions.makeUniversalVariable("Y");
+		final PositiveLiteral edge = Expressions.makePositiveLiteral("edge", x, y);
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral("reach", x, y), edge));
+
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			System.out.println("Writing " + 2L * factCount + " inferred facts:");
+			for (final String extension : new String[] { ".rls", ".rls.gz" }) {
+				for (final int bufferSize : BUFFER_SIZES) {
+					reasoner.setOutputBufferSize(bufferSize);
+					final File file = File.createTempFile("inferences", extension);
+					try {
+						final long start = System.nanoTime();
+						reasoner.writeInferences(file.getPath());
+						final double seconds = (System.nanoTime() - start) / 1e9;
+						System.out.printf(" - %-7s buffer %4d KiB: %6.1f s, %10.0f facts/s, %7.1f MiB/s (%d MiB)%n",
+								extension, bufferSize / 1024, seconds, 2L * factCount / seconds,
+								file.length() / (1024.0 * 1024.0) / seconds, file.length() / (1024 * 1024));
+					} finally {
+						file.delete();
+					}
+				}
+			}
+		}
+	}
+
+}
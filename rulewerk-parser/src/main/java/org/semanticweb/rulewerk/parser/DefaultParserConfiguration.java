@@ -21,6 +21,8 @@ package org.semanticweb.rulewerk.parser;
  */
 
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.parser.datasources.BinaryFactFileDataSourceDeclarationHandler;
+import org.semanticweb.rulewerk.parser.datasources.CsvDirectoryDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.CsvFileDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.RdfFileDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.SparqlQueryResultDataSourceDeclarationHandler;
@@ -40,13 +42,16 @@ public class DefaultParserConfiguration extends ParserConfiguration {
 	}
 
 	/**
-	 * Register built-in data sources (currently CSV, RDF, SPARQL).
+	 * Register built-in data sources (currently CSV, CSV directories, RDF, SPARQL,
+	 * binary fact files).
 	 */
 	private void registerDefaultDataSources() {
 		registerDataSource(Serializer.CSV_FILE_DATA_SOURCE, new CsvFileDataSourceDeclarationHandler());
+		registerDataSource(Serializer.CSV_DIRECTORY_DATA_SOURCE, new CsvDirectoryDataSourceDeclarationHandler());
 		registerDataSource(Serializer.RDF_FILE_DATA_SOURCE, new RdfFileDataSourceDeclarationHandler());
 		registerDataSource(Serializer.SPARQL_QUERY_RESULT_DATA_SOURCE,
 				new SparqlQueryResultDataSourceDeclarationHandler());
+		registerDataSource(Serializer.BINARY_FACT_FILE_DATA_SOURCE, new BinaryFactFileDataSourceDeclarationHandler());
 	}
 
 	private void registerDefaultDirectives() {
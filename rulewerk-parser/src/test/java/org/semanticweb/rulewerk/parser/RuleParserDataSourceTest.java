@@ -23,6 +23,7 @@ package org.semanticweb.rulewerk.parser;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -37,6 +38,9 @@ import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.BinaryFactFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.BinaryFactFileWriter;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvDirectoryDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
@@ -59,6 +63,13 @@ public class RuleParserDataSourceTest {
 		assertEquals(csvds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
 	}
 
+	@Test
+	public void testCsvDirectorySource() throws ParsingException {
+		String input = "@source p[2] : load-csv-dir(\"src/main/data/input/*.csv.gz\") .";
+		CsvDirectoryDataSource csvds = new CsvDirectoryDataSource("src/main/data/input/*.csv.gz");
+		assertEquals(csvds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+	}
+
 	@Test
 	public void testRdfSource() throws ParsingException, IOException {
 		String input = "@source p[3] : load-rdf(\"" + EXAMPLE_RDF_FILE_PATH + "\") .";
@@ -72,6 +83,30 @@ public class RuleParserDataSourceTest {
 		RuleParser.parseDataSourceDeclaration(input);
 	}
 
+	@Test
+	public void testBinaryFactFileSource() throws ParsingException, IOException {
+		File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			new BinaryFactFileWriter(file.getPath(), 2).close();
+			String input = "@source p[2] : load-binary(\"" + file.getPath() + "\") .";
+			BinaryFactFileDataSource binaryds = new BinaryFactFileDataSource(file.getPath());
+			assertEquals(binaryds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = ParsingException.class)
+	public void testBinaryFactFileSourceInvalidArity() throws ParsingException, IOException {
+		File file = File.createTempFile("facts", BinaryFactFileDataSource.EXTENSION);
+		try {
+			new BinaryFactFileWriter(file.getPath(), 2).close();
+			RuleParser.parseDataSourceDeclaration("@source p[3] : load-binary(\"" + file.getPath() + "\") .");
+		} finally {
+			file.delete();
+		}
+	}
+
 	@Test
 	public void testSparqlSource() throws ParsingException, MalformedURLException {
 		String input = "@source p[2] : sparql(<" + WIKIDATA_SPARQL_ENDPOINT_URI
@@ -29,10 +29,8 @@ import org.openrdf.rio.ntriples.NTriplesUtil;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
-import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.DatatypeConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.LanguageStringConstantImpl;
 
 final class RdfValueToTermConverter {
 
@@ -58,18 +56,18 @@ final class RdfValueToTermConverter {
 
 	static Term rdfUriToConstant(final URI uri) {
 		final String escapedURIString = NTriplesUtil.escapeString(uri.toString());
-		return new AbstractConstantImpl(escapedURIString);
+		return Expressions.makeAbstractConstant(escapedURIString);
 	}
 
 	static Term rdfLiteralToConstant(final Literal literal) {
 		final URI datatype = literal.getDatatype();
 		if (datatype != null) {
-			return new DatatypeConstantImpl(XMLDatatypeUtil.normalize(literal.getLabel(), datatype),
+			return Expressions.makeDatatypeConstant(XMLDatatypeUtil.normalize(literal.getLabel(), datatype),
 					datatype.toString());
 		} else if (literal.getLanguage() != null) {
-			return new LanguageStringConstantImpl(literal.getLabel(), literal.getLanguage());
+			return Expressions.makeLanguageStringConstant(literal.getLabel(), literal.getLanguage());
 		} else {
-			return new DatatypeConstantImpl(literal.getLabel(), PrefixDeclarationRegistry.XSD_STRING);
+			return Expressions.makeDatatypeConstant(literal.getLabel(), PrefixDeclarationRegistry.XSD_STRING);
 		}
 	}
 